@@ -0,0 +1,82 @@
+package org.folio.metrics;
+
+import java.util.function.Function;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.sqlclient.Pool;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Tuple;
+
+import org.folio.rest.persist.Conn;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * {@link PostgresClient} of a tenant that counts its round trips as round trips of the current request,
+ * see {@link RequestRoundTrips}. Every call on the pool counts a connection and a statement, and every connection
+ * or transaction counts a connection. Statements run on a connection are counted by wrapping them in
+ * {@link #counted(Future)}. All database access of the library goes through this client or
+ * {@link #withTransaction(Pool, Function)}.
+ */
+public final class CountingPostgresClient {
+
+  private final PostgresClient client;
+
+  private CountingPostgresClient(PostgresClient client) {
+    this.client = client;
+  }
+
+  public static CountingPostgresClient getInstance(Vertx vertx, String tenantId) {
+    return new CountingPostgresClient(PostgresClient.getInstance(vertx, tenantId));
+  }
+
+  public Future<RowSet<Row>> execute(String sql) {
+    return onPool(pgClient -> pgClient.execute(sql));
+  }
+
+  public Future<RowSet<Row>> execute(String sql, Tuple params) {
+    return onPool(pgClient -> pgClient.execute(sql, params));
+  }
+
+  public <T> Future<T> getById(String table, String id, Class<T> clazz) {
+    return onPool(pgClient -> pgClient.getById(table, id, clazz));
+  }
+
+  /**
+   * Runs a call that executes a single statement on a connection of its own, e.g. a {@link org.folio.db.CqlQuery}.
+   */
+  public <T> Future<T> onPool(Function<PostgresClient, Future<T>> call) {
+    RequestRoundTrips.countConnection();
+    RequestRoundTrips.countStatement();
+    return call.apply(client);
+  }
+
+  public <T> Future<T> withConn(Function<Conn, Future<T>> function) {
+    RequestRoundTrips.countConnection();
+    return client.withConn(function);
+  }
+
+  public <T> Future<T> withTrans(Function<Conn, Future<T>> function) {
+    RequestRoundTrips.countConnection();
+    return client.withTrans(function);
+  }
+
+  /**
+   * Runs the function in a transaction of the pool, counting the connection.
+   */
+  public static <T> Future<T> withTransaction(Pool pool, Function<SqlConnection, Future<T>> function) {
+    RequestRoundTrips.countConnection();
+    return pool.withTransaction(function);
+  }
+
+  /**
+   * Counts the statement just sent on a {@link Conn} or {@link SqlConnection} as a statement of the current request,
+   * e.g. {@code counted(conn.execute(sql))}, and returns it unchanged.
+   */
+  public static <T> Future<T> counted(Future<T> statement) {
+    RequestRoundTrips.countStatement();
+    return statement;
+  }
+}
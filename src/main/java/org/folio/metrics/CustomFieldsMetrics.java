@@ -0,0 +1,107 @@
+package org.folio.metrics;
+
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.Future;
+import io.vertx.micrometer.backends.BackendRegistries;
+import org.apache.commons.lang3.StringUtils;
+
+import org.folio.model.CacheStats;
+
+/**
+ * Timers and counters of operations of the library, all tagged by tenant.
+ * Timers are tagged by operation and by outcome, {@code success} or {@code failure}.
+ * Meters are registered in the default registry of Vert.x metrics if they are enabled, e.g. with the Prometheus
+ * endpoint of the module, and in the Micrometer global registry otherwise, which the embedding application
+ * can add its own registries to.
+ */
+public class CustomFieldsMetrics {
+
+  public static final String SERVICE_TIMER = "custom.fields.service";
+  public static final String REPOSITORY_TIMER = "custom.fields.repository";
+  public static final String RECORDS_TIMER = "custom.fields.records";
+  public static final String USERS_TIMER = "custom.fields.users";
+  public static final String VALIDATION_TIMER = "custom.fields.validation";
+  public static final String DELETED_VALUES_COUNTER = "custom.fields.values.deleted";
+  public static final String CACHE_METER_PREFIX = "custom.fields.cache.";
+
+  static final String UNKNOWN_TENANT = "unknown";
+
+  private final MeterRegistry registry;
+
+  public CustomFieldsMetrics(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  public static MeterRegistry defaultRegistry() {
+    MeterRegistry registry = BackendRegistries.getDefaultNow();
+    return registry != null ? registry : Metrics.globalRegistry;
+  }
+
+  public MeterRegistry getRegistry() {
+    return registry;
+  }
+
+  /**
+   * Times the asynchronous operation from its start to the completion of the returned future.
+   */
+  public <T> Future<T> time(String timer, String operation, String tenantId, Supplier<Future<T>> supplier) {
+    return time(timer, Tags.of("operation", operation), tenantId, supplier);
+  }
+
+  /**
+   * Times the asynchronous operation with the given tags in addition to tenant and outcome.
+   */
+  public <T> Future<T> time(String timer, Tags tags, String tenantId, Supplier<Future<T>> supplier) {
+    Timer.Sample sample = Timer.start(registry);
+    Future<T> future;
+    try {
+      future = supplier.get();
+    } catch (RuntimeException e) {
+      future = Future.failedFuture(e);
+    }
+    return future.onComplete(ar -> sample.stop(Timer.builder(timer)
+      .tags(tags)
+      .tag("tenant", tenantTag(tenantId))
+      .tag("outcome", ar.succeeded() ? "success" : "failure")
+      .register(registry)));
+  }
+
+  /**
+   * Counts values of custom fields removed from records of the table.
+   */
+  public void countDeletedValues(String tableName, String tenantId, long rows) {
+    Counter.builder(DELETED_VALUES_COUNTER)
+      .tag("table", tableName)
+      .tag("tenant", tenantTag(tenantId))
+      .register(registry)
+      .increment(rows);
+  }
+
+  /**
+   * Registers hits, misses, evictions and size of the cache, read from the statistics supplier when scraped.
+   * The meters keep the supplier reachable.
+   */
+  public void bindCache(String cacheName, Supplier<CacheStats> stats) {
+    Tags tags = Tags.of("cache", cacheName);
+    FunctionCounter.builder(CACHE_METER_PREFIX + "hits", stats, s -> s.get().getHits())
+      .tags(tags).strongReference(true).register(registry);
+    FunctionCounter.builder(CACHE_METER_PREFIX + "misses", stats, s -> s.get().getMisses())
+      .tags(tags).strongReference(true).register(registry);
+    FunctionCounter.builder(CACHE_METER_PREFIX + "evictions", stats, s -> s.get().getEvictions())
+      .tags(tags).strongReference(true).register(registry);
+    Gauge.builder(CACHE_METER_PREFIX + "size", stats, s -> s.get().getSize())
+      .tags(tags).strongReference(true).register(registry);
+  }
+
+  private static String tenantTag(String tenantId) {
+    return StringUtils.defaultIfBlank(tenantId, UNKNOWN_TENANT);
+  }
+}
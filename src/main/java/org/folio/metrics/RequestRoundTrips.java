@@ -0,0 +1,83 @@
+package org.folio.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+
+/**
+ * Counts SQL statements, connections acquired and outbound HTTP calls of an incoming request.
+ * Vert.x handles every request on its own duplicated context, and callbacks of the database and HTTP clients run
+ * on the context of the caller, so the counts of a request are kept in the local data of its context once
+ * the request is {@link #start(Context) started}. Outside of a request, e.g. in background jobs, nothing is counted.
+ * Database round trips are counted by {@link CountingPostgresClient}.
+ */
+public final class RequestRoundTrips {
+
+  private static final Object KEY = RequestRoundTrips.class;
+
+  private final AtomicInteger statements = new AtomicInteger();
+  private final AtomicInteger connections = new AtomicInteger();
+  private final AtomicInteger httpCalls = new AtomicInteger();
+
+  private RequestRoundTrips() {
+  }
+
+  RequestRoundTrips(int statements, int connections, int httpCalls) {
+    this.statements.set(statements);
+    this.connections.set(connections);
+    this.httpCalls.set(httpCalls);
+  }
+
+  /**
+   * Starts counting round trips of the request handled on the given duplicated context and returns its counts.
+   */
+  public static RequestRoundTrips start(Context context) {
+    RequestRoundTrips roundTrips = new RequestRoundTrips();
+    if (context != null) {
+      context.putLocal(KEY, roundTrips);
+    }
+    return roundTrips;
+  }
+
+  /**
+   * Returns the counts of the request handled on the given context, empty counts if no request was started on it.
+   */
+  public static RequestRoundTrips of(Context context) {
+    RequestRoundTrips roundTrips = context != null ? context.getLocal(KEY) : null;
+    return roundTrips != null ? roundTrips : new RequestRoundTrips();
+  }
+
+  public static void countStatement() {
+    current().statements.incrementAndGet();
+  }
+
+  public static void countConnection() {
+    current().connections.incrementAndGet();
+  }
+
+  public static void countHttpCall() {
+    current().httpCalls.incrementAndGet();
+  }
+
+  private static RequestRoundTrips current() {
+    return of(Vertx.currentContext());
+  }
+
+  public int getStatements() {
+    return statements.get();
+  }
+
+  public int getConnections() {
+    return connections.get();
+  }
+
+  public int getHttpCalls() {
+    return httpCalls.get();
+  }
+
+  @Override
+  public String toString() {
+    return "statements=" + getStatements() + ", connections=" + getConnections() + ", httpCalls=" + getHttpCalls();
+  }
+}
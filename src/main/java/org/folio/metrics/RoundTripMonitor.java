@@ -0,0 +1,95 @@
+package org.folio.metrics;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports database and HTTP round trips of requests to the custom fields API, see {@link RequestRoundTrips}.
+ * Counts of every request are logged at debug level and, if enabled, returned in the {@value #ROUND_TRIPS_HEADER}
+ * response header. Requests over the budget are logged as warnings; in enforcing mode, meant for tests, they fail
+ * with {@code 500 Internal Server Error}, so N+1 query patterns break the build instead of slowing down production.
+ * A budget of {@code 0} is unlimited.
+ */
+@Log4j2
+@Component
+public class RoundTripMonitor {
+
+  public static final String ROUND_TRIPS_HEADER = "X-Round-Trips";
+
+  private final boolean headerEnabled;
+  private final boolean enforced;
+  private final int maxStatements;
+  private final int maxConnections;
+  private final int maxHttpCalls;
+
+  public RoundTripMonitor(@Value("${custom.fields.round.trips.header.enabled:false}") boolean headerEnabled,
+                          @Value("${custom.fields.round.trips.budget.enforced:false}") boolean enforced,
+                          @Value("${custom.fields.round.trips.budget.statements:0}") int maxStatements,
+                          @Value("${custom.fields.round.trips.budget.connections:0}") int maxConnections,
+                          @Value("${custom.fields.round.trips.budget.http.calls:0}") int maxHttpCalls) {
+    this.headerEnabled = headerEnabled;
+    this.enforced = enforced;
+    this.maxStatements = maxStatements;
+    this.maxConnections = maxConnections;
+    this.maxHttpCalls = maxHttpCalls;
+  }
+
+  /**
+   * Starts counting round trips of the request handled on the current context and wraps its response handler,
+   * so that they are reported when the response is ready.
+   */
+  public Handler<AsyncResult<Response>> track(String operation, Handler<AsyncResult<Response>> handler) {
+    RequestRoundTrips roundTrips = RequestRoundTrips.start(Vertx.currentContext());
+    return ar -> handler.handle(report(operation, roundTrips, ar));
+  }
+
+  AsyncResult<Response> report(String operation, RequestRoundTrips roundTrips, AsyncResult<Response> ar) {
+    if (!isOverBudget(roundTrips)) {
+      log.debug("report:: Request round trips [operation: {}, statements: {}, connections: {}, httpCalls: {}]",
+        operation, roundTrips.getStatements(), roundTrips.getConnections(), roundTrips.getHttpCalls());
+      return withHeader(ar, roundTrips);
+    }
+    log.warn("report:: Request over round trip budget [operation: {}, statements: {}, connections: {}, "
+        + "httpCalls: {}, budget: {}]", operation, roundTrips.getStatements(), roundTrips.getConnections(),
+      roundTrips.getHttpCalls(), budget());
+    if (enforced) {
+      return Future.succeededFuture(Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+        .type(MediaType.TEXT_PLAIN)
+        .header(ROUND_TRIPS_HEADER, roundTrips.toString())
+        .entity(operation + " exceeded round trip budget: " + roundTrips + " (budget: " + budget() + ")")
+        .build());
+    }
+    return withHeader(ar, roundTrips);
+  }
+
+  boolean isOverBudget(RequestRoundTrips roundTrips) {
+    return exceeds(roundTrips.getStatements(), maxStatements)
+      || exceeds(roundTrips.getConnections(), maxConnections)
+      || exceeds(roundTrips.getHttpCalls(), maxHttpCalls);
+  }
+
+  private AsyncResult<Response> withHeader(AsyncResult<Response> ar, RequestRoundTrips roundTrips) {
+    if (!headerEnabled || ar.failed()) {
+      return ar;
+    }
+    return Future.succeededFuture(Response.fromResponse(ar.result())
+      .header(ROUND_TRIPS_HEADER, roundTrips.toString())
+      .build());
+  }
+
+  private String budget() {
+    return "statements=" + maxStatements + ", connections=" + maxConnections + ", httpCalls=" + maxHttpCalls;
+  }
+
+  private static boolean exceeds(int count, int max) {
+    return max > 0 && count > max;
+  }
+}
@@ -0,0 +1,12 @@
+package org.folio.model;
+
+import lombok.Value;
+
+@Value
+public class CacheStats {
+
+  long hits;
+  long misses;
+  long evictions;
+  int size;
+}
@@ -0,0 +1,73 @@
+package org.folio.repository;
+
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+
+import io.vertx.core.Future;
+
+import org.folio.rest.jaxrs.model.CustomFieldJob;
+import org.folio.rest.persist.Conn;
+
+public interface CustomFieldJobRepository {
+
+  /**
+   * Saves the job, so it is committed together with the change of custom field definitions it belongs to.
+   * Saved job is due immediately.
+   *
+   * @param job        - job to save
+   * @param connection - {@link Conn} of the transaction changing custom field definitions
+   */
+  Future<CustomFieldJob> save(CustomFieldJob job, @Nonnull Conn connection);
+
+  /**
+   * Returns job with given id.
+   *
+   * @param id       - id of the job
+   * @param tenantId - tenant id
+   */
+  Future<Optional<CustomFieldJob>> findById(String id, String tenantId);
+
+  /**
+   * Returns jobs of the custom field ordered by creation date.
+   *
+   * @param customFieldId - id of the custom field
+   * @param tenantId      - tenant id
+   */
+  Future<List<CustomFieldJob>> findByCustomFieldId(String customFieldId, String tenantId);
+
+  /**
+   * Claims the next due job, skipping jobs claimed concurrently. The claimed job is marked in progress,
+   * its attempts are incremented and it is leased for the given time: if it is not updated by then,
+   * e.g. because the module instance processing it stopped, it is due again.
+   *
+   * @param leaseSeconds - lease time of the claimed job
+   * @param tenantId     - tenant id
+   * @return claimed job or empty optional if no job is due
+   */
+  Future<Optional<CustomFieldJob>> claimNext(long leaseSeconds, String tenantId);
+
+  /**
+   * Extends the lease of the job claimed with the given attempt. A job processed for longer than the lease
+   * is claimed again, so the lease is renewed while the job is processed.
+   *
+   * @param id           - id of the job
+   * @param attempt      - attempt the job was claimed with
+   * @param leaseSeconds - lease time from now
+   * @param tenantId     - tenant id
+   * @return false if the job is no longer in progress or was claimed again since
+   */
+  Future<Boolean> renewLease(String id, int attempt, long leaseSeconds, String tenantId);
+
+  /**
+   * Updates the job and sets the time it is due in. The job is updated only if it was not claimed again
+   * since it was claimed with the attempt of the given job, so an attempt whose lease expired does not
+   * overwrite the outcome of the next one.
+   *
+   * @param job          - job to update
+   * @param delaySeconds - time the job is due in, relevant for pending jobs only
+   * @param tenantId     - tenant id
+   * @return false if the job was claimed again since
+   */
+  Future<Boolean> update(CustomFieldJob job, long delaySeconds, String tenantId);
+}
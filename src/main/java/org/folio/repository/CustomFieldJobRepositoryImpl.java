@@ -0,0 +1,124 @@
+package org.folio.repository;
+
+import static org.folio.metrics.CountingPostgresClient.counted;
+import static org.folio.repository.CustomFieldsConstants.CLAIM_CUSTOM_FIELD_JOB;
+import static org.folio.repository.CustomFieldsConstants.CUSTOM_FIELD_JOB_TABLE;
+import static org.folio.repository.CustomFieldsConstants.JSONB_COLUMN;
+import static org.folio.repository.CustomFieldsConstants.RENEW_CUSTOM_FIELD_JOB_LEASE;
+import static org.folio.repository.CustomFieldsConstants.SELECT_CUSTOM_FIELD_JOBS;
+import static org.folio.repository.CustomFieldsConstants.UPDATE_CUSTOM_FIELD_JOB;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import javax.annotation.Nonnull;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.Tuple;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import org.folio.db.RowSetUtils;
+import org.folio.db.exc.translation.DBExceptionTranslator;
+import org.folio.metrics.CountingPostgresClient;
+import org.folio.rest.jaxrs.model.CustomFieldJob;
+import org.folio.rest.persist.Conn;
+import org.folio.rest.persist.PostgresClient;
+
+@Log4j2
+@Component
+public class CustomFieldJobRepositoryImpl implements CustomFieldJobRepository {
+
+  @Autowired
+  private Vertx vertx;
+  @Autowired
+  private DBExceptionTranslator excTranslator;
+
+  @Override
+  public Future<CustomFieldJob> save(CustomFieldJob job, @Nonnull Conn connection) {
+    if (StringUtils.isBlank(job.getId())) {
+      job.setId(UUID.randomUUID().toString());
+    }
+    log.debug("Saving a custom field job with id: {}.", job.getId());
+
+    return counted(connection.save(CUSTOM_FIELD_JOB_TABLE, job.getId(), job))
+      .map(id -> job)
+      .recover(excTranslator.translateOrPassBy());
+  }
+
+  @Override
+  public Future<Optional<CustomFieldJob>> findById(String id, String tenantId) {
+    log.debug("Getting a custom field job with id: {}.", id);
+    return pgClient(tenantId).getById(CUSTOM_FIELD_JOB_TABLE, id, CustomFieldJob.class)
+      .map(Optional::ofNullable)
+      .recover(excTranslator.translateOrPassBy());
+  }
+
+  @Override
+  public Future<List<CustomFieldJob>> findByCustomFieldId(String customFieldId, String tenantId) {
+    log.debug("Getting custom field jobs of custom field with id: {}.", customFieldId);
+    String query = String.format(SELECT_CUSTOM_FIELD_JOBS, getTableName(tenantId));
+
+    return pgClient(tenantId).execute(query, Tuple.of(customFieldId))
+      .map(rowSet -> RowSetUtils.mapItems(rowSet, this::toJob))
+      .recover(excTranslator.translateOrPassBy());
+  }
+
+  @Override
+  public Future<Optional<CustomFieldJob>> claimNext(long leaseSeconds, String tenantId) {
+    String query = String.format(CLAIM_CUSTOM_FIELD_JOB, getTableName(tenantId));
+
+    return pgClient(tenantId).execute(query, Tuple.of(leaseSeconds))
+      .map(rowSet -> rowSet.iterator().hasNext()
+        ? Optional.of(toJob(rowSet.iterator().next()))
+        : Optional.<CustomFieldJob>empty())
+      .recover(excTranslator.translateOrPassBy());
+  }
+
+  @Override
+  public Future<Boolean> renewLease(String id, int attempt, long leaseSeconds, String tenantId) {
+    log.debug("Renewing the lease of a custom field job with id: {}, attempt: {}.", id, attempt);
+    String query = String.format(RENEW_CUSTOM_FIELD_JOB_LEASE, getTableName(tenantId));
+
+    return pgClient(tenantId).execute(query, Tuple.of(id, attempt, leaseSeconds))
+      .map(rowSet -> rowSet.rowCount() > 0)
+      .recover(excTranslator.translateOrPassBy());
+  }
+
+  @Override
+  public Future<Boolean> update(CustomFieldJob job, long delaySeconds, String tenantId) {
+    log.debug("Updating a custom field job with id: {}, status: {}.", job.getId(), job.getStatus());
+    String query = String.format(UPDATE_CUSTOM_FIELD_JOB, getTableName(tenantId));
+
+    return Future.succeededFuture(job)
+      .map(this::toJson)
+      .compose(json -> pgClient(tenantId).execute(query, Tuple.of(job.getId(), json, delaySeconds)))
+      .map(rowSet -> rowSet.rowCount() > 0)
+      .recover(excTranslator.translateOrPassBy());
+  }
+
+  private CustomFieldJob toJob(Row row) {
+    return row.getJsonObject(JSONB_COLUMN).mapTo(CustomFieldJob.class);
+  }
+
+  private String toJson(CustomFieldJob job) {
+    try {
+      return PostgresClient.pojo2JsonObject(job).encode();
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  private String getTableName(String tenantId) {
+    return PostgresClient.convertToPsqlStandard(tenantId) + "." + CUSTOM_FIELD_JOB_TABLE;
+  }
+
+  private CountingPostgresClient pgClient(String tenantId) {
+    return CountingPostgresClient.getInstance(vertx, tenantId);
+  }
+}
@@ -4,15 +4,50 @@ public final class CustomFieldsConstants {
 
   public static final String CUSTOM_FIELDS_TABLE = "custom_fields";
 
-  public static final String MAX_ORDER_COLUMN = "max_order";
-  public static final String VALUES_COLUMN = "values";
   public static final String JSONB_COLUMN = "jsonb";
   public static final String ID_COLUMN = "id";
 
-  public static final String REF_ID_REGEX = "%s(_([2-9]|[1-9]\\d+))?";
-  public static final String SELECT_REF_IDS = "SELECT "+ JSONB_COLUMN + " ->> 'refId' as "
-    + VALUES_COLUMN + " FROM %s WHERE " + JSONB_COLUMN + " ->> 'refId' SIMILAR TO $1" ;
-  public static final String SELECT_MAX_ORDER = "SELECT MAX((jsonb ->> 'order')::int) as " + MAX_ORDER_COLUMN + " FROM %s";
+  public static final String REF_ID_COUNTER_TABLE = "custom_field_ref_id_counter";
+  public static final String REF_ID_COUNTER_COLUMN = "value";
+  public static final String REF_ID_COUNTER_BASE_COLUMN = "base_ref_id";
+  public static final String INCREMENT_REF_ID_COUNTER = "INSERT INTO %s AS c (base_ref_id, value) VALUES ($1, 1)"
+    + " ON CONFLICT (base_ref_id) DO UPDATE SET value = c.value + 1 RETURNING c." + REF_ID_COUNTER_COLUMN;
+  public static final String INCREMENT_REF_ID_COUNTERS = "INSERT INTO %s AS c (base_ref_id, value)"
+    + " SELECT base_ref_id, count(*) FROM unnest($1::text[]) AS base_ref_id GROUP BY base_ref_id"
+    + " ON CONFLICT (base_ref_id) DO UPDATE SET value = c.value + EXCLUDED.value"
+    + " RETURNING c." + REF_ID_COUNTER_BASE_COLUMN + ", c." + REF_ID_COUNTER_COLUMN;
+  public static final String NEXT_ORDER_COLUMN = "next_order";
+  public static final String SELECT_NEXT_ORDER = "SELECT %s.next_custom_field_order($1) as " + NEXT_ORDER_COLUMN;
+  public static final String REORDERED_COLUMN = "reordered";
+  public static final String REORDER_CUSTOM_FIELDS = "SELECT %s.reorder_custom_fields($1) as " + REORDERED_COLUMN;
+
+  public static final String INSERT_CUSTOM_FIELDS = "INSERT INTO %s (id, jsonb)"
+    + " SELECT v.id::uuid, v.jsonb::jsonb FROM unnest($1::text[], $2::text[]) AS v(id, jsonb)";
+  public static final String UPDATE_CUSTOM_FIELDS = "UPDATE %s AS cf SET jsonb = v.jsonb::jsonb"
+    + " FROM unnest($1::text[], $2::text[]) AS v(id, jsonb) WHERE cf.id = v.id::uuid RETURNING cf.id";
+  public static final String DELETE_CUSTOM_FIELDS = "DELETE FROM %s WHERE id = ANY($1::text[]::uuid[])";
+  public static final String TOTAL_COLUMN = "total";
+  public static final String SELECT_CUSTOM_FIELD_BY_ID = "SELECT jsonb FROM %s WHERE id = $1::text::uuid";
+  public static final String SELECT_CUSTOM_FIELDS_PAGE = "SELECT jsonb, COUNT(*) OVER () AS " + TOTAL_COLUMN
+    + " FROM %1$s WHERE %2$s%3$s OFFSET $1 LIMIT $2";
+  public static final String COUNT_CUSTOM_FIELDS = "SELECT COUNT(*)::integer FROM %1$s WHERE %2$s";
+
+  public static final String CUSTOM_FIELD_JOB_TABLE = "custom_field_job";
+  public static final String CLAIM_CUSTOM_FIELD_JOB = "UPDATE %1$s AS j"
+    + " SET jsonb = j.jsonb || jsonb_build_object('status', 'IN_PROGRESS',"
+    + " 'attempts', COALESCE((j.jsonb->>'attempts')::integer, 0) + 1),"
+    + " next_run_at = now() + $1::bigint * interval '1 second'"
+    + " WHERE j.id = (SELECT id FROM %1$s WHERE jsonb->>'status' IN ('PENDING', 'IN_PROGRESS')"
+    + " AND next_run_at <= now() ORDER BY next_run_at LIMIT 1 FOR UPDATE SKIP LOCKED)"
+    + " RETURNING j.jsonb";
+  public static final String UPDATE_CUSTOM_FIELD_JOB = "UPDATE %s SET jsonb = $2::jsonb,"
+    + " next_run_at = now() + $3::bigint * interval '1 second' WHERE id = $1::uuid"
+    + " AND jsonb->'attempts' = $2::jsonb->'attempts'";
+  public static final String RENEW_CUSTOM_FIELD_JOB_LEASE = "UPDATE %s"
+    + " SET next_run_at = now() + $3::bigint * interval '1 second' WHERE id = $1::uuid"
+    + " AND jsonb->>'status' = 'IN_PROGRESS' AND (jsonb->>'attempts')::integer = $2";
+  public static final String SELECT_CUSTOM_FIELD_JOBS = "SELECT jsonb FROM %s"
+    + " WHERE jsonb->>'customFieldId' = $1 ORDER BY jsonb->>'createdDate'";
 
   private CustomFieldsConstants() {
   }
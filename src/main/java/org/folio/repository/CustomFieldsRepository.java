@@ -1,5 +1,7 @@
 package org.folio.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import javax.annotation.Nonnull;
 
@@ -30,6 +32,15 @@ public interface CustomFieldsRepository {
    */
   Future<CustomField> save(CustomField entity, @Nonnull Conn connection);
 
+  /**
+   * Saves the definitions of the custom fields with a single statement.
+   *
+   * @param entities   - definitions of the custom fields to save
+   * @param tenantId   - tenant id
+   * @param connection - {@link Conn} to use
+   */
+  Future<Void> saveAll(List<CustomField> entities, String tenantId, @Nonnull Conn connection);
+
   /**
    * Fetches a custom field definition with given id
    * If custom field with given id doesn't exist then returns an empty {@link Optional}.
@@ -40,23 +51,57 @@ public interface CustomFieldsRepository {
   Future<Optional<CustomField>> findById(String id, String tenantId);
 
   /**
-   * Fetches the maximum custom field reference id by given custom field name.
+   * Fetches a custom field definition with given id from the primary database, never from the read replica.
+   * Used by reads whose result is written back, so they do not act on stale definitions.
+   * If custom field with given id doesn't exist then returns an empty {@link Optional}.
    *
-   * @param customFieldName - name of custom field
-   * @param tenantId        - tenant id
+   * @param id       - id of custom field to get
+   * @param tenantId - tenant id
    */
-  Future<Integer> maxRefId(String customFieldName, String tenantId);
+  Future<Optional<CustomField>> findByIdOnPrimary(String id, String tenantId);
 
-  Future<Integer> maxRefId(String customFieldName, String tenantId, @Nonnull Conn connection);
+  /**
+   * Atomically increments the reference id counter of the given base reference id and returns the new value.
+   * The first call for a base reference id returns 1.
+   *
+   * @param baseRefId - reference id generated from the custom field name
+   * @param tenantId  - tenant id
+   */
+  Future<Integer> nextRefIdCounter(String baseRefId, String tenantId);
+
+  Future<Integer> nextRefIdCounter(String baseRefId, String tenantId, @Nonnull Conn connection);
 
   /**
-   * Fetches the maximum value of "order" attribute in all custom fields,
-   * or 0 if there are no fields with "order" attribute.
+   * Atomically increments the reference id counters of the given base reference ids with a single statement.
+   * Returns the counters allocated for each element of the given list, in the same order,
+   * so a base reference id that occurs several times gets consecutive counters.
    *
-   * @param tenantId - tenant id
+   * @param baseRefIds - reference ids generated from the custom field names
+   * @param tenantId   - tenant id
+   * @param connection - {@link Conn} to use
    */
-  Future<Integer> maxOrder(String tenantId);
+  Future<List<Integer>> nextRefIdCounters(List<String> baseRefIds, String tenantId, @Nonnull Conn connection);
 
+  /**
+   * Allocates the next value of "order" attribute for a custom field of the given entity type.
+   * Allocation is serialized per entity type until the end of the transaction of the connection,
+   * so the custom field must be saved in the same transaction.
+   *
+   * @param entityType - entity type of the custom field
+   * @param tenantId   - tenant id
+   * @param connection - {@link Conn} of the transaction to use
+   */
+  Future<Integer> nextOrder(String entityType, String tenantId, @Nonnull Conn connection);
+
+  /**
+   * Renumbers "order" attribute of custom fields of the given entity type to 1..n keeping their relative order.
+   * Only custom fields whose order changes are updated. Returns the number of updated custom fields.
+   *
+   * @param entityType - entity type of the custom fields
+   * @param tenantId   - tenant id
+   * @param connection - {@link Conn} of the transaction to use
+   */
+  Future<Integer> reorder(String entityType, String tenantId, @Nonnull Conn connection);
 
   /**
    * Fetches custom fields collection that match specified CQL query.
@@ -68,6 +113,17 @@ public interface CustomFieldsRepository {
    */
   Future<CustomFieldCollection> findByQuery(String query, int offset, int limit, String tenantId);
 
+  /**
+   * Fetches custom fields collection that match specified CQL query from the primary database,
+   * never from the read replica. Used by reads whose result is written back.
+   *
+   * @param query    - CQL query
+   * @param offset   - offset
+   * @param limit    - limit
+   * @param tenantId - tenant id
+   */
+  Future<CustomFieldCollection> findByQueryOnPrimary(String query, int offset, int limit, String tenantId);
+
   /**
    * Updates custom field definition.
    *
@@ -85,6 +141,16 @@ public interface CustomFieldsRepository {
    */
   Future<Boolean> update(CustomField entity, @Nonnull Conn connection);
 
+  /**
+   * Updates custom field definitions with a single statement.
+   * Returns ids of the updated custom fields.
+   *
+   * @param entities   - entities to update
+   * @param tenantId   - tenant id
+   * @param connection - {@link Conn} to use
+   */
+  Future<List<String>> updateAll(List<CustomField> entities, String tenantId, @Nonnull Conn connection);
+
   /**
    * Deletes custom field with given id.
    *
@@ -100,4 +166,14 @@ public interface CustomFieldsRepository {
    * @param connection - {@link SQLConnection} to use
    */
   Future<Boolean> delete(String id, @Nonnull Conn connection);
+
+  /**
+   * Deletes custom fields with given ids with a single statement.
+   * Returns the number of deleted custom fields.
+   *
+   * @param ids        - ids of custom fields to delete
+   * @param tenantId   - tenant id
+   * @param connection - {@link Conn} to use
+   */
+  Future<Integer> deleteAll(Collection<String> ids, String tenantId, @Nonnull Conn connection);
 }
@@ -1,23 +1,43 @@
 package org.folio.repository;
 
+import static org.folio.metrics.CountingPostgresClient.counted;
+import static org.folio.repository.CustomFieldsConstants.COUNT_CUSTOM_FIELDS;
 import static org.folio.repository.CustomFieldsConstants.CUSTOM_FIELDS_TABLE;
-import static org.folio.repository.CustomFieldsConstants.MAX_ORDER_COLUMN;
-import static org.folio.repository.CustomFieldsConstants.REF_ID_REGEX;
-import static org.folio.repository.CustomFieldsConstants.SELECT_MAX_ORDER;
-import static org.folio.repository.CustomFieldsConstants.SELECT_REF_IDS;
-import static org.folio.repository.CustomFieldsConstants.VALUES_COLUMN;
+import static org.folio.repository.CustomFieldsConstants.DELETE_CUSTOM_FIELDS;
+import static org.folio.repository.CustomFieldsConstants.ID_COLUMN;
+import static org.folio.repository.CustomFieldsConstants.INCREMENT_REF_ID_COUNTER;
+import static org.folio.repository.CustomFieldsConstants.INCREMENT_REF_ID_COUNTERS;
+import static org.folio.repository.CustomFieldsConstants.INSERT_CUSTOM_FIELDS;
+import static org.folio.repository.CustomFieldsConstants.JSONB_COLUMN;
+import static org.folio.repository.CustomFieldsConstants.NEXT_ORDER_COLUMN;
+import static org.folio.repository.CustomFieldsConstants.REF_ID_COUNTER_BASE_COLUMN;
+import static org.folio.repository.CustomFieldsConstants.REF_ID_COUNTER_COLUMN;
+import static org.folio.repository.CustomFieldsConstants.REF_ID_COUNTER_TABLE;
+import static org.folio.repository.CustomFieldsConstants.REORDERED_COLUMN;
+import static org.folio.repository.CustomFieldsConstants.REORDER_CUSTOM_FIELDS;
+import static org.folio.repository.CustomFieldsConstants.SELECT_CUSTOM_FIELDS_PAGE;
+import static org.folio.repository.CustomFieldsConstants.SELECT_CUSTOM_FIELD_BY_ID;
+import static org.folio.repository.CustomFieldsConstants.SELECT_NEXT_ORDER;
+import static org.folio.repository.CustomFieldsConstants.TOTAL_COLUMN;
+import static org.folio.repository.CustomFieldsConstants.UPDATE_CUSTOM_FIELDS;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.sqlclient.Row;
-import io.vertx.sqlclient.RowSet;
 import io.vertx.sqlclient.Tuple;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.StringUtils;
@@ -25,9 +45,13 @@ import org.folio.rest.persist.Conn;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import org.folio.cql2pgjson.CQL2PgJSON;
+import org.folio.cql2pgjson.exception.CQL2PgJSONException;
+import org.folio.cql2pgjson.model.SqlSelect;
 import org.folio.db.CqlQuery;
 import org.folio.db.RowSetUtils;
 import org.folio.db.exc.translation.DBExceptionTranslator;
+import org.folio.metrics.CountingPostgresClient;
 import org.folio.rest.jaxrs.model.CustomField;
 import org.folio.rest.jaxrs.model.CustomFieldCollection;
 import org.folio.rest.persist.PostgresClient;
@@ -42,6 +66,8 @@ public class CustomFieldsRepositoryImpl implements CustomFieldsRepository {
   private Vertx vertx;
   @Autowired
   private DBExceptionTranslator excTranslator;
+  @Autowired
+  private ReadReplicaClient readReplica;
 
   @Override
   public Future<CustomField> save(CustomField entity, String tenantId) {
@@ -53,16 +79,46 @@ public class CustomFieldsRepositoryImpl implements CustomFieldsRepository {
     log.debug("Saving a custom field with id: {}.", entity.getId());
 
     setIdIfMissing(entity);
-    return connection.save(CUSTOM_FIELDS_TABLE, entity.getId(), entity)
+    return counted(connection.save(CUSTOM_FIELDS_TABLE, entity.getId(), entity))
         .map(id -> {
           entity.setId(id);
           return entity;
         }).recover(excTranslator.translateOrPassBy());
   }
 
+  @Override
+  public Future<Void> saveAll(List<CustomField> entities, String tenantId, @Nonnull Conn connection) {
+    if (entities.isEmpty()) {
+      return Future.succeededFuture();
+    }
+    log.debug("Saving {} custom fields.", entities.size());
+
+    entities.forEach(this::setIdIfMissing);
+    String query = String.format(INSERT_CUSTOM_FIELDS, getCFTableName(tenantId));
+    return Future.succeededFuture(entities)
+      .map(this::toIdsAndJsons)
+      .compose(params -> counted(connection.execute(query, params)))
+      .<Void>mapEmpty()
+      .recover(excTranslator.translateOrPassBy());
+  }
+
   @Override
   public Future<Optional<CustomField>> findById(String id, String tenantId) {
     log.debug("Getting a custom field with id: {}.", id);
+    if (readReplica.isReadable(tenantId)) {
+      return readReplica.withReadConn(tenantId, 0,
+          conn -> counted(conn.preparedQuery(String.format(SELECT_CUSTOM_FIELD_BY_ID, CUSTOM_FIELDS_TABLE))
+            .execute(Tuple.of(id))))
+        .map(rowSet -> rowSet.rowCount() == 0
+          ? Optional.<CustomField>empty()
+          : Optional.of(toCustomField(rowSet.iterator().next())))
+        .recover(excTranslator.translateOrPassBy());
+    }
+    return findByIdOnPrimary(id, tenantId);
+  }
+
+  @Override
+  public Future<Optional<CustomField>> findByIdOnPrimary(String id, String tenantId) {
     return pgClient(tenantId).getById(CUSTOM_FIELDS_TABLE, id, CustomField.class)
         .map(Optional::ofNullable)
         .recover(excTranslator.translateOrPassBy());
@@ -70,39 +126,113 @@ public class CustomFieldsRepositoryImpl implements CustomFieldsRepository {
 
 
   @Override
-  public Future<Integer> maxRefId(String customFieldName, String tenantId) {
-    return pgClient(tenantId).withConn(conn -> maxRefId(customFieldName, tenantId, conn));
+  public Future<Integer> nextRefIdCounter(String baseRefId, String tenantId) {
+    return pgClient(tenantId).withConn(conn -> nextRefIdCounter(baseRefId, tenantId, conn));
   }
 
   @Override
-  public Future<Integer> maxRefId(String customFieldName, String tenantId, @Nonnull Conn connection) {
-    log.debug("Getting custom field ref ids by given name: {}.", customFieldName);
-    String query = String.format(SELECT_REF_IDS, getCFTableName(tenantId));
-    String refIdRegex = String.format(REF_ID_REGEX, customFieldName);
-    Tuple parameters = Tuple.of(refIdRegex);
+  public Future<Integer> nextRefIdCounter(String baseRefId, String tenantId, @Nonnull Conn connection) {
+    log.debug("Incrementing custom field ref id counter by given base ref id: {}.", baseRefId);
+    String query = String.format(INCREMENT_REF_ID_COUNTER, getTableName(tenantId, REF_ID_COUNTER_TABLE));
 
-    return connection.execute(query, parameters)
-        .map(this::mapMaxRefId)
+    return counted(connection.execute(query, Tuple.of(baseRefId)))
+        .map(rowSet -> RowSetUtils.mapFirstItem(rowSet, row -> row.getInteger(REF_ID_COUNTER_COLUMN)))
         .recover(excTranslator.translateOrPassBy());
   }
 
   @Override
-  public Future<Integer> maxOrder(String tenantId) {
-    final String query = String.format(SELECT_MAX_ORDER, getCFTableName(tenantId));
-    log.debug("Getting maximum order of custom fields.");
-    return pgClient(tenantId).selectSingle(query)
-        .map(this::mapMaxOrder)
+  public Future<List<Integer>> nextRefIdCounters(List<String> baseRefIds, String tenantId,
+                                                 @Nonnull Conn connection) {
+    if (baseRefIds.isEmpty()) {
+      return Future.succeededFuture(Collections.emptyList());
+    }
+    log.debug("Incrementing custom field ref id counters by given base ref ids: {}.", baseRefIds);
+    String query = String.format(INCREMENT_REF_ID_COUNTERS, getTableName(tenantId, REF_ID_COUNTER_TABLE));
+
+    return counted(connection.execute(query, Tuple.tuple().addArrayOfString(baseRefIds.toArray(new String[0]))))
+      .map(rowSet -> {
+        Map<String, Integer> lastCounters = new HashMap<>();
+        rowSet.forEach(row -> lastCounters.put(row.getString(REF_ID_COUNTER_BASE_COLUMN),
+          row.getInteger(REF_ID_COUNTER_COLUMN)));
+        return allocateCounters(baseRefIds, lastCounters);
+      })
+      .recover(excTranslator.translateOrPassBy());
+  }
+
+  @Override
+  public Future<Integer> nextOrder(String entityType, String tenantId, @Nonnull Conn connection) {
+    log.debug("Allocating order of custom field for entity type: {}.", entityType);
+    String query = String.format(SELECT_NEXT_ORDER, PostgresClient.convertToPsqlStandard(tenantId));
+
+    return counted(connection.execute(query, Tuple.of(entityType)))
+        .map(rowSet -> RowSetUtils.mapFirstItem(rowSet, row -> row.getInteger(NEXT_ORDER_COLUMN)))
+        .recover(excTranslator.translateOrPassBy());
+  }
+
+  @Override
+  public Future<Integer> reorder(String entityType, String tenantId, @Nonnull Conn connection) {
+    log.debug("Reordering custom fields of entity type: {}.", entityType);
+    String query = String.format(REORDER_CUSTOM_FIELDS, PostgresClient.convertToPsqlStandard(tenantId));
+
+    return counted(connection.execute(query, Tuple.of(entityType)))
+        .map(rowSet -> RowSetUtils.mapFirstItem(rowSet, row -> row.getInteger(REORDERED_COLUMN)))
         .recover(excTranslator.translateOrPassBy());
   }
 
   @Override
   public Future<CustomFieldCollection> findByQuery(String query, int offset, int limit, String tenantId) {
-    CqlQuery<CustomField> q = new CqlQuery<>(pgClient(tenantId), CUSTOM_FIELDS_TABLE, CustomField.class);
+    if (readReplica.isReadable(tenantId)) {
+      Optional<SqlSelect> select = toSqlSelect(query);
+      if (select.isPresent()) {
+        log.debug("Getting custom fields by query from read replica.");
+        return findBySelect(select.get(), offset, limit, tenantId)
+          .recover(excTranslator.translateOrPassBy());
+      }
+    }
+    return findByQueryOnPrimary(query, offset, limit, tenantId);
+  }
+
+  @Override
+  public Future<CustomFieldCollection> findByQueryOnPrimary(String query, int offset, int limit, String tenantId) {
     log.debug("Getting custom fields by query.");
-    return q.get(query, offset, limit).map(this::toCustomFieldCollection)
+    return pgClient(tenantId)
+      .onPool(client -> new CqlQuery<>(client, CUSTOM_FIELDS_TABLE, CustomField.class).get(query, offset, limit))
+      .map(this::toCustomFieldCollection)
       .recover(excTranslator.translateOrPassBy());
   }
 
+  private Future<CustomFieldCollection> findBySelect(SqlSelect select, int offset, int limit, String tenantId) {
+    String orderBy = StringUtils.isBlank(select.getOrderBy()) ? "" : " ORDER BY " + select.getOrderBy();
+    String query = String.format(SELECT_CUSTOM_FIELDS_PAGE, CUSTOM_FIELDS_TABLE, select.getWhere(), orderBy);
+    String countQuery = String.format(COUNT_CUSTOM_FIELDS, CUSTOM_FIELDS_TABLE, select.getWhere());
+    return readReplica.withReadConn(tenantId, 0,
+      conn -> counted(conn.preparedQuery(query).execute(Tuple.of(offset, limit)))
+        .compose(rowSet -> {
+          List<CustomField> customFields = RowSetUtils.mapItems(rowSet, this::toCustomField);
+          if (!customFields.isEmpty() || offset == 0) {
+            int total = customFields.isEmpty() ? 0 : rowSet.iterator().next().getInteger(TOTAL_COLUMN);
+            return Future.succeededFuture(toCustomFieldCollection(customFields, total));
+          }
+          // the page is past the last record, so the window count is missing
+          return counted(conn.query(countQuery).execute())
+            .map(counts -> toCustomFieldCollection(customFields, counts.iterator().next().getInteger(0)));
+        }));
+  }
+
+  /**
+   * Translates the CQL query for the read replica, an empty result leaves the query to {@link CqlQuery}
+   * on the primary, which reports invalid queries.
+   */
+  private Optional<SqlSelect> toSqlSelect(String query) {
+    try {
+      return Optional.of(new CQL2PgJSON(CUSTOM_FIELDS_TABLE + "." + JSONB_COLUMN)
+        .toSql(StringUtils.defaultIfBlank(query, "cql.allRecords=1")));
+    } catch (CQL2PgJSONException | RuntimeException e) {
+      log.debug("Query cannot be translated for read replica: {}.", e.getMessage());
+      return Optional.empty();
+    }
+  }
+
   @Override
   public Future<Boolean> update(CustomField entity, String tenantId) {
     return pgClient(tenantId).withConn(conn -> update(entity, conn));
@@ -112,11 +242,26 @@ public class CustomFieldsRepositoryImpl implements CustomFieldsRepository {
   public Future<Boolean> update(CustomField entity, @Nonnull Conn connection) {
     log.debug("Updating a custom field with id: {}.", entity.getId());
 
-    return connection.update(CUSTOM_FIELDS_TABLE, entity, entity.getId())
+    return counted(connection.update(CUSTOM_FIELDS_TABLE, entity, entity.getId()))
         .map(rowSet -> rowSet.rowCount() == 1)
         .recover(excTranslator.translateOrPassBy());
   }
 
+  @Override
+  public Future<List<String>> updateAll(List<CustomField> entities, String tenantId, @Nonnull Conn connection) {
+    if (entities.isEmpty()) {
+      return Future.succeededFuture(Collections.emptyList());
+    }
+    log.debug("Updating {} custom fields.", entities.size());
+
+    String query = String.format(UPDATE_CUSTOM_FIELDS, getCFTableName(tenantId));
+    return Future.succeededFuture(entities)
+      .map(this::toIdsAndJsons)
+      .compose(params -> counted(connection.execute(query, params)))
+      .map(rowSet -> RowSetUtils.mapItems(rowSet, row -> row.getUUID(ID_COLUMN).toString()))
+      .recover(excTranslator.translateOrPassBy());
+  }
+
   @Override
   public Future<Boolean> delete(String id, String tenantId) {
     return pgClient(tenantId).withConn(conn -> delete(id, conn));
@@ -125,27 +270,55 @@ public class CustomFieldsRepositoryImpl implements CustomFieldsRepository {
   @Override
   public Future<Boolean> delete(String id, @Nonnull Conn connection) {
     log.debug("Deleting custom field by given id: {}.", id);
-    return connection.delete(CUSTOM_FIELDS_TABLE, id)
+    return counted(connection.delete(CUSTOM_FIELDS_TABLE, id))
         .map(rowSet -> rowSet.rowCount() == 1)
         .recover(excTranslator.translateOrPassBy());
   }
 
-  private Integer mapMaxRefId(RowSet<Row> rowSet) {
-    if (rowSet.rowCount() == 1 &&
-      !RowSetUtils.mapFirstItem(rowSet, row -> row.getString(VALUES_COLUMN)).contains("_")) {
-      return 1;
+  @Override
+  public Future<Integer> deleteAll(Collection<String> ids, String tenantId, @Nonnull Conn connection) {
+    if (ids.isEmpty()) {
+      return Future.succeededFuture(0);
+    }
+    log.debug("Deleting custom fields by given ids: {}.", ids);
+
+    String query = String.format(DELETE_CUSTOM_FIELDS, getCFTableName(tenantId));
+    return counted(connection.execute(query, Tuple.tuple().addArrayOfString(ids.toArray(new String[0]))))
+      .map(rowSet -> rowSet.rowCount())
+      .recover(excTranslator.translateOrPassBy());
+  }
+
+  /**
+   * Spreads the last counters returned for each distinct base ref id over its occurrences in the list,
+   * e.g. ["a", "b", "a"] with last counters {a=5, b=1} gives [4, 1, 5].
+   */
+  private List<Integer> allocateCounters(List<String> baseRefIds, Map<String, Integer> lastCounters) {
+    Map<String, Integer> nextCounters = new HashMap<>(lastCounters);
+    baseRefIds.forEach(baseRefId -> nextCounters.merge(baseRefId, -1, Integer::sum));
+
+    List<Integer> counters = new ArrayList<>(baseRefIds.size());
+    for (String baseRefId : baseRefIds) {
+      counters.add(nextCounters.merge(baseRefId, 1, Integer::sum));
     }
-    return RowSetUtils.streamOf(rowSet)
-      .map(row -> row.getString(VALUES_COLUMN))
-      .map(s -> StringUtils.substringAfter(s, "_"))
-      .filter(StringUtils::isNotBlank)
-      .mapToInt(Integer::parseInt)
-      .max().orElse(0);
+    return counters;
   }
 
-  private Integer mapMaxOrder(Row result) {
-    Integer maxOrder = result.getInteger(MAX_ORDER_COLUMN);
-    return maxOrder != null ? maxOrder : 0;
+  private Tuple toIdsAndJsons(List<CustomField> entities) {
+    String[] ids = new String[entities.size()];
+    String[] jsons = new String[entities.size()];
+    for (int i = 0; i < entities.size(); i++) {
+      ids[i] = entities.get(i).getId();
+      jsons[i] = toJson(entities.get(i));
+    }
+    return Tuple.tuple().addArrayOfString(ids).addArrayOfString(jsons);
+  }
+
+  private String toJson(CustomField entity) {
+    try {
+      return PostgresClient.pojo2JsonObject(entity).encode();
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException(e);
+    }
   }
 
   private void setIdIfMissing(CustomField customField) {
@@ -154,6 +327,16 @@ public class CustomFieldsRepositoryImpl implements CustomFieldsRepository {
     }
   }
 
+  private CustomField toCustomField(Row row) {
+    return row.getJsonObject(JSONB_COLUMN).mapTo(CustomField.class);
+  }
+
+  private CustomFieldCollection toCustomFieldCollection(List<CustomField> customFields, int totalRecords) {
+    return new CustomFieldCollection()
+      .withCustomFields(customFields)
+      .withTotalRecords(totalRecords);
+  }
+
   private CustomFieldCollection toCustomFieldCollection(Results<CustomField> results) {
     return new CustomFieldCollection()
       .withCustomFields(results.getResults())
@@ -161,10 +344,14 @@ public class CustomFieldsRepositoryImpl implements CustomFieldsRepository {
   }
 
   private String getCFTableName(String tenantId) {
-    return PostgresClient.convertToPsqlStandard(tenantId) + "." + CUSTOM_FIELDS_TABLE;
+    return getTableName(tenantId, CUSTOM_FIELDS_TABLE);
+  }
+
+  private String getTableName(String tenantId, String table) {
+    return PostgresClient.convertToPsqlStandard(tenantId) + "." + table;
   }
 
-  private PostgresClient pgClient(String tenantId) {
-    return PostgresClient.getInstance(vertx, tenantId);
+  private CountingPostgresClient pgClient(String tenantId) {
+    return CountingPostgresClient.getInstance(vertx, tenantId);
   }
 }
@@ -0,0 +1,124 @@
+package org.folio.repository;
+
+import static org.folio.metrics.CountingPostgresClient.counted;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.pgclient.PgBuilder;
+import io.vertx.pgclient.PgConnectOptions;
+import io.vertx.sqlclient.Pool;
+import io.vertx.sqlclient.PoolOptions;
+import io.vertx.sqlclient.SqlConnection;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import org.folio.metrics.CountingPostgresClient;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * Client of a read-only streaming replica of the module database, used for reads that tolerate slightly stale data.
+ * The replica is connected with the credentials of the primary. Reads of a tenant go to the primary for
+ * the staleness tolerance after every write of custom fields of the tenant, so a client reads its own writes
+ * as long as the replica lags behind by less than the tolerance.
+ */
+@Log4j2
+@Component
+public class ReadReplicaClient {
+
+  private final Vertx vertx;
+  private final String host;
+  private final int port;
+  private final int maxPoolSize;
+  private final long stalenessNanos;
+  private final LongSupplier ticker;
+
+  private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+  private Pool pool;
+
+  @Autowired
+  public ReadReplicaClient(Vertx vertx,
+                           @Value("${custom.fields.replica.host:}") String host,
+                           @Value("${custom.fields.replica.port:0}") int port,
+                           @Value("${custom.fields.replica.max.pool.size:4}") int maxPoolSize,
+                           @Value("${custom.fields.replica.staleness.seconds:10}") long stalenessSeconds) {
+    this(vertx, host, port, maxPoolSize, stalenessSeconds, System::nanoTime);
+  }
+
+  ReadReplicaClient(Vertx vertx, String host, int port, int maxPoolSize, long stalenessSeconds,
+                    LongSupplier ticker) {
+    this.vertx = vertx;
+    this.host = host;
+    this.port = port;
+    this.maxPoolSize = maxPoolSize;
+    this.stalenessNanos = TimeUnit.SECONDS.toNanos(stalenessSeconds);
+    this.ticker = ticker;
+  }
+
+  public boolean isEnabled() {
+    return StringUtils.isNotBlank(host);
+  }
+
+  /**
+   * Returns true if reads of the tenant can go to the replica: the replica is configured and custom fields of
+   * the tenant were not written within the staleness tolerance.
+   */
+  public boolean isReadable(String tenantId) {
+    if (!isEnabled()) {
+      return false;
+    }
+    Long lastWrite = lastWrites.get(tenantId);
+    return lastWrite == null || ticker.getAsLong() - lastWrite > stalenessNanos;
+  }
+
+  /**
+   * Records a write of the tenant, reads of the tenant go to the primary for the staleness tolerance.
+   */
+  public void markWritten(String tenantId) {
+    if (isEnabled()) {
+      lastWrites.put(tenantId, ticker.getAsLong());
+    }
+  }
+
+  /**
+   * Runs the function in a read-only transaction on the replica, with the schema of the tenant on the search path
+   * and the given statement timeout, if positive.
+   */
+  public <T> Future<T> withReadConn(String tenantId, long timeoutMillis, Function<SqlConnection, Future<T>> function) {
+    String schema = PostgresClient.convertToPsqlStandard(tenantId);
+    return CountingPostgresClient.withTransaction(pool(),
+      conn -> counted(conn.query("SET LOCAL search_path TO " + schema + ", public").execute())
+        .compose(x -> timeoutMillis > 0
+          ? counted(conn.query("SET LOCAL statement_timeout = " + timeoutMillis).execute()).<Void>mapEmpty()
+          : Future.<Void>succeededFuture())
+        .compose(x -> function.apply(conn)));
+  }
+
+  private synchronized Pool pool() {
+    if (pool == null) {
+      JsonObject config = PostgresClient.getInstance(vertx).getConnectionConfig();
+      PgConnectOptions connectOptions = new PgConnectOptions()
+        .setHost(host)
+        .setPort(port > 0 ? port : config.getInteger("port"))
+        .setUser(config.getString("username"))
+        .setPassword(config.getString("password"))
+        .setDatabase(config.getString("database"));
+      log.info("pool:: Connecting to read replica [host: {}, port: {}]", host, connectOptions.getPort());
+      pool = PgBuilder.pool()
+        .with(new PoolOptions().setMaxSize(maxPoolSize))
+        .connectingTo(connectOptions)
+        .using(vertx)
+        .build();
+    }
+    return pool;
+  }
+}
@@ -0,0 +1,135 @@
+package org.folio.repository;
+
+import static org.folio.metrics.CustomFieldsMetrics.REPOSITORY_TIMER;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+
+import io.vertx.core.Future;
+
+import org.folio.metrics.CustomFieldsMetrics;
+import org.folio.rest.jaxrs.model.CustomField;
+import org.folio.rest.jaxrs.model.CustomFieldCollection;
+import org.folio.rest.persist.Conn;
+
+/**
+ * {@link CustomFieldsRepository} decorator that times every call with the {@code custom.fields.repository} timer,
+ * tagged by operation, tenant and outcome. Calls on a connection without tenant id are tagged with an unknown tenant.
+ */
+public class TimedCustomFieldsRepository implements CustomFieldsRepository {
+
+  private final CustomFieldsRepository delegate;
+  private final CustomFieldsMetrics metrics;
+
+  public TimedCustomFieldsRepository(CustomFieldsRepository delegate, CustomFieldsMetrics metrics) {
+    this.delegate = Objects.requireNonNull(delegate);
+    this.metrics = Objects.requireNonNull(metrics);
+  }
+
+  @Override
+  public Future<CustomField> save(CustomField entity, String tenantId) {
+    return timed("save", tenantId, () -> delegate.save(entity, tenantId));
+  }
+
+  @Override
+  public Future<CustomField> save(CustomField entity, @Nonnull Conn connection) {
+    return timed("save", null, () -> delegate.save(entity, connection));
+  }
+
+  @Override
+  public Future<Void> saveAll(List<CustomField> entities, String tenantId, @Nonnull Conn connection) {
+    return timed("saveAll", tenantId, () -> delegate.saveAll(entities, tenantId, connection));
+  }
+
+  @Override
+  public Future<Optional<CustomField>> findById(String id, String tenantId) {
+    return timed("findById", tenantId, () -> delegate.findById(id, tenantId));
+  }
+
+  @Override
+  public Future<Optional<CustomField>> findByIdOnPrimary(String id, String tenantId) {
+    return timed("findByIdOnPrimary", tenantId, () -> delegate.findByIdOnPrimary(id, tenantId));
+  }
+
+  @Override
+  public Future<Integer> nextRefIdCounter(String baseRefId, String tenantId) {
+    return timed("nextRefIdCounter", tenantId,
+      () -> delegate.nextRefIdCounter(baseRefId, tenantId));
+  }
+
+  @Override
+  public Future<Integer> nextRefIdCounter(String baseRefId, String tenantId, @Nonnull Conn connection) {
+    return timed("nextRefIdCounter", tenantId,
+      () -> delegate.nextRefIdCounter(baseRefId, tenantId, connection));
+  }
+
+  @Override
+  public Future<List<Integer>> nextRefIdCounters(List<String> baseRefIds, String tenantId,
+                                                 @Nonnull Conn connection) {
+    return timed("nextRefIdCounters", tenantId,
+      () -> delegate.nextRefIdCounters(baseRefIds, tenantId, connection));
+  }
+
+  @Override
+  public Future<Integer> nextOrder(String entityType, String tenantId, @Nonnull Conn connection) {
+    return timed("nextOrder", tenantId,
+      () -> delegate.nextOrder(entityType, tenantId, connection));
+  }
+
+  @Override
+  public Future<Integer> reorder(String entityType, String tenantId, @Nonnull Conn connection) {
+    return timed("reorder", tenantId,
+      () -> delegate.reorder(entityType, tenantId, connection));
+  }
+
+  @Override
+  public Future<CustomFieldCollection> findByQuery(String query, int offset, int limit, String tenantId) {
+    return timed("findByQuery", tenantId,
+      () -> delegate.findByQuery(query, offset, limit, tenantId));
+  }
+
+  @Override
+  public Future<CustomFieldCollection> findByQueryOnPrimary(String query, int offset, int limit, String tenantId) {
+    return timed("findByQueryOnPrimary", tenantId,
+      () -> delegate.findByQueryOnPrimary(query, offset, limit, tenantId));
+  }
+
+  @Override
+  public Future<Boolean> update(CustomField entity, String tenantId) {
+    return timed("update", tenantId, () -> delegate.update(entity, tenantId));
+  }
+
+  @Override
+  public Future<Boolean> update(CustomField entity, @Nonnull Conn connection) {
+    return timed("update", null, () -> delegate.update(entity, connection));
+  }
+
+  @Override
+  public Future<List<String>> updateAll(List<CustomField> entities, String tenantId, @Nonnull Conn connection) {
+    return timed("updateAll", tenantId,
+      () -> delegate.updateAll(entities, tenantId, connection));
+  }
+
+  @Override
+  public Future<Boolean> delete(String id, String tenantId) {
+    return timed("delete", tenantId, () -> delegate.delete(id, tenantId));
+  }
+
+  @Override
+  public Future<Boolean> delete(String id, @Nonnull Conn connection) {
+    return timed("delete", null, () -> delegate.delete(id, connection));
+  }
+
+  @Override
+  public Future<Integer> deleteAll(Collection<String> ids, String tenantId, @Nonnull Conn connection) {
+    return timed("deleteAll", tenantId, () -> delegate.deleteAll(ids, tenantId, connection));
+  }
+
+  private <T> Future<T> timed(String operation, String tenantId, Supplier<Future<T>> call) {
+    return metrics.time(REPOSITORY_TIMER, operation, tenantId, call);
+  }
+}
@@ -1,5 +1,6 @@
 package org.folio.rest.exceptions;
 
+import static org.apache.http.HttpStatus.SC_SERVICE_UNAVAILABLE;
 import static org.apache.http.HttpStatus.SC_UNPROCESSABLE_ENTITY;
 
 import static org.folio.common.pf.PartialFunctions.pf;
@@ -13,11 +14,16 @@ import io.vertx.core.json.Json;
 import org.folio.common.pf.PartialFunction;
 import org.folio.rest.ResponseHelper;
 import org.folio.rest.jaxrs.model.Error;
+import org.folio.rest.jaxrs.model.Parameter;
+import org.folio.service.StatementTimeoutException;
+import org.folio.service.TooManyRequestsException;
 import org.folio.service.exc.InvalidFieldValueException;
 import org.folio.validate.ValidationUtil;
 
 public class CustomFieldExceptionHandlers {
 
+  private static final int SC_TOO_MANY_REQUESTS = 429;
+
   private CustomFieldExceptionHandlers() {
   }
 
@@ -34,6 +40,33 @@ public class CustomFieldExceptionHandlers {
     return pf(instanceOf(InvalidFieldValueException.class), CustomFieldExceptionHandlers::invalidValueToUnprocessable);
   }
 
+  public static PartialFunction<Throwable, Response> tooManyRequestsHandler() {
+    return pf(instanceOf(TooManyRequestsException.class), CustomFieldExceptionHandlers::tooManyRequests);
+  }
+
+  public static PartialFunction<Throwable, Response> statementTimeoutHandler() {
+    return pf(instanceOf(StatementTimeoutException.class), CustomFieldExceptionHandlers::statementTimeout);
+  }
+
+  /**
+   * Returns the partial counts of tables counted in time as parameters keyed by table name.
+   */
+  private static Response statementTimeout(Throwable t) {
+    StatementTimeoutException exc = (StatementTimeoutException) t;
+    Error error = new Error()
+      .withMessage(exc.getMessage())
+      .withCode("-1")
+      .withType("1");
+    exc.getPartialCounts().forEach((tableName, counts) ->
+      error.getParameters().add(new Parameter().withKey(tableName).withValue(Json.encode(counts))));
+    return ResponseHelper.statusWithJson(SC_SERVICE_UNAVAILABLE, error);
+  }
+
+  private static Response tooManyRequests(Throwable t) {
+    Error error = ValidationUtil.createError(null, null, t.getMessage());
+    return ResponseHelper.statusWithJson(SC_TOO_MANY_REQUESTS, error);
+  }
+
   private static Response invalidOrderToUnprocessable(Throwable t) {
     IllegalArgumentException exc = (IllegalArgumentException) t;
     final Error errorMessage = ValidationUtil.createError(
@@ -5,9 +5,17 @@ import static org.folio.rest.jaxrs.resource.CustomFields.PostCustomFieldsRespons
 import static org.folio.rest.jaxrs.resource.CustomFields.PostCustomFieldsResponse.respond201WithApplicationJson;
 import static org.folio.rest.tools.utils.TenantTool.tenantId;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
 
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 import io.vertx.core.AsyncResult;
@@ -15,17 +23,25 @@ import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
 import org.folio.common.OkapiParams;
 import org.folio.common.pf.PartialFunction;
+import org.folio.metrics.RoundTripMonitor;
+import org.folio.okapi.common.XOkapiHeaders;
 import org.folio.rest.annotations.Validate;
 import org.folio.rest.aspect.HandleValidationErrors;
 import org.folio.rest.jaxrs.model.CustomField;
 import org.folio.rest.jaxrs.model.CustomFieldCollection;
+import org.folio.rest.jaxrs.model.CustomFieldIndexCollection;
+import org.folio.rest.jaxrs.model.CustomFieldJob;
+import org.folio.rest.jaxrs.model.CustomFieldJobCollection;
 import org.folio.rest.jaxrs.model.CustomFieldOptionStatistic;
+import org.folio.rest.jaxrs.model.CustomFieldOptionStatisticCollection;
 import org.folio.rest.jaxrs.model.CustomFieldStatistic;
+import org.folio.rest.jaxrs.model.CustomFieldStatisticCollection;
 import org.folio.rest.jaxrs.model.PutCustomFieldCollection;
 import org.folio.rest.jaxrs.resource.CustomFields;
 import org.folio.service.CustomFieldsService;
@@ -34,6 +50,9 @@ import org.folio.validate.definition.DefinitionValidator;
 
 public class CustomFieldsImpl implements CustomFields {
 
+  private static final String NODE_EPOCH = UUID.randomUUID().toString();
+  private static final String DEFINITIONS_CACHE_CONTROL = "no-cache";
+
   @Autowired
   private CustomFieldsService customFieldsService;
 
@@ -43,6 +62,9 @@ public class CustomFieldsImpl implements CustomFields {
   @Autowired
   private DefinitionValidator definitionValidator;
 
+  @Autowired
+  private RoundTripMonitor roundTripMonitor;
+
   public CustomFieldsImpl() {
     SpringContextUtil.autowireDependencies(this, Vertx.currentContext());
   }
@@ -52,9 +74,10 @@ public class CustomFieldsImpl implements CustomFields {
   @HandleValidationErrors
   public void postCustomFields(String lang, String xOkapiModuleId, CustomField entity, Map<String, String> okapiHeaders,
                                Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    Handler<AsyncResult<Response>> handler = roundTripMonitor.track("postCustomFields", asyncResultHandler);
     definitionValidator.validate(entity);
     Future<CustomField> saved = customFieldsService.save(entity, new OkapiParams(okapiHeaders));
-    respond(saved, customField -> respond201WithApplicationJson(customField, headersFor201()), asyncResultHandler, excHandler);
+    respond(saved, customField -> respond201WithApplicationJson(customField, headersFor201()), handler, excHandler);
   }
 
   @Override
@@ -62,6 +85,7 @@ public class CustomFieldsImpl implements CustomFields {
   @HandleValidationErrors
   public void putCustomFields(String xOkapiModuleId, PutCustomFieldCollection request, Map<String, String> okapiHeaders,
                               Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    Handler<AsyncResult<Response>> handler = roundTripMonitor.track("putCustomFields", asyncResultHandler);
     validatePutCustomFieldCollection(request);
     List<CustomField> customFields = request.getCustomFields();
     customFields
@@ -71,7 +95,7 @@ public class CustomFieldsImpl implements CustomFields {
       .map(fields -> new CustomFieldCollection()
         .withCustomFields(fields)
         .withTotalRecords(fields.size()));
-    respond(updatedFields, fieldCollection -> PutCustomFieldsResponse.respond204(), asyncResultHandler, excHandler);
+    respond(updatedFields, fieldCollection -> PutCustomFieldsResponse.respond204(), handler, excHandler);
   }
 
   @Override
@@ -81,9 +105,29 @@ public class CustomFieldsImpl implements CustomFields {
                               String lang, String xOkapiModuleId, Map<String, String> okapiHeaders,
                               Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
 
-    Future<CustomFieldCollection> found =
-      customFieldsService.findByQuery(query, offset, limit, lang, tenantId(okapiHeaders));
-    respond(found, GetCustomFieldsResponse::respond200WithApplicationJson, asyncResultHandler, excHandler);
+    Handler<AsyncResult<Response>> handler = roundTripMonitor.track("getCustomFields", asyncResultHandler);
+    String tenantId = tenantId(okapiHeaders);
+    // without an ETag, e.g. while changes of other instances are not received, the response is never 304
+    OptionalLong generation = customFieldsService.getDefinitionsGeneration(tenantId);
+    String eTag = generation.isPresent()
+      ? definitionsETag(generation.getAsLong(), tenantId, query, offset, limit, lang)
+      : null;
+    if (eTag != null && matchesETag(okapiHeaders, eTag)) {
+      handler.handle(Future.succeededFuture(Response.status(Response.Status.NOT_MODIFIED)
+        .header(HttpHeaders.ETAG, eTag)
+        .header(HttpHeaders.CACHE_CONTROL, DEFINITIONS_CACHE_CONTROL)
+        .header(HttpHeaders.VARY, XOkapiHeaders.TENANT)
+        .build()));
+      return;
+    }
+
+    Future<CustomFieldCollection> found = customFieldsService.findByQuery(query, offset, limit, lang, tenantId);
+    respond(found, collection -> Response.ok(collection, MediaType.APPLICATION_JSON)
+        .header(HttpHeaders.ETAG, eTag)
+        .header(HttpHeaders.CACHE_CONTROL, DEFINITIONS_CACHE_CONTROL)
+        .header(HttpHeaders.VARY, XOkapiHeaders.TENANT)
+        .build(),
+      handler, excHandler);
   }
 
   @Override
@@ -91,8 +135,20 @@ public class CustomFieldsImpl implements CustomFields {
   @HandleValidationErrors
   public void getCustomFieldsById(String id, String lang, Map<String, String> okapiHeaders,
                                   Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    Handler<AsyncResult<Response>> handler = roundTripMonitor.track("getCustomFieldsById", asyncResultHandler);
     Future<CustomField> field = customFieldsService.findById(id, tenantId(okapiHeaders));
-    respond(field, GetCustomFieldsByIdResponse::respond200WithApplicationJson, asyncResultHandler, excHandler);
+    respond(field, GetCustomFieldsByIdResponse::respond200WithApplicationJson, handler, excHandler);
+  }
+
+  @Override
+  @Validate
+  @HandleValidationErrors
+  public void deleteCustomFields(String ids, String xOkapiModuleId, Map<String, String> okapiHeaders,
+                                 Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+
+    Handler<AsyncResult<Response>> handler = roundTripMonitor.track("deleteCustomFields", asyncResultHandler);
+    Future<Void> deleted = customFieldsService.deleteAll(List.of(ids.split(",")), tenantId(okapiHeaders));
+    respond(deleted, v -> DeleteCustomFieldsResponse.respond204(), handler, excHandler);
   }
 
   @Override
@@ -101,8 +157,9 @@ public class CustomFieldsImpl implements CustomFields {
   public void deleteCustomFieldsById(String id, String lang, Map<String, String> okapiHeaders,
                                      Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
 
+    Handler<AsyncResult<Response>> handler = roundTripMonitor.track("deleteCustomFieldsById", asyncResultHandler);
     Future<Void> deleted = customFieldsService.delete(id, tenantId(okapiHeaders));
-    respond(deleted, v -> DeleteCustomFieldsByIdResponse.respond204(), asyncResultHandler, excHandler);
+    respond(deleted, v -> DeleteCustomFieldsByIdResponse.respond204(), handler, excHandler);
   }
 
   @Override
@@ -110,35 +167,130 @@ public class CustomFieldsImpl implements CustomFields {
   @HandleValidationErrors
   public void putCustomFieldsById(String id, String lang, CustomField entity, Map<String, String> okapiHeaders,
                                   Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    Handler<AsyncResult<Response>> handler = roundTripMonitor.track("putCustomFieldsById", asyncResultHandler);
     definitionValidator.validate(entity);
 
     Future<Void> updated = customFieldsService.update(id, entity, new OkapiParams(okapiHeaders));
-    respond(updated, v -> PutCustomFieldsByIdResponse.respond204(), asyncResultHandler, excHandler);
+    respond(updated, v -> PutCustomFieldsByIdResponse.respond204(), handler, excHandler);
   }
 
   @Override
   @Validate
   @HandleValidationErrors
-  public void getCustomFieldsStatsById(String id, String lang, String xOkapiModuleId, Map<String, String> okapiHeaders,
+  public void getCustomFieldsStatsById(String id, String lang, boolean approximate, String xOkapiModuleId,
+                                       Map<String, String> okapiHeaders,
                                        Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
-    Future<CustomFieldStatistic> stats = customFieldsService.retrieveStatistic(id, tenantId(okapiHeaders));
+    Handler<AsyncResult<Response>> handler = roundTripMonitor.track("getCustomFieldsStatsById", asyncResultHandler);
+    Future<CustomFieldStatistic> stats = customFieldsService.retrieveStatistic(id, approximate, tenantId(okapiHeaders));
 
-    respond(stats, GetCustomFieldsStatsByIdResponse::respond200WithApplicationJson, asyncResultHandler, excHandler);
+    respond(stats, GetCustomFieldsStatsByIdResponse::respond200WithApplicationJson, handler, excHandler);
   }
 
   @Override
   @Validate
   @HandleValidationErrors
-  public void getCustomFieldsOptionsStatsByIdAndOptId(String id, String optId,
+  public void getCustomFieldsStats(String entityType, boolean approximate, String xOkapiModuleId,
+                                   Map<String, String> okapiHeaders,
+                                   Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    Handler<AsyncResult<Response>> handler = roundTripMonitor.track("getCustomFieldsStats", asyncResultHandler);
+    Future<CustomFieldStatisticCollection> stats =
+      customFieldsService.retrieveStatistics(entityType, approximate, tenantId(okapiHeaders));
+
+    respond(stats, GetCustomFieldsStatsResponse::respond200WithApplicationJson, handler, excHandler);
+  }
+
+  @Override
+  @Validate
+  @HandleValidationErrors
+  public void getCustomFieldsOptionsStatsByIdAndOptId(String id, String optId, boolean approximate,
                                                       String xOkapiModuleId, Map<String, String> okapiHeaders,
                                                       Handler<AsyncResult<Response>> asyncResultHandler,
                                                       Context vertxContext) {
+    Handler<AsyncResult<Response>> handler = roundTripMonitor.track("getCustomFieldsOptionsStatsByIdAndOptId", asyncResultHandler);
     Future<CustomFieldOptionStatistic> optionStatResult = customFieldsService
-      .retrieveOptionStatistic(id, optId, tenantId(okapiHeaders));
+      .retrieveOptionStatistic(id, optId, approximate, tenantId(okapiHeaders));
 
     respond(optionStatResult,
-      GetCustomFieldsOptionsStatsByIdAndOptIdResponse::respond200WithApplicationJson,
-      asyncResultHandler, excHandler);
+      GetCustomFieldsOptionsStatsByIdAndOptIdResponse::respond200WithApplicationJson, handler, excHandler);
+  }
+
+  @Override
+  @Validate
+  @HandleValidationErrors
+  public void getCustomFieldsOptionsStatsById(String id, boolean approximate, String xOkapiModuleId,
+                                              Map<String, String> okapiHeaders,
+                                              Handler<AsyncResult<Response>> asyncResultHandler,
+                                              Context vertxContext) {
+    Handler<AsyncResult<Response>> handler = roundTripMonitor.track("getCustomFieldsOptionsStatsById", asyncResultHandler);
+    Future<CustomFieldOptionStatisticCollection> optionStats = customFieldsService
+      .retrieveOptionStatistics(id, approximate, tenantId(okapiHeaders));
+
+    respond(optionStats, GetCustomFieldsOptionsStatsByIdResponse::respond200WithApplicationJson, handler, excHandler);
+  }
+
+  @Override
+  @Validate
+  @HandleValidationErrors
+  public void getCustomFieldsJobs(String customFieldId, String xOkapiModuleId, Map<String, String> okapiHeaders,
+                                  Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    Handler<AsyncResult<Response>> handler = roundTripMonitor.track("getCustomFieldsJobs", asyncResultHandler);
+    Future<CustomFieldJobCollection> jobs = customFieldsService.findJobs(customFieldId, tenantId(okapiHeaders));
+
+    respond(jobs, GetCustomFieldsJobsResponse::respond200WithApplicationJson, handler, excHandler);
+  }
+
+  @Override
+  @Validate
+  @HandleValidationErrors
+  public void getCustomFieldsJobsById(String id, String xOkapiModuleId, Map<String, String> okapiHeaders,
+                                      Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    Handler<AsyncResult<Response>> handler = roundTripMonitor.track("getCustomFieldsJobsById", asyncResultHandler);
+    Future<CustomFieldJob> job = customFieldsService.findJobById(id, tenantId(okapiHeaders));
+
+    respond(job, GetCustomFieldsJobsByIdResponse::respond200WithApplicationJson, handler, excHandler);
+  }
+
+  @Override
+  @Validate
+  @HandleValidationErrors
+  public void getCustomFieldsIndexes(String xOkapiModuleId, Map<String, String> okapiHeaders,
+                                     Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    Handler<AsyncResult<Response>> handler = roundTripMonitor.track("getCustomFieldsIndexes", asyncResultHandler);
+    Future<CustomFieldIndexCollection> indexes = customFieldsService.retrieveIndexes(tenantId(okapiHeaders));
+
+    respond(indexes, GetCustomFieldsIndexesResponse::respond200WithApplicationJson, handler, excHandler);
+  }
+
+  /**
+   * Builds strong ETag of custom field collection: definitions of the same generation requested by the same tenant
+   * with the same parameters always produce the same response body. Generations are tracked per module instance,
+   * so the ETag also includes an id of the instance. Tenant and parameters are encoded as a JSON array and digested
+   * with SHA-256, so different requests do not share an ETag.
+   */
+  static String definitionsETag(long generation, String tenantId, String query, int offset, int limit,
+                                String lang) {
+    String request = new JsonArray().add(tenantId).add(query).add(offset).add(limit).add(lang).encode();
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8));
+      return '"' + NODE_EPOCH + '-' + generation + '-' + Base64.getUrlEncoder().withoutPadding().encodeToString(digest)
+        + '"';
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private boolean matchesETag(Map<String, String> okapiHeaders, String eTag) {
+    for (Map.Entry<String, String> header : okapiHeaders.entrySet()) {
+      if (HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(header.getKey()) && header.getValue() != null) {
+        for (String tag : header.getValue().split(",")) {
+          String trimmed = tag.trim();
+          if (trimmed.equals(eTag) || trimmed.equals("W/" + eTag)) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
   }
 
   private void validatePutCustomFieldCollection(PutCustomFieldCollection customFieldCollection)
@@ -5,20 +5,34 @@ import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import org.folio.rest.resource.interfaces.PostDeployVerticle;
+import org.folio.service.CustomFieldJobWorker;
+import org.folio.service.CustomFieldsChangeListener;
 import org.folio.spring.ApplicationConfig;
 import org.folio.spring.SpringContextUtil;
 
 public class CustomFieldsPostDeployVerticle implements PostDeployVerticle {
 
+  @Autowired
+  private CustomFieldsChangeListener changeListener;
+  @Autowired
+  private CustomFieldJobWorker jobWorker;
+
   @Override
   public void init(Vertx vertx, Context context, Handler<AsyncResult<Boolean>> handler) {
     vertx.executeBlocking(() -> {
         SpringContextUtil.init(vertx, context, ApplicationConfig.class);
+        SpringContextUtil.autowireDependencies(this, context);
         return null;
       })
-      .onSuccess(v -> handler.handle(Future.succeededFuture(true)))
+      .onSuccess(v -> {
+        // the module works without the listener, definitions are then refreshed by the cache TTL
+        changeListener.start();
+        jobWorker.start();
+        handler.handle(Future.succeededFuture(true));
+      })
       .onFailure(error -> handler.handle(Future.failedFuture(error)));
   }
 
@@ -0,0 +1,255 @@
+package org.folio.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import lombok.extern.log4j.Log4j2;
+
+import org.folio.model.RecordUpdate;
+import org.folio.rest.jaxrs.model.CustomField;
+import org.folio.rest.jaxrs.model.CustomFieldIndex;
+import org.folio.rest.jaxrs.model.CustomFieldOptionStatistic;
+import org.folio.rest.jaxrs.model.CustomFieldOptionStatisticCollection;
+import org.folio.rest.jaxrs.model.CustomFieldStatistic;
+import org.folio.rest.persist.Conn;
+
+/**
+ * {@link RecordService} decorator that limits the number of concurrently running operations scanning entity tables,
+ * per tenant and in total, so they never hold more than a few connections of the database connection pool at once.
+ * The limits do not reserve connections: the pool is shared with the custom field definitions, the limits only bound
+ * how many connections these operations can take from it.
+ * Operations over the limits wait in a queue per tenant, tenants take turns when a slot frees up.
+ * Statistics are rejected with {@link TooManyRequestsException} if the queue of the tenant is full, deletions
+ * of values always wait, as they complete changes already made to custom fields.
+ * Chunked deletions of background jobs run for a long time, so they have slots of their own and never keep
+ * requests waiting. Operations running in the caller's transaction already hold a connection and are not limited.
+ */
+@Log4j2
+public class BulkheadRecordService implements RecordService {
+
+  private final RecordService delegate;
+  private final Lane requests;
+  private final Lane jobs;
+
+  public BulkheadRecordService(RecordService delegate, int maxConcurrent, int maxConcurrentPerTenant,
+                               int maxQueuedPerTenant, int maxConcurrentJobs) {
+    this.delegate = Objects.requireNonNull(delegate);
+    this.requests = new Lane(maxConcurrent, maxConcurrentPerTenant, maxQueuedPerTenant);
+    this.jobs = new Lane(maxConcurrentJobs, maxConcurrentJobs, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public Future<CustomFieldStatistic> retrieveStatistic(CustomField field, String tenantId) {
+    return retrieveStatistic(field, false, tenantId);
+  }
+
+  @Override
+  public Future<CustomFieldStatistic> retrieveStatistic(CustomField field, boolean approximate, String tenantId) {
+    return requests.submit(tenantId, true, () -> delegate.retrieveStatistic(field, approximate, tenantId));
+  }
+
+  @Override
+  public Future<List<CustomFieldStatistic>> retrieveStatistics(List<CustomField> fields, boolean approximate,
+                                                               String tenantId) {
+    return requests.submit(tenantId, true, () -> delegate.retrieveStatistics(fields, approximate, tenantId));
+  }
+
+  @Override
+  public Future<CustomFieldOptionStatistic> retrieveOptionStatistic(CustomField field, String optId, String tenantId) {
+    return retrieveOptionStatistic(field, optId, false, tenantId);
+  }
+
+  @Override
+  public Future<CustomFieldOptionStatistic> retrieveOptionStatistic(CustomField field, String optId,
+                                                                    boolean approximate, String tenantId) {
+    return requests.submit(tenantId, true, () -> delegate.retrieveOptionStatistic(field, optId, approximate, tenantId));
+  }
+
+  @Override
+  public Future<CustomFieldOptionStatisticCollection> retrieveOptionStatistics(CustomField field,
+                                                                               boolean approximate,
+                                                                               String tenantId) {
+    return requests.submit(tenantId, true, () -> delegate.retrieveOptionStatistics(field, approximate, tenantId));
+  }
+
+  @Override
+  public Future<Void> deleteAllValues(CustomField field, String tenantId) {
+    return requests.submit(tenantId, false, () -> delegate.deleteAllValues(field, tenantId));
+  }
+
+  @Override
+  public Future<Void> deleteAllValues(Collection<CustomField> fields, String tenantId) {
+    return requests.submit(tenantId, false, () -> delegate.deleteAllValues(fields, tenantId));
+  }
+
+  @Override
+  public Future<Long> deleteAllValuesInChunks(CustomField field, int chunkSize, String tenantId) {
+    return jobs.submit(tenantId, false, () -> delegate.deleteAllValuesInChunks(field, chunkSize, tenantId));
+  }
+
+  @Override
+  public Future<Void> deleteAllValues(Conn conn, CustomField field, String tenantId) {
+    return delegate.deleteAllValues(conn, field, tenantId);
+  }
+
+  @Override
+  public Future<Void> deleteAllValues(Conn conn, Collection<CustomField> fields, String tenantId) {
+    return delegate.deleteAllValues(conn, fields, tenantId);
+  }
+
+  @Override
+  public Future<Void> deleteMissedOptionValues(RecordUpdate recordUpdate, String tenantId) {
+    return requests.submit(tenantId, false, () -> delegate.deleteMissedOptionValues(recordUpdate, tenantId));
+  }
+
+  @Override
+  public Future<Void> installUsageCounters(String tenantId) {
+    return delegate.installUsageCounters(tenantId);
+  }
+
+  @Override
+  public Future<List<CustomFieldIndex>> retrieveIndexes(String tenantId) {
+    return requests.submit(tenantId, true, () -> delegate.retrieveIndexes(tenantId));
+  }
+
+  @Override
+  public Future<Void> createIndexes(String tenantId) {
+    return delegate.createIndexes(tenantId);
+  }
+
+  /**
+   * Slots and queues of operations limited together.
+   */
+  private static final class Lane {
+
+    private final int maxConcurrent;
+    private final int maxConcurrentPerTenant;
+    private final int maxQueuedPerTenant;
+
+    private final Map<String, Deque<Task<?>>> queues = new LinkedHashMap<>();
+    private final Map<String, Integer> runningByTenant = new HashMap<>();
+    private int running;
+
+    private Lane(int maxConcurrent, int maxConcurrentPerTenant, int maxQueuedPerTenant) {
+      this.maxConcurrent = maxConcurrent;
+      this.maxConcurrentPerTenant = maxConcurrentPerTenant;
+      this.maxQueuedPerTenant = maxQueuedPerTenant;
+    }
+
+    private <T> Future<T> submit(String tenantId, boolean rejectable, Supplier<Future<T>> operation) {
+      Task<T> task = new Task<>(tenantId, operation, Vertx.currentContext());
+      synchronized (this) {
+        Deque<Task<?>> queue = queues.get(tenantId);
+        int queued = queue == null ? 0 : queue.size();
+        if (rejectable && queued >= maxQueuedPerTenant && !canStart(tenantId, queued)) {
+          log.warn("submit:: Too many operations on entity tables [tenantId: {}, queued: {}]", tenantId, queued);
+          return Future.failedFuture(new TooManyRequestsException(
+            "Too many concurrent operations on records of the tenant, try again later"));
+        }
+        queues.computeIfAbsent(tenantId, k -> new ArrayDeque<>()).add(task);
+      }
+      drain();
+      return task.promise.future();
+    }
+
+    private boolean canStart(String tenantId, int queued) {
+      return queued == 0 && running < maxConcurrent
+        && runningByTenant.getOrDefault(tenantId, 0) < maxConcurrentPerTenant;
+    }
+
+    /**
+     * Starts queued operations while slots are free, taking one operation of every tenant in turn.
+     */
+    private void drain() {
+      List<Task<?>> tasks = new ArrayList<>();
+      synchronized (this) {
+        boolean started = true;
+        while (started && running < maxConcurrent) {
+          started = false;
+          List<String> served = new ArrayList<>();
+          Iterator<Map.Entry<String, Deque<Task<?>>>> iterator = queues.entrySet().iterator();
+          while (iterator.hasNext() && running < maxConcurrent) {
+            Map.Entry<String, Deque<Task<?>>> entry = iterator.next();
+            if (runningByTenant.getOrDefault(entry.getKey(), 0) < maxConcurrentPerTenant) {
+              tasks.add(entry.getValue().poll());
+              running++;
+              runningByTenant.merge(entry.getKey(), 1, Integer::sum);
+              started = true;
+              served.add(entry.getKey());
+              if (entry.getValue().isEmpty()) {
+                iterator.remove();
+              }
+            }
+          }
+          // tenants just served go to the end of the line
+          served.forEach(tenantId -> {
+            Deque<Task<?>> queue = queues.remove(tenantId);
+            if (queue != null) {
+              queues.put(tenantId, queue);
+            }
+          });
+        }
+      }
+      tasks.forEach(Task::start);
+    }
+
+    private void release(String tenantId) {
+      synchronized (this) {
+        running--;
+        runningByTenant.computeIfPresent(tenantId, (k, count) -> count > 1 ? count - 1 : null);
+      }
+      drain();
+    }
+
+    private final class Task<T> {
+
+      private final String tenantId;
+      private final Supplier<Future<T>> operation;
+      private final Context context;
+      private final Promise<T> promise = Promise.promise();
+
+      private Task(String tenantId, Supplier<Future<T>> operation, Context context) {
+        this.tenantId = tenantId;
+        this.operation = operation;
+        this.context = context;
+      }
+
+      /**
+       * Runs the operation on the context it was submitted from.
+       */
+      private void start() {
+        if (context == null) {
+          run();
+        } else {
+          context.runOnContext(v -> run());
+        }
+      }
+
+      private void run() {
+        Future<T> future;
+        try {
+          future = operation.get();
+        } catch (RuntimeException e) {
+          future = Future.failedFuture(e);
+        }
+        future.onComplete(ar -> {
+          release(tenantId);
+          promise.handle(ar);
+        });
+      }
+    }
+  }
+}
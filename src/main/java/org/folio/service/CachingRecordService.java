@@ -0,0 +1,259 @@
+package org.folio.service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import io.vertx.core.Future;
+import lombok.extern.log4j.Log4j2;
+
+import org.folio.model.CacheStats;
+import org.folio.model.RecordUpdate;
+import org.folio.rest.jaxrs.model.CustomField;
+import org.folio.rest.jaxrs.model.CustomFieldIndex;
+import org.folio.rest.jaxrs.model.CustomFieldOptionStatistic;
+import org.folio.rest.jaxrs.model.CustomFieldOptionStatisticCollection;
+import org.folio.rest.jaxrs.model.CustomFieldStatistic;
+import org.folio.rest.persist.Conn;
+
+/**
+ * {@link RecordService} decorator that caches usage statistics, keyed by tenant, ref id, option id and whether
+ * the statistics are approximate.
+ * Entries are fresh for the TTL, after that they are served stale for the stale period while being refreshed
+ * in the background. Concurrent requests for the same missing entry share a single query.
+ * Entries of a custom field are invalidated when its values are deleted.
+ */
+@Log4j2
+public class CachingRecordService implements RecordService {
+
+  private final RecordService delegate;
+  private final int maxSize;
+  private final long ttlNanos;
+  private final long staleNanos;
+  private final LongSupplier ticker;
+
+  private final Map<Key, Entry> entries;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  public CachingRecordService(RecordService delegate, int maxSize, long ttlSeconds, long staleSeconds) {
+    this(delegate, maxSize, ttlSeconds, staleSeconds, System::nanoTime);
+  }
+
+  CachingRecordService(RecordService delegate, int maxSize, long ttlSeconds, long staleSeconds, LongSupplier ticker) {
+    this.delegate = Objects.requireNonNull(delegate);
+    this.maxSize = maxSize;
+    this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    this.staleNanos = TimeUnit.SECONDS.toNanos(staleSeconds);
+    this.ticker = ticker;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+        boolean evict = size() > CachingRecordService.this.maxSize;
+        if (evict) {
+          evictions.incrementAndGet();
+        }
+        return evict;
+      }
+    };
+  }
+
+  @Override
+  public Future<CustomFieldStatistic> retrieveStatistic(CustomField field, String tenantId) {
+    return retrieveStatistic(field, false, tenantId);
+  }
+
+  @Override
+  public Future<CustomFieldStatistic> retrieveStatistic(CustomField field, boolean approximate, String tenantId) {
+    return get(new Key(tenantId, Kind.FIELD, field.getRefId(), null, approximate),
+      () -> delegate.retrieveStatistic(field, approximate, tenantId));
+  }
+
+  @Override
+  public Future<List<CustomFieldStatistic>> retrieveStatistics(List<CustomField> fields, boolean approximate,
+                                                               String tenantId) {
+    String refIds = fields.stream().map(CustomField::getRefId).collect(Collectors.joining(","));
+    return get(new Key(tenantId, Kind.FIELDS, refIds, null, approximate),
+      () -> delegate.retrieveStatistics(fields, approximate, tenantId));
+  }
+
+  @Override
+  public Future<CustomFieldOptionStatistic> retrieveOptionStatistic(CustomField field, String optId, String tenantId) {
+    return retrieveOptionStatistic(field, optId, false, tenantId);
+  }
+
+  @Override
+  public Future<CustomFieldOptionStatistic> retrieveOptionStatistic(CustomField field, String optId,
+                                                                    boolean approximate, String tenantId) {
+    return get(new Key(tenantId, Kind.OPTION, field.getRefId(), optId, approximate),
+      () -> delegate.retrieveOptionStatistic(field, optId, approximate, tenantId));
+  }
+
+  @Override
+  public Future<CustomFieldOptionStatisticCollection> retrieveOptionStatistics(CustomField field,
+                                                                               boolean approximate,
+                                                                               String tenantId) {
+    return get(new Key(tenantId, Kind.OPTIONS, field.getRefId(), null, approximate),
+      () -> delegate.retrieveOptionStatistics(field, approximate, tenantId));
+  }
+
+  @Override
+  public Future<Void> deleteAllValues(CustomField field, String tenantId) {
+    return delegate.deleteAllValues(field, tenantId)
+      .onComplete(ar -> invalidate(tenantId, field.getRefId()));
+  }
+
+  @Override
+  public Future<Void> deleteAllValues(Collection<CustomField> fields, String tenantId) {
+    return delegate.deleteAllValues(fields, tenantId)
+      .onComplete(ar -> fields.forEach(field -> invalidate(tenantId, field.getRefId())));
+  }
+
+  @Override
+  public Future<Long> deleteAllValuesInChunks(CustomField field, int chunkSize, String tenantId) {
+    return delegate.deleteAllValuesInChunks(field, chunkSize, tenantId)
+      .onComplete(ar -> invalidate(tenantId, field.getRefId()));
+  }
+
+  @Override
+  public Future<Void> deleteAllValues(Conn conn, CustomField field, String tenantId) {
+    return delegate.deleteAllValues(conn, field, tenantId)
+      .onComplete(ar -> invalidate(tenantId, field.getRefId()));
+  }
+
+  @Override
+  public Future<Void> deleteAllValues(Conn conn, Collection<CustomField> fields, String tenantId) {
+    return delegate.deleteAllValues(conn, fields, tenantId)
+      .onComplete(ar -> fields.forEach(field -> invalidate(tenantId, field.getRefId())));
+  }
+
+  @Override
+  public Future<Void> deleteMissedOptionValues(RecordUpdate recordUpdate, String tenantId) {
+    return delegate.deleteMissedOptionValues(recordUpdate, tenantId)
+      .onComplete(ar -> invalidate(tenantId, recordUpdate.getRefId()));
+  }
+
+  @Override
+  public Future<Void> installUsageCounters(String tenantId) {
+    return delegate.installUsageCounters(tenantId)
+      .onComplete(ar -> invalidate(tenantId, null));
+  }
+
+  @Override
+  public Future<List<CustomFieldIndex>> retrieveIndexes(String tenantId) {
+    return delegate.retrieveIndexes(tenantId);
+  }
+
+  @Override
+  public Future<Void> createIndexes(String tenantId) {
+    return delegate.createIndexes(tenantId);
+  }
+
+  /**
+   * Removes cached statistics of the custom field with the given ref id, including statistics of several
+   * custom fields, or all cached statistics of the tenant if the ref id is {@code null}.
+   */
+  void invalidate(String tenantId, String refId) {
+    log.debug("invalidate:: Invalidating statistics [tenantId: {}, refId: {}]", tenantId, refId);
+    synchronized (entries) {
+      entries.keySet().removeIf(key -> Objects.equals(key.tenantId, tenantId)
+        && (refId == null || key.kind == Kind.FIELDS || Objects.equals(key.refId, refId)));
+    }
+  }
+
+  /**
+   * Returns statistics of the cache, stale entries served while being refreshed count as hits.
+   */
+  public CacheStats getStats() {
+    int size;
+    synchronized (entries) {
+      size = entries.size();
+    }
+    return new CacheStats(hits.get(), misses.get(), evictions.get(), size);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Future<T> get(Key key, Supplier<Future<T>> loader) {
+    if (maxSize <= 0) {
+      misses.incrementAndGet();
+      return loader.get();
+    }
+
+    long now = ticker.getAsLong();
+    Entry entry;
+    boolean refresh = false;
+    synchronized (entries) {
+      entry = entries.get(key);
+      if (entry == null || entry.isExpired(now)) {
+        misses.incrementAndGet();
+        Entry created = new Entry(loader.get());
+        entries.put(key, created);
+        created.value.onFailure(e -> remove(key, created));
+        return (Future<T>) created.value;
+      }
+      hits.incrementAndGet();
+      if (entry.isStale(now) && !entry.refreshing) {
+        entry.refreshing = true;
+        refresh = true;
+      }
+    }
+
+    if (refresh) {
+      Entry stale = entry;
+      loader.get()
+        .onSuccess(value -> replace(key, stale, new Entry(Future.succeededFuture(value))))
+        .onFailure(e -> {
+          log.warn("get:: Failed to refresh statistics [key: {}]", key, e);
+          stale.refreshing = false;
+        });
+    }
+    return (Future<T>) entry.value;
+  }
+
+  private void remove(Key key, Entry entry) {
+    synchronized (entries) {
+      entries.remove(key, entry);
+    }
+  }
+
+  private void replace(Key key, Entry oldEntry, Entry newEntry) {
+    synchronized (entries) {
+      entries.replace(key, oldEntry, newEntry);
+    }
+  }
+
+  private enum Kind { FIELD, FIELDS, OPTION, OPTIONS }
+
+  /** Approximate and exact statistics are cached separately, exact requests are never served estimates. */
+  private record Key(String tenantId, Kind kind, String refId, String optionId, boolean approximate) { }
+
+  private final class Entry {
+
+    private final Future<?> value;
+    private volatile long loadedAt = -1;
+    private volatile boolean refreshing;
+
+    private Entry(Future<?> value) {
+      this.value = value;
+      value.onSuccess(v -> loadedAt = ticker.getAsLong());
+    }
+
+    /** Entries being loaded are neither stale nor expired, so concurrent requests share the load. */
+    private boolean isStale(long now) {
+      return loadedAt >= 0 && now - loadedAt >= ttlNanos;
+    }
+
+    private boolean isExpired(long now) {
+      return loadedAt >= 0 && now - loadedAt >= ttlNanos + staleNanos;
+    }
+  }
+}
@@ -0,0 +1,215 @@
+package org.folio.service;
+
+import static org.folio.repository.CustomFieldsConstants.CUSTOM_FIELD_JOB_TABLE;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.sqlclient.Tuple;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import org.folio.model.RecordUpdate;
+import org.folio.repository.CustomFieldJobRepository;
+import org.folio.rest.jaxrs.model.CustomField;
+import org.folio.rest.jaxrs.model.CustomFieldJob;
+import org.folio.rest.persist.Conn;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * Cleans up values of deleted custom fields and options in the background. Jobs are saved in the transaction
+ * changing custom field definitions, so a job exists if and only if the change is committed. Due jobs of a tenant
+ * are processed after the change is committed, and by periodic polling of all tenants, which also retries
+ * failed jobs and jobs of stopped module instances. Module instances claim jobs with SKIP LOCKED, so a job is
+ * processed by a single instance at a time. The lease of a claimed job is renewed while it is processed,
+ * so only jobs of stopped instances are claimed again; an attempt whose lease expired anyway does not
+ * overwrite the outcome of the next attempt.
+ */
+@Log4j2
+@Component
+public class CustomFieldJobWorker {
+
+  @Autowired
+  private Vertx vertx;
+  @Autowired
+  private CustomFieldJobRepository repository;
+  @Autowired
+  private RecordService recordService;
+
+  @Value("${custom.fields.values.cleanup.async:false}")
+  private boolean enabled;
+  @Value("${custom.fields.values.cleanup.jobs.poll.seconds:60}")
+  private long pollSeconds;
+  @Value("${custom.fields.values.cleanup.jobs.lease.seconds:300}")
+  private long leaseSeconds;
+  @Value("${custom.fields.values.cleanup.jobs.max.attempts:5}")
+  private int maxAttempts;
+  @Value("${custom.fields.values.cleanup.jobs.retry.delay.seconds:60}")
+  private long retryDelaySeconds;
+  @Value("${custom.fields.values.cleanup.chunk.size:1000}")
+  private int chunkSize;
+
+  private final Set<String> processing = ConcurrentHashMap.newKeySet();
+  private final Set<String> rescheduled = ConcurrentHashMap.newKeySet();
+  private Long timerId;
+
+  /**
+   * Returns true if values are cleaned up by background jobs instead of within requests changing definitions.
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public synchronized void start() {
+    if (!enabled || timerId != null) {
+      return;
+    }
+    timerId = vertx.setPeriodic(TimeUnit.SECONDS.toMillis(pollSeconds), id -> poll());
+  }
+
+  public synchronized void stop() {
+    if (timerId != null) {
+      vertx.cancelTimer(timerId);
+      timerId = null;
+    }
+  }
+
+  /**
+   * Saves a job deleting all values of the custom field in the transaction of the given connection.
+   */
+  public Future<CustomFieldJob> enqueueValuesDeletion(CustomField field, Conn conn) {
+    return repository.save(newJob(CustomFieldJob.Type.DELETE_VALUES, field), conn);
+  }
+
+  /**
+   * Saves a job deleting values of deleted options of the custom field in the transaction of the given connection.
+   */
+  public Future<CustomFieldJob> enqueueOptionValuesDeletion(RecordUpdate recordUpdate, Conn conn) {
+    return repository.save(
+      newJob(CustomFieldJob.Type.DELETE_OPTION_VALUES, recordUpdate.getCustomField())
+        .withOptionIds(recordUpdate.getOptionIdsToDelete()),
+      conn);
+  }
+
+  /**
+   * Starts processing due jobs of the tenant in the background. If they are already being processed
+   * by this instance, they are processed again once it finishes, to pick up jobs saved meanwhile.
+   */
+  public void schedule(String tenantId) {
+    if (enabled) {
+      process(tenantId);
+    }
+  }
+
+  /**
+   * Processes due jobs of the tenant one by one until no job is due. Returns the number of processed jobs.
+   */
+  Future<Integer> process(String tenantId) {
+    if (!processing.add(tenantId)) {
+      rescheduled.add(tenantId);
+      return Future.succeededFuture(0);
+    }
+    return processNext(tenantId, 0)
+      .onFailure(e -> log.warn("process:: Failed to process custom field jobs [tenantId: {}]", tenantId, e))
+      .onComplete(ar -> {
+        processing.remove(tenantId);
+        if (rescheduled.remove(tenantId)) {
+          process(tenantId);
+        }
+      });
+  }
+
+  private Future<Integer> processNext(String tenantId, int processed) {
+    return repository.claimNext(leaseSeconds, tenantId)
+      .compose(job -> job
+        .map(claimed -> run(claimed, tenantId).compose(v -> processNext(tenantId, processed + 1)))
+        .orElseGet(() -> Future.succeededFuture(processed)));
+  }
+
+  private Future<Void> run(CustomFieldJob job, String tenantId) {
+    log.info("run:: Running custom field job [tenantId: {}, id: {}, type: {}, attempt: {}]",
+      tenantId, job.getId(), job.getType(), job.getAttempts());
+
+    long renewalTimerId = vertx.setPeriodic(TimeUnit.SECONDS.toMillis(leaseSeconds) / 3,
+      id -> renewLease(job, tenantId));
+    Future<Long> cleanup = switch (job.getType()) {
+      case DELETE_VALUES -> recordService.deleteAllValuesInChunks(job.getCustomField(), chunkSize, tenantId);
+      case DELETE_OPTION_VALUES -> recordService.deleteMissedOptionValues(
+        new RecordUpdate(job.getCustomField(), job.getOptionIds(), List.of()), tenantId).map(v -> null);
+    };
+    return cleanup.onComplete(ar -> vertx.cancelTimer(renewalTimerId)).compose(
+      processedRecords -> {
+        job.withStatus(CustomFieldJob.Status.COMPLETED)
+          .withProcessedRecords(processedRecords != null ? Math.toIntExact(processedRecords) : null)
+          .withError(null)
+          .withUpdatedDate(new Date());
+        return update(job, 0, tenantId);
+      },
+      e -> {
+        boolean retry = job.getAttempts() < maxAttempts;
+        log.warn("run:: Custom field job failed [tenantId: {}, id: {}, attempt: {}, retry: {}]",
+          tenantId, job.getId(), job.getAttempts(), retry, e);
+        job.withStatus(retry ? CustomFieldJob.Status.PENDING : CustomFieldJob.Status.FAILED)
+          .withError(e.getMessage())
+          .withUpdatedDate(new Date());
+        return update(job, retryDelaySeconds * job.getAttempts(), tenantId);
+      });
+  }
+
+  private void renewLease(CustomFieldJob job, String tenantId) {
+    repository.renewLease(job.getId(), job.getAttempts(), leaseSeconds, tenantId)
+      .onSuccess(renewed -> {
+        if (!renewed) {
+          log.warn("renewLease:: Custom field job was claimed again [tenantId: {}, id: {}, attempt: {}]",
+            tenantId, job.getId(), job.getAttempts());
+        }
+      })
+      .onFailure(e -> log.warn("renewLease:: Failed to renew the lease of custom field job [tenantId: {}, id: {}]",
+        tenantId, job.getId(), e));
+  }
+
+  private Future<Void> update(CustomFieldJob job, long delaySeconds, String tenantId) {
+    return repository.update(job, delaySeconds, tenantId)
+      .onSuccess(updated -> {
+        if (!updated) {
+          log.warn("update:: Custom field job was claimed again, its outcome is dropped "
+            + "[tenantId: {}, id: {}, attempt: {}]", tenantId, job.getId(), job.getAttempts());
+        }
+      })
+      .mapEmpty();
+  }
+
+  /**
+   * Processes due jobs of all tenants that have the job table in their schema.
+   */
+  private void poll() {
+    PostgresClient.getInstance(vertx)
+      .execute("SELECT schemaname FROM pg_tables WHERE tablename = $1", Tuple.of(CUSTOM_FIELD_JOB_TABLE))
+      .onSuccess(rowSet -> rowSet.forEach(row -> {
+        String tenantId = CustomFieldsChangeListener.toTenantId(row.getString(0));
+        if (tenantId != null) {
+          schedule(tenantId);
+        }
+      }))
+      .onFailure(e -> log.warn("poll:: Failed to find tenants with custom field jobs", e));
+  }
+
+  private static CustomFieldJob newJob(CustomFieldJob.Type type, CustomField field) {
+    Date now = new Date();
+    return new CustomFieldJob()
+      .withType(type)
+      .withStatus(CustomFieldJob.Status.PENDING)
+      .withCustomFieldId(field.getId())
+      .withCustomField(field)
+      .withAttempts(0)
+      .withCreatedDate(now)
+      .withUpdatedDate(now);
+  }
+}
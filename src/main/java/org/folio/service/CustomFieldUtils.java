@@ -17,6 +17,16 @@ public final class CustomFieldUtils {
     return extractOptionParameter(customField, SelectFieldOption::getId);
   }
 
+  /**
+   * Returns ids of the options usages of which are counted by option statistics:
+   * ids of select options, or "true" and "false" for a checkbox.
+   */
+  public static List<String> extractStatisticOptionIds(CustomField customField) {
+    return isCheckboxCustomFieldType(customField)
+      ? List.of(Boolean.TRUE.toString(), Boolean.FALSE.toString())
+      : extractOptionIds(customField);
+  }
+
   public static List<String> extractDefaultOptionIds(CustomField customField) {
     List<String> defaultOptionIds = extractOptionParameter(customField,
       selectFieldOption -> Boolean.TRUE.equals(selectFieldOption.getDefault()) ? selectFieldOption.getId() : null);
@@ -35,6 +45,10 @@ public final class CustomFieldUtils {
       || CustomField.Type.RADIO_BUTTON.equals(type);
   }
 
+  public static boolean isCheckboxCustomFieldType(CustomField customField) {
+    return CustomField.Type.SINGLE_CHECKBOX.equals(customField.getType());
+  }
+
   public static boolean isTextBoxCustomFieldType(CustomField customField) {
     CustomField.Type type = customField.getType();
     return CustomField.Type.TEXTBOX_LONG.equals(type) || CustomField.Type.TEXTBOX_SHORT.equals(type);
@@ -0,0 +1,155 @@
+package org.folio.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import io.vertx.core.Future;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import org.folio.model.CacheStats;
+import org.folio.rest.jaxrs.model.CustomField;
+
+/**
+ * Bounded in-memory cache of custom field definitions, keyed by tenant and entity type.
+ * Entries live until they expire, are evicted as least recently used, or the tenant is invalidated
+ * by a write to its custom fields.
+ * Every invalidation of a tenant also bumps the tenant's definitions generation, which lets clients detect
+ * that definitions have not changed without loading them.
+ */
+@Log4j2
+@Component
+public class CustomFieldsCache {
+
+  private final int maxSize;
+  private final long ttlNanos;
+
+  private final Map<Key, Entry> entries;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+  private final AtomicLong globalGeneration = new AtomicLong();
+
+  public CustomFieldsCache(@Value("${custom.fields.definitions.cache.max.size:1000}") int maxSize,
+                           @Value("${custom.fields.definitions.cache.ttl.seconds:300}") long ttlSeconds) {
+    this.maxSize = maxSize;
+    this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+        boolean evict = size() > CustomFieldsCache.this.maxSize;
+        if (evict) {
+          evictions.incrementAndGet();
+        }
+        return evict;
+      }
+    };
+  }
+
+  /**
+   * Returns cached definitions of the given tenant and entity type, or loads them with the given loader.
+   * Concurrent requests for the same missing entry share a single load. Failed loads are not cached.
+   *
+   * @param tenantId   - tenant id
+   * @param entityType - entity type, or {@code null} for definitions of all entity types
+   * @param loader     - supplier of definitions used on cache miss
+   * @return unmodifiable list of definitions
+   */
+  public Future<List<CustomField>> get(String tenantId, String entityType,
+                                       Supplier<Future<List<CustomField>>> loader) {
+    if (maxSize <= 0) {
+      misses.incrementAndGet();
+      return loader.get();
+    }
+
+    Key key = new Key(tenantId, entityType);
+    Entry created;
+    synchronized (entries) {
+      Entry entry = entries.get(key);
+      if (entry != null && !entry.isExpired()) {
+        hits.incrementAndGet();
+        return entry.definitions;
+      }
+      misses.incrementAndGet();
+      created = new Entry(loader.get().map(Collections::unmodifiableList));
+      entries.put(key, created);
+    }
+
+    return created.definitions
+      .onFailure(e -> remove(key, created));
+  }
+
+  /**
+   * Removes all cached definitions of the given tenant.
+   *
+   * @param tenantId - tenant id
+   */
+  public void invalidate(String tenantId) {
+    log.debug("invalidate:: Invalidating custom field definitions [tenantId: {}]", tenantId);
+    generations.computeIfAbsent(tenantId, t -> new AtomicLong()).incrementAndGet();
+    synchronized (entries) {
+      entries.keySet().removeIf(key -> Objects.equals(key.tenantId, tenantId));
+    }
+  }
+
+  /**
+   * Removes all cached definitions of all tenants.
+   */
+  public void invalidateAll() {
+    globalGeneration.incrementAndGet();
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  /**
+   * Returns generation of the tenant's definitions, that changes whenever the tenant is invalidated.
+   *
+   * @param tenantId - tenant id
+   */
+  public long getGeneration(String tenantId) {
+    AtomicLong generation = generations.get(tenantId);
+    return globalGeneration.get() + (generation != null ? generation.get() : 0);
+  }
+
+  public CacheStats getStats() {
+    int size;
+    synchronized (entries) {
+      size = entries.size();
+    }
+    return new CacheStats(hits.get(), misses.get(), evictions.get(), size);
+  }
+
+  private void remove(Key key, Entry entry) {
+    synchronized (entries) {
+      entries.remove(key, entry);
+    }
+  }
+
+  private record Key(String tenantId, String entityType) { }
+
+  private final class Entry {
+
+    private final Future<List<CustomField>> definitions;
+    private final long createdAt = System.nanoTime();
+
+    private Entry(Future<List<CustomField>> definitions) {
+      this.definitions = definitions;
+    }
+
+    private boolean isExpired() {
+      return System.nanoTime() - createdAt >= ttlNanos;
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package org.folio.service;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.pgclient.PgConnectOptions;
+import io.vertx.pgclient.pubsub.PgSubscriber;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import org.folio.repository.ReadReplicaClient;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * Listens to notifications sent by the custom_fields table trigger on every change of a custom field
+ * and evicts cached definitions of the affected tenant, so caches of all module instances stay coherent.
+ */
+@Log4j2
+@Component
+public class CustomFieldsChangeListener {
+
+  static final String CHANNEL = "custom_fields_changed";
+
+  private static final long MAX_RECONNECT_DELAY_MILLIS = 30_000;
+
+  @Autowired
+  private Vertx vertx;
+  @Autowired
+  private CustomFieldsCache cache;
+  @Autowired
+  private ReadReplicaClient readReplica;
+
+  @Value("${custom.fields.definitions.cache.notifications.enabled:true}")
+  private boolean enabled;
+
+  private PgSubscriber subscriber;
+  private long retryTimerId = -1;
+  private int connectRetries;
+  private volatile boolean listening;
+
+  /**
+   * Connects to the database and starts listening to custom field changes. If the connection fails, it is retried
+   * with the same backoff as reconnects of a lost connection until the listener is stopped.
+   * Definitions of all tenants are evicted on every (re)subscription, as notifications sent while
+   * the listener was disconnected are lost.
+   */
+  public synchronized Future<Void> start() {
+    if (!enabled || subscriber != null) {
+      return Future.succeededFuture();
+    }
+    cancelRetry();
+
+    PgConnectOptions connectOptions;
+    try {
+      connectOptions = connectOptions();
+    } catch (RuntimeException e) {
+      log.warn("start:: Failed to listen to custom field changes: invalid connection config", e);
+      return Future.failedFuture(e);
+    }
+
+    PgSubscriber connecting = PgSubscriber.subscriber(vertx, connectOptions)
+      .reconnectPolicy(CustomFieldsChangeListener::reconnectDelay);
+    subscriber = connecting;
+    connecting.channel(CHANNEL)
+      .subscribeHandler(v -> {
+        log.info("start:: Listening to custom field changes");
+        cache.invalidateAll();
+        listening = true;
+      })
+      .endHandler(v -> {
+        log.info("start:: Stopped listening to custom field changes");
+        listening = false;
+      })
+      .handler(this::handleNotification);
+
+    return connecting.connect()
+      .onSuccess(v -> connected(connecting))
+      .onFailure(e -> retry(connecting, e));
+  }
+
+  public synchronized Future<Void> stop() {
+    cancelRetry();
+    connectRetries = 0;
+    if (subscriber == null) {
+      return Future.succeededFuture();
+    }
+    Future<Void> closed = subscriber.close();
+    subscriber = null;
+    listening = false;
+    return closed;
+  }
+
+  /**
+   * Returns true while changes made by other instances are received, i.e. the listener is subscribed to the channel.
+   */
+  public boolean isListening() {
+    return listening;
+  }
+
+  private synchronized void connected(PgSubscriber connecting) {
+    if (subscriber == connecting) {
+      connectRetries = 0;
+    }
+  }
+
+  /**
+   * Drops the subscriber that failed to connect and schedules a new attempt, unless the listener was stopped
+   * in the meantime.
+   */
+  private synchronized void retry(PgSubscriber failed, Throwable e) {
+    if (subscriber != failed) {
+      return;
+    }
+    failed.close();
+    subscriber = null;
+    long delay = reconnectDelay(connectRetries++);
+    log.warn("retry:: Failed to listen to custom field changes, retrying [delayMillis: {}]", delay, e);
+    retryTimerId = vertx.setTimer(delay, id -> {
+      synchronized (this) {
+        if (retryTimerId != id) {
+          return;
+        }
+        retryTimerId = -1;
+      }
+      start();
+    });
+  }
+
+  private void cancelRetry() {
+    if (retryTimerId != -1) {
+      vertx.cancelTimer(retryTimerId);
+      retryTimerId = -1;
+    }
+  }
+
+  private static long reconnectDelay(int retries) {
+    return Math.min(1000L << Math.min(retries, 5), MAX_RECONNECT_DELAY_MILLIS);
+  }
+
+  void handleNotification(String payload) {
+    try {
+      String schema = new JsonObject(payload).getString("schema");
+      String tenantId = toTenantId(schema);
+      if (tenantId != null) {
+        log.debug("handleNotification:: Custom fields changed [tenantId: {}]", tenantId);
+        readReplica.markWritten(tenantId);
+        cache.invalidate(tenantId);
+      }
+    } catch (RuntimeException e) {
+      log.warn("handleNotification:: Unexpected notification payload: {}", payload, e);
+    }
+  }
+
+  static String toTenantId(String schema) {
+    String suffix = "_" + PostgresClient.getModuleName();
+    if (schema == null || !schema.endsWith(suffix)) {
+      return null;
+    }
+    return schema.substring(0, schema.length() - suffix.length());
+  }
+
+  PgConnectOptions connectOptions() {
+    JsonObject config = PostgresClient.getInstance(vertx).getConnectionConfig();
+    return new PgConnectOptions()
+      .setHost(config.getString("host"))
+      .setPort(config.getInteger("port"))
+      .setUser(config.getString("username"))
+      .setPassword(config.getString("password"))
+      .setDatabase(config.getString("database"));
+  }
+}
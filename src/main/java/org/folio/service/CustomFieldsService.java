@@ -1,14 +1,20 @@
 package org.folio.service;
 
 import java.util.List;
+import java.util.OptionalLong;
 
 import io.vertx.core.Future;
 
 import org.folio.common.OkapiParams;
 import org.folio.rest.jaxrs.model.CustomField;
 import org.folio.rest.jaxrs.model.CustomFieldCollection;
+import org.folio.rest.jaxrs.model.CustomFieldIndexCollection;
+import org.folio.rest.jaxrs.model.CustomFieldJob;
+import org.folio.rest.jaxrs.model.CustomFieldJobCollection;
 import org.folio.rest.jaxrs.model.CustomFieldOptionStatistic;
+import org.folio.rest.jaxrs.model.CustomFieldOptionStatisticCollection;
 import org.folio.rest.jaxrs.model.CustomFieldStatistic;
+import org.folio.rest.jaxrs.model.CustomFieldStatisticCollection;
 
 public interface CustomFieldsService {
 
@@ -48,6 +54,26 @@ public interface CustomFieldsService {
    */
   Future<CustomFieldCollection> findByQuery(String query, int offset, int limit, String lang, String tenantId);
 
+  /**
+   * Fetches all custom field definitions of the given entity type, sorted by order.
+   * Definitions are served from an in-memory cache that is invalidated on every write of custom fields
+   * of the tenant. The returned list is unmodifiable and its elements must not be modified.
+   *
+   * @param entityType - entity type, or {@code null} to fetch definitions of all entity types
+   * @param tenantId   - tenant id
+   */
+  Future<List<CustomField>> findByEntityType(String entityType, String tenantId);
+
+  /**
+   * Returns generation of custom field definitions of the tenant. The generation changes on every write
+   * of custom fields of the tenant, so equal generations guarantee that definitions have not changed.
+   * Empty while writes made by other module instances are not received, as the generation then can't tell
+   * whether definitions have changed.
+   *
+   * @param tenantId - tenant id
+   */
+  OptionalLong getDefinitionsGeneration(String tenantId);
+
   /**
    * Deletes custom field with given id.
    *
@@ -56,6 +82,14 @@ public interface CustomFieldsService {
    */
   Future<Void> delete(String id, String tenantId);
 
+  /**
+   * Deletes custom fields with given ids and their values. Fails if any of the custom fields is not found.
+   *
+   * @param ids      - ids of custom fields to delete
+   * @param tenantId - tenant id
+   */
+  Future<Void> deleteAll(List<String> ids, String tenantId);
+
   /**
    * Replaces all existing custom fields with new collection of custom fields. If new collection has
    * fields with ids that already exist then those fields will be updated, fields with ids that
@@ -72,17 +106,64 @@ public interface CustomFieldsService {
   /**
    * Retrieves statistic of specific custom field definition usage.
    *
-   * @param id       - id of custom field
-   * @param tenantId - tenant id
+   * @param id          - id of custom field
+   * @param approximate - whether counts of large tables may be estimated from a sample
+   * @param tenantId    - tenant id
+   */
+  Future<CustomFieldStatistic> retrieveStatistic(String id, boolean approximate, String tenantId);
+
+  /**
+   * Retrieves usage statistic of all custom field definitions of the given entity type.
+   *
+   * @param entityType  - entity type of custom fields
+   * @param approximate - whether counts of large tables may be estimated from a sample
+   * @param tenantId    - tenant id
    */
-  Future<CustomFieldStatistic> retrieveStatistic(String id, String tenantId);
+  Future<CustomFieldStatisticCollection> retrieveStatistics(String entityType, boolean approximate,
+                                                            String tenantId);
 
   /**
    * Retrieves statistic of specific custom field option usage. Can be processed only for selectable fields.
    *
-   * @param id       - id of custom field
-   * @param optId    - id of custom field option
+   * @param id          - id of custom field
+   * @param optId       - id of custom field option
+   * @param approximate - whether counts of large tables may be estimated from a sample
+   * @param tenantId    - tenant id
+   */
+  Future<CustomFieldOptionStatistic> retrieveOptionStatistic(String id, String optId, boolean approximate,
+                                                             String tenantId);
+
+  /**
+   * Retrieves usage statistic of all options of the custom field. Can be processed only for selectable
+   * and checkbox fields.
+   *
+   * @param id          - id of custom field
+   * @param approximate - whether counts of large tables may be estimated from a sample
+   * @param tenantId    - tenant id
+   */
+  Future<CustomFieldOptionStatisticCollection> retrieveOptionStatistics(String id, boolean approximate,
+                                                                        String tenantId);
+
+  /**
+   * Returns the background job cleaning up values of a custom field.
+   *
+   * @param id       - id of the job
+   * @param tenantId - tenant id
+   */
+  Future<CustomFieldJob> findJobById(String id, String tenantId);
+
+  /**
+   * Returns background jobs cleaning up values of the custom field.
+   *
+   * @param customFieldId - id of custom field
+   * @param tenantId      - tenant id
+   */
+  Future<CustomFieldJobCollection> findJobs(String customFieldId, String tenantId);
+
+  /**
+   * Returns GIN indexes on custom field values of every entity table.
+   *
    * @param tenantId - tenant id
    */
-  Future<CustomFieldOptionStatistic> retrieveOptionStatistic(String id, String optId, String tenantId);
+  Future<CustomFieldIndexCollection> retrieveIndexes(String tenantId);
 }
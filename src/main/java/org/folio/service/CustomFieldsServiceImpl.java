@@ -9,6 +9,7 @@ import static java.util.Comparator.reverseOrder;
 
 import static org.folio.service.CustomFieldUtils.extractDefaultOptionIds;
 import static org.folio.service.CustomFieldUtils.extractOptionIds;
+import static org.folio.service.CustomFieldUtils.isCheckboxCustomFieldType;
 import static org.folio.service.CustomFieldUtils.isSelectableCustomFieldType;
 import static org.folio.service.CustomFieldUtils.isTextBoxCustomFieldType;
 
@@ -19,11 +20,12 @@ import java.util.Base64;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.BiFunction;
@@ -40,7 +42,6 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.text.WordUtils;
 import org.folio.rest.persist.Conn;
-import org.folio.rest.persist.PostgresClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.z3950.zing.cql.CQLDefaultNodeVisitor;
@@ -51,12 +52,21 @@ import org.z3950.zing.cql.CQLSortNode;
 import org.z3950.zing.cql.ModifierSet;
 
 import org.folio.common.OkapiParams;
+import org.folio.metrics.CountingPostgresClient;
 import org.folio.model.RecordUpdate;
+import org.folio.model.User;
+import org.folio.repository.CustomFieldJobRepository;
 import org.folio.repository.CustomFieldsRepository;
+import org.folio.repository.ReadReplicaClient;
 import org.folio.rest.jaxrs.model.CustomField;
 import org.folio.rest.jaxrs.model.CustomFieldCollection;
+import org.folio.rest.jaxrs.model.CustomFieldIndexCollection;
+import org.folio.rest.jaxrs.model.CustomFieldJob;
+import org.folio.rest.jaxrs.model.CustomFieldJobCollection;
 import org.folio.rest.jaxrs.model.CustomFieldOptionStatistic;
+import org.folio.rest.jaxrs.model.CustomFieldOptionStatisticCollection;
 import org.folio.rest.jaxrs.model.CustomFieldStatistic;
+import org.folio.rest.jaxrs.model.CustomFieldStatisticCollection;
 import org.folio.rest.jaxrs.model.SelectFieldOption;
 import org.folio.rest.jaxrs.model.SelectFieldOptions;
 import org.folio.rest.jaxrs.model.TextField;
@@ -78,6 +88,8 @@ public class CustomFieldsServiceImpl implements CustomFieldsService {
     "The type of the custom field can not be changed: newType = %s, oldType = %s";
   private static final String NOT_SELECTABLE_TYPE_MESSAGE = "The type of the custom field must be one of:"
     + "SINGLE_SELECT_DROPDOWN, MULTI_SELECT_DROPDOWN, RADIO_BUTTON";
+  private static final String NOT_SELECTABLE_OR_CHECKBOX_TYPE_MESSAGE = "The type of the custom field must be one of:"
+    + "SINGLE_SELECT_DROPDOWN, MULTI_SELECT_DROPDOWN, RADIO_BUTTON, SINGLE_CHECKBOX";
   private static final String MISSED_OPTION_MESSAGE = "Option with id '%s' not found in custom field '%s'";
   private static final String FORMAT_CHANGING_MESSAGE =
     "The format of the custom field can not be changed: newFormat = %s, oldFormat = %s";
@@ -90,19 +102,32 @@ public class CustomFieldsServiceImpl implements CustomFieldsService {
   private RecordService recordService;
   @Autowired
   private Vertx vertx;
+  @Autowired
+  private CustomFieldsCache cache;
+  @Autowired
+  private ReadReplicaClient readReplica;
+  @Autowired
+  private CustomFieldJobRepository jobRepository;
+  @Autowired
+  private CustomFieldJobWorker jobWorker;
+  @Autowired
+  private CustomFieldsChangeListener changeListener;
 
   @Override
   public Future<CustomField> save(CustomField customField, OkapiParams params) {
     log.debug("Attempts to save customField by [tenant: {}, customField: {}]",
       params.getTenant(), customField);
 
-    return repository.maxOrder(params.getTenant())
-      .compose(maxOrder -> {
-        customField.setOrder(maxOrder + 1);
-        return save(customField, params,
-                (unAccentName, tenantId) -> repository.maxRefId(unAccentName, params.getTenant()),
-                (customField1, tenantId) -> repository.save(customField1, params.getTenant()));
-      });
+    return populateCreator(customField, params)
+      .compose(v -> withTrans(params.getTenant(), connection ->
+        repository.nextOrder(customField.getEntityType(), params.getTenant(), connection)
+          .compose(order -> {
+            customField.setOrder(order);
+            return save(customField, params,
+                    (unAccentName, tenantId) -> repository.nextRefIdCounter(unAccentName, tenantId, connection),
+                    (customField1, tenantId) -> repository.save(customField1, connection));
+          })))
+      .onComplete(ar -> invalidate(params.getTenant()));
   }
 
   @Override
@@ -110,13 +135,14 @@ public class CustomFieldsServiceImpl implements CustomFieldsService {
     log.debug("Attempts to update customField by [id: {}, tenant: {}, customField: {}]",
       id, params.getTenant(), customField);
 
-    return findById(id, params.getTenant())
+    return findByIdOnPrimary(id, params.getTenant())
       .compose(oldCustomField -> {
         customField.setId(oldCustomField.getId());
         customField.setOrder(oldCustomField.getOrder());
         return update(customField, oldCustomField, params,
                 (customFieldEntity, tenantId) -> repository.update(customFieldEntity, tenantId));
-      });
+      })
+      .onComplete(ar -> invalidate(params.getTenant()));
   }
 
   @Override
@@ -124,28 +150,83 @@ public class CustomFieldsServiceImpl implements CustomFieldsService {
     log.debug("findById:: Attempts to get customField by [id: {}, tenantId: {}]", id, tenantId);
 
     return repository.findById(id, tenantId)
-      .map(customField -> customField
-        .orElseThrow(() -> {
-          log.warn("Failed on finding customField by [id: {}, tenantId: {}]", id, tenantId);
-          return ServiceExceptions.notFound(CustomField.class, id);
-        }));
+      .map(customField -> orElseNotFound(customField, id, tenantId));
+  }
+
+  /**
+   * Finds the custom field on the primary database, for updates that must not act on a stale definition
+   * read from the replica.
+   */
+  private Future<CustomField> findByIdOnPrimary(String id, String tenantId) {
+    return repository.findByIdOnPrimary(id, tenantId)
+      .map(customField -> orElseNotFound(customField, id, tenantId));
+  }
+
+  private CustomField orElseNotFound(Optional<CustomField> customField, String id, String tenantId) {
+    return customField.orElseThrow(() -> {
+      log.warn("Failed on finding customField by [id: {}, tenantId: {}]", id, tenantId);
+      return ServiceExceptions.notFound(CustomField.class, id);
+    });
   }
 
   @Override
   public Future<CustomFieldCollection> findByQuery(String query, int offset, int limit, String lang, String tenantId) {
-    return repository.findByQuery(withSortByOrder(query), offset, limit, tenantId);
+    // while the generation is exposed as an ETag, a response read from a lagging replica would be kept by clients
+    // until the next change
+    return changeListener.isListening()
+      ? repository.findByQueryOnPrimary(withSortByOrder(query), offset, limit, tenantId)
+      : repository.findByQuery(withSortByOrder(query), offset, limit, tenantId);
+  }
+
+  @Override
+  public Future<List<CustomField>> findByEntityType(String entityType, String tenantId) {
+    return cache.get(tenantId, entityType, () -> {
+      // cached definitions are served until invalidated, so they are never read from a lagging replica
+      String query = entityType != null ? "entityType==" + cqlEncode(entityType) : null;
+      return repository.findByQueryOnPrimary(withSortByOrder(query), 0, Integer.MAX_VALUE, tenantId)
+        .map(CustomFieldCollection::getCustomFields);
+    });
+  }
+
+  @Override
+  public OptionalLong getDefinitionsGeneration(String tenantId) {
+    return changeListener.isListening() ? OptionalLong.of(cache.getGeneration(tenantId)) : OptionalLong.empty();
   }
 
   @Override
   public Future<Void> delete(String id, String tenantId) {
-    Future<CustomField> cf = findById(id, tenantId);
+    Future<CustomField> cf = findByIdOnPrimary(id, tenantId);
     log.debug("delete:: Attempts to delete customField by [id: {}, tenantId: {}]", id, tenantId);
 
     return cf
-      .compose(field -> recordService.deleteAllValues(field, tenantId))
-      .compose(v -> repository.delete(id, tenantId))
-      .compose(deleted -> failIfNotFound(deleted, id))
-      .compose(v -> updateCustomFieldsOrder(tenantId));
+      .compose(field -> deleteValues(field, tenantId)
+        .compose(v -> withTrans(tenantId, connection -> repository.delete(id, connection)
+          .compose(deleted -> failIfNotFound(deleted, id))
+          .compose(x -> enqueueValuesDeletion(connection, field))
+          .compose(x -> repository.reorder(field.getEntityType(), tenantId, connection)))))
+      .<Void>mapEmpty()
+      .onSuccess(v -> jobWorker.schedule(tenantId))
+      .onComplete(ar -> invalidate(tenantId));
+  }
+
+  @Override
+  public Future<Void> deleteAll(List<String> ids, String tenantId) {
+    log.debug("deleteAll:: Attempts to delete customFields by [ids: {}, tenantId: {}]", ids, tenantId);
+
+    Set<String> distinctIds = new LinkedHashSet<>(ids);
+    String query = distinctIds.stream().map(id -> "id==" + id).collect(Collectors.joining(" or "));
+    return repository.findByQueryOnPrimary(query, 0, distinctIds.size(), tenantId)
+      .map(CustomFieldCollection::getCustomFields)
+      .compose(fields -> failIfAnyNotFound(distinctIds, fields.stream().map(CustomField::getId).toList())
+        .compose(v -> deleteValues(fields, tenantId))
+        .compose(v -> withTrans(tenantId, connection ->
+          repository.deleteAll(distinctIds, tenantId, connection)
+            .compose(x -> enqueueValuesDeletion(connection, fields))
+            .compose(x -> executeForEach(
+              fields.stream().map(CustomField::getEntityType).distinct().toList(),
+              entityType -> repository.reorder(entityType, tenantId, connection))))))
+      .onSuccess(v -> jobWorker.schedule(tenantId))
+      .onComplete(ar -> invalidate(tenantId));
   }
 
   @Override
@@ -155,8 +236,8 @@ public class CustomFieldsServiceImpl implements CustomFieldsService {
     log.debug("replaceAll:: Attempt to replace all customFields by [tenantId: {}]", params.getTenant());
 
     String queryStr = String.format("query=(entityType==%s)", entityType);
-    return repository.findByQuery(queryStr, 0, Integer.MAX_VALUE, params.getTenant())
-      .compose(existingFields -> {
+    return repository.findByQueryOnPrimary(queryStr, 0, Integer.MAX_VALUE, params.getTenant())
+      .compose(existingFields -> userService.getUserInfo(params.getHeaders()).compose(user -> {
         setOrder(customFields);
         setIdIfEmpty(customFields);
         Map<String, CustomField> newFieldsMap = createMapById(customFields);
@@ -164,50 +245,150 @@ public class CustomFieldsServiceImpl implements CustomFieldsService {
 
         Set<String> fieldsToRemove = Sets.difference(existingFieldsMap.keySet(), newFieldsMap.keySet());
         Set<String> fieldsToUpdate = Sets.intersection(existingFieldsMap.keySet(), newFieldsMap.keySet());
-        Set<String> fieldsToInsert = Sets.difference(newFieldsMap.keySet(), existingFieldsMap.keySet());
-        PostgresClient postgresClient = PostgresClient.getInstance(vertx, params.getTenant());
-
-        return postgresClient.withTrans(connection -> removeFields(connection, fieldsToRemove)
-                .compose(x -> updateFields(params, connection, fieldsToUpdate, newFieldsMap, existingFieldsMap))
-                .compose(x -> insertFields(params, connection, fieldsToInsert, newFieldsMap))
-                .compose(unused -> removeValues(params, connection, fieldsToRemove, existingFieldsMap)))
+        List<CustomField> fieldsToInsert = customFields.stream()
+          .filter(field -> !existingFieldsMap.containsKey(field.getId()))
+          .collect(Collectors.toList());
+        List<CustomField> removedFields = fieldsToRemove.stream().map(existingFieldsMap::get).toList();
+        // values of removed fields are deleted once the definitions are, so they are kept if the update fails
+        return withTrans(params.getTenant(), connection -> removeFields(params, connection, fieldsToRemove)
+                .compose(x -> updateFields(user, params, connection, fieldsToUpdate, newFieldsMap, existingFieldsMap))
+                .compose(x -> insertFields(user, params, connection, fieldsToInsert))
+                .compose(unused -> enqueueValuesDeletion(connection, removedFields)))
+                .compose(unused -> deleteValues(removedFields, params.getTenant()))
                 .map(customFields);
+      }))
+      .onSuccess(v -> jobWorker.schedule(params.getTenant()))
+      .onComplete(ar -> invalidate(params.getTenant()));
+  }
+
+  private Future<Void> removeFields(OkapiParams params, Conn connection, Set<String> fieldsToRemove) {
+    return repository.deleteAll(fieldsToRemove, params.getTenant(), connection).mapEmpty();
+  }
+
+  private Future<Void> updateFields(User user, OkapiParams params, Conn connection, Set<String> fieldsToUpdate,
+                                    Map<String, CustomField> newFieldsMap, Map<String, CustomField> existingFieldsMap) {
+    List<CustomField> fields = new ArrayList<>();
+    List<RecordUpdate> recordUpdates = new ArrayList<>();
+    Validation validation = Validation.instance();
+    for (String id : fieldsToUpdate) {
+      CustomField customField = newFieldsMap.get(id);
+      CustomField oldCustomField = existingFieldsMap.get(id);
+      RecordUpdate recordUpdate = prepareUpdate(customField, oldCustomField);
+      if (isRequiredRecordUpdate(recordUpdate)) {
+        recordUpdates.add(recordUpdate);
+      }
+      addUpdateTests(validation, customField, oldCustomField);
+      setUpdater(customField, user);
+      fields.add(customField);
+    }
+
+    return validation.validate()
+      .compose(o -> repository.updateAll(fields, params.getTenant(), connection))
+      .compose(updatedIds -> failIfAnyNotFound(fieldsToUpdate, updatedIds))
+      .compose(o -> executeForEach(recordUpdates,
+        recordUpdate -> deleteOptionValues(connection, recordUpdate, params.getTenant())));
+  }
+
+  private Future<Void> insertFields(User user, OkapiParams params, Conn connection, List<CustomField> fieldsToInsert) {
+    List<String> unAccentNames = new ArrayList<>();
+    for (CustomField customField : fieldsToInsert) {
+      unAccentNames.add(unAccentName(customField.getName()));
+      prepareNewField(customField);
+      setCreator(customField, user);
+    }
+
+    return repository.nextRefIdCounters(unAccentNames, params.getTenant(), connection)
+      .compose(refIdCounters -> {
+        for (int i = 0; i < fieldsToInsert.size(); i++) {
+          fieldsToInsert.get(i).setRefId(getCustomFieldRefId(unAccentNames.get(i), refIdCounters.get(i)));
+        }
+        return repository.saveAll(fieldsToInsert, params.getTenant(), connection);
       });
   }
 
-  private Future<Void> removeFields(Conn connection, Set<String> fieldsToRemove) {
-    return executeForEach(fieldsToRemove, id -> repository.delete(id, connection));
+  /**
+   * Deletes values of the custom field before its definition is deleted, unless value cleanup is asynchronous.
+   * Values are deleted outside of the transaction deleting the definition, in chunks if configured.
+   */
+  private Future<Void> deleteValues(CustomField field, String tenantId) {
+    return jobWorker.isEnabled() ? succeededFuture() : recordService.deleteAllValues(field, tenantId);
   }
 
-  private Future<Void> updateFields(OkapiParams params, Conn connection, Set<String> fieldsToUpdate, Map<String, CustomField> newFieldsMap, Map<String, CustomField> existingFieldsMap) {
-    return executeForEach(fieldsToUpdate,
-            id -> update(newFieldsMap.get(id), existingFieldsMap.get(id), params,
-                    (customFieldEntity, tenantId) -> repository.update(customFieldEntity, connection)));
+  /**
+   * Enqueues a background job deleting values of the deleted custom field once the transaction commits,
+   * if value cleanup is asynchronous.
+   */
+  private Future<Void> enqueueValuesDeletion(Conn conn, CustomField field) {
+    return jobWorker.isEnabled() ? jobWorker.enqueueValuesDeletion(field, conn).mapEmpty() : succeededFuture();
   }
 
-  private Future<Void> insertFields(OkapiParams params, Conn connection, Set<String> fieldsToInsert, Map<String, CustomField> newFieldsMap) {
-    return executeForEach(fieldsToInsert, id -> save(newFieldsMap.get(id), params,
-            (unAccentName, tenantId) -> repository.maxRefId(unAccentName, params.getTenant(), connection),
-            (customField, tenantId) -> repository.save(customField, connection)));
+  /**
+   * Deletes values of the deleted custom fields outside of the transaction deleting the definitions, updating each
+   * entity table once or in chunks if configured, unless value cleanup is asynchronous.
+   */
+  private Future<Void> deleteValues(List<CustomField> fields, String tenantId) {
+    return jobWorker.isEnabled() || fields.isEmpty()
+      ? succeededFuture()
+      : recordService.deleteAllValues(fields, tenantId);
   }
 
-  private Future<Void> removeValues(
-      OkapiParams params, Conn conn, Set<String> fieldsToRemove, Map<String, CustomField> existingFieldsMap) {
+  /**
+   * Enqueues a background job per deleted custom field once the transaction commits, if value cleanup is
+   * asynchronous.
+   */
+  private Future<Void> enqueueValuesDeletion(Conn conn, List<CustomField> fields) {
+    return jobWorker.isEnabled()
+      ? executeForEach(fields, field -> jobWorker.enqueueValuesDeletion(field, conn))
+      : succeededFuture();
+  }
 
-    List<CustomField> deletedFields = fieldsToRemove.stream()
-            .map(existingFieldsMap::get)
-            .collect(Collectors.toList());
-    return executeForEach(deletedFields, field -> recordService.deleteAllValues(conn, field, params.getTenant()));
+  private Future<Void> deleteOptionValues(Conn conn, RecordUpdate recordUpdate, String tenantId) {
+    return jobWorker.isEnabled()
+      ? jobWorker.enqueueOptionValuesDeletion(recordUpdate, conn).mapEmpty()
+      : recordService.deleteMissedOptionValues(recordUpdate, tenantId);
   }
 
   @Override
-  public Future<CustomFieldStatistic> retrieveStatistic(String id, String tenantId) {
+  public Future<CustomFieldJob> findJobById(String id, String tenantId) {
+    return jobRepository.findById(id, tenantId)
+      .map(job -> job.orElseThrow(() -> ServiceExceptions.notFound(CustomFieldJob.class, id)));
+  }
+
+  @Override
+  public Future<CustomFieldJobCollection> findJobs(String customFieldId, String tenantId) {
+    return jobRepository.findByCustomFieldId(customFieldId, tenantId)
+      .map(jobs -> new CustomFieldJobCollection()
+        .withJobs(jobs)
+        .withTotalRecords(jobs.size()));
+  }
+
+  @Override
+  public Future<CustomFieldIndexCollection> retrieveIndexes(String tenantId) {
+    return recordService.retrieveIndexes(tenantId)
+      .map(indexes -> new CustomFieldIndexCollection()
+        .withIndexes(indexes)
+        .withTotalRecords(indexes.size()));
+  }
+
+  @Override
+  public Future<CustomFieldStatistic> retrieveStatistic(String id, boolean approximate, String tenantId) {
     return findById(id, tenantId)
-      .compose(field -> recordService.retrieveStatistic(field, tenantId));
+      .compose(field -> recordService.retrieveStatistic(field, approximate, tenantId));
   }
 
   @Override
-  public Future<CustomFieldOptionStatistic> retrieveOptionStatistic(String id, String optId, String tenantId) {
+  public Future<CustomFieldStatisticCollection> retrieveStatistics(String entityType, boolean approximate,
+                                                                   String tenantId) {
+    return findByEntityType(entityType, tenantId)
+      .compose(fields -> recordService.retrieveStatistics(fields, approximate, tenantId))
+      .map(stats -> new CustomFieldStatisticCollection()
+        .withStats(stats)
+        .withTotalRecords(stats.size()));
+  }
+
+  @Override
+  public Future<CustomFieldOptionStatistic> retrieveOptionStatistic(String id, String optId, boolean approximate,
+                                                                    String tenantId) {
     return findById(id, tenantId)
       .compose(field -> {
           Validation validation = Validation.instance()
@@ -215,11 +396,21 @@ public class CustomFieldsServiceImpl implements CustomFieldsService {
             .addTest(field, hasOptionWithId(optId));
 
           return validation.validate()
-            .compose(aVoid -> recordService.retrieveOptionStatistic(field, optId, tenantId));
+            .compose(aVoid -> recordService.retrieveOptionStatistic(field, optId, approximate, tenantId));
         }
       );
   }
 
+  @Override
+  public Future<CustomFieldOptionStatisticCollection> retrieveOptionStatistics(String id, boolean approximate,
+                                                                               String tenantId) {
+    return findById(id, tenantId)
+      .compose(field -> Validation.instance()
+        .addTest(field, isSelectableOrCheckbox())
+        .validate()
+        .compose(aVoid -> recordService.retrieveOptionStatistics(field, approximate, tenantId)));
+  }
+
   private void setIdIfEmpty(List<CustomField> customFields) {
     customFields.stream()
       .filter(field -> StringUtils.isBlank(field.getId()))
@@ -256,33 +447,30 @@ public class CustomFieldsServiceImpl implements CustomFieldsService {
   }
 
   private Future<CustomField> save(CustomField customField, OkapiParams params,
-                                    BiFunction<String, String, Future<Integer>> maxRefIdFunction,
+                                    BiFunction<String, String, Future<Integer>> refIdCounterFunction,
                                     BiFunction<CustomField, String, Future<CustomField>> dbSaveOperation) {
     final String unAccentName = unAccentName(customField.getName());
+    prepareNewField(customField);
+    return refIdCounterFunction.apply(unAccentName, params.getTenant())
+            .compose(refIdCounter -> {
+              customField.setRefId(getCustomFieldRefId(unAccentName, refIdCounter));
+              return dbSaveOperation.apply(customField, params.getTenant());
+            });
+  }
+
+  private void prepareNewField(CustomField customField) {
     setDefaultFormat(customField);
     if (isSelectableCustomFieldType(customField)) {
       sortOptions(customField);
       generateOptionIds(customField);
     }
-    return populateCreator(customField, params)
-            .compose(o -> maxRefIdFunction.apply(unAccentName, params.getTenant()))
-            .compose(maxRefId -> {
-              customField.setRefId(getCustomFieldRefId(unAccentName, maxRefId));
-              return dbSaveOperation.apply(customField, params.getTenant());
-            });
   }
 
   private Future<Void> update(CustomField customField, CustomField oldCustomField, OkapiParams params,
                                BiFunction<CustomField, String, Future<Boolean>> dbUpdateOperation) {
-    customField.setRefId(oldCustomField.getRefId());
-    setDefaultFormat(customField);
+    RecordUpdate recordUpdate = prepareUpdate(customField, oldCustomField);
 
-    RecordUpdate recordUpdate = createRecordUpdate(customField, oldCustomField);
-
-    Future<Void> validated = Validation.instance()
-            .addTest(customField.getType(), typeNotChanged(oldCustomField.getType()))
-            .addTest(customField, formatNotChanged(oldCustomField))
-            .validate();
+    Future<Void> validated = addUpdateTests(Validation.instance(), customField, oldCustomField).validate();
 
     return validated
             .compose(o -> populateUpdater(customField, params))
@@ -297,6 +485,18 @@ public class CustomFieldsServiceImpl implements CustomFieldsService {
             });
   }
 
+  private RecordUpdate prepareUpdate(CustomField customField, CustomField oldCustomField) {
+    customField.setRefId(oldCustomField.getRefId());
+    setDefaultFormat(customField);
+    return createRecordUpdate(customField, oldCustomField);
+  }
+
+  private Validation addUpdateTests(Validation validation, CustomField customField, CustomField oldCustomField) {
+    return validation
+      .addTest(customField.getType(), typeNotChanged(oldCustomField.getType()))
+      .addTest(customField, formatNotChanged(oldCustomField));
+  }
+
   private void setDefaultFormat(CustomField customField) {
     if (isTextBoxCustomFieldType(customField) && customField.getTextField() == null) {
       customField.setTextField(new TextField().withFieldFormat(TextField.FieldFormat.TEXT));
@@ -342,6 +542,14 @@ public class CustomFieldsServiceImpl implements CustomFieldsService {
     };
   }
 
+  private Consumer<CustomField> isSelectableOrCheckbox() {
+    return field -> {
+      if (!isSelectableCustomFieldType(field) && !isCheckboxCustomFieldType(field)) {
+        throw new InvalidFieldValueException(TYPE_ATTRIBUTE, field.getType(), NOT_SELECTABLE_OR_CHECKBOX_TYPE_MESSAGE);
+      }
+    };
+  }
+
   private Consumer<CustomField> hasOptionWithId(String optId) {
     return field -> {
       if (!extractOptionIds(field).contains(optId)) {
@@ -377,30 +585,6 @@ public class CustomFieldsServiceImpl implements CustomFieldsService {
     return resultFuture.map(o -> null);
   }
 
-  private Future<Void> updateCustomFieldsOrder(String tenantId) {
-    final Future<Void> result = succeededFuture();
-    return result
-      .compose(v -> repository.findByQuery(null, 0, Integer.MAX_VALUE, tenantId)
-        .map(this::updateCustomFieldsOrder)
-        .compose(customFields -> updateCustomFields(customFields, tenantId)));
-  }
-
-  private Future<Void> updateCustomFields(List<CustomField> customFields, String tenantId) {
-    return Future.all(customFields
-      .stream()
-      .map(customField -> repository.update(customField, tenantId))
-      .collect(Collectors.toList())
-    ).map(f -> null);
-  }
-
-  private List<CustomField> updateCustomFieldsOrder(CustomFieldCollection customFieldsCollection) {
-    final List<CustomField> customFields = sortByOrder(customFieldsCollection).getCustomFields();
-    for (int i = 0; i < customFields.size(); i++) {
-      customFields.get(i).setOrder(i + 1);
-    }
-    return customFields;
-  }
-
   private Future<Void> failIfNotFound(boolean found, String entityId) {
     if (found) {
       return succeededFuture();
@@ -409,24 +593,40 @@ public class CustomFieldsServiceImpl implements CustomFieldsService {
     return failedFuture(ServiceExceptions.notFound(CustomField.class, entityId));
   }
 
+  private Future<Void> failIfAnyNotFound(Set<String> entityIds, List<String> foundIds) {
+    return entityIds.stream()
+      .filter(id -> !foundIds.contains(id))
+      .findFirst()
+      .map(id -> failIfNotFound(false, id))
+      .orElseGet(Future::succeededFuture);
+  }
+
   private Future<Void> populateCreator(CustomField entity, OkapiParams params) {
     return userService.getUserInfo(params.getHeaders()).map(user -> {
-      if (entity.getMetadata() != null) {
-        entity.getMetadata().setCreatedByUsername(user.getUsername());
-      }
+      setCreator(entity, user);
       return null;
     });
   }
 
   private Future<Void> populateUpdater(CustomField entity, OkapiParams params) {
     return userService.getUserInfo(params.getHeaders()).map(user -> {
-      if (entity.getMetadata() != null) {
-        entity.getMetadata().setUpdatedByUsername(user.getUsername());
-      }
+      setUpdater(entity, user);
       return null;
     });
   }
 
+  private void setCreator(CustomField entity, User user) {
+    if (entity.getMetadata() != null) {
+      entity.getMetadata().setCreatedByUsername(user.getUsername());
+    }
+  }
+
+  private void setUpdater(CustomField entity, User user) {
+    if (entity.getMetadata() != null) {
+      entity.getMetadata().setUpdatedByUsername(user.getUsername());
+    }
+  }
+
   private String unAccentName(String customFieldName) {
     final String capitalizedString = WordUtils.capitalizeFully(customFieldName);
     final String splitString = Normalizer.normalize(capitalizedString, Normalizer.Form.NFD)
@@ -440,8 +640,8 @@ public class CustomFieldsServiceImpl implements CustomFieldsService {
       : result;
   }
 
-  private String getCustomFieldRefId(String id, Integer maxRefId) {
-    return id + (maxRefId < 1 ? "" : "_" + (maxRefId + 1));
+  private String getCustomFieldRefId(String id, Integer refIdCounter) {
+    return id + (refIdCounter <= 1 ? "" : "_" + refIdCounter);
   }
 
   /**
@@ -474,9 +674,8 @@ public class CustomFieldsServiceImpl implements CustomFieldsService {
     }
   }
 
-  private CustomFieldCollection sortByOrder(CustomFieldCollection collection) {
-    collection.getCustomFields().sort(Comparator.comparingInt(CustomField::getOrder));
-    return collection;
+  private String cqlEncode(String value) {
+    return '"' + value.replaceAll("([\\\\\"*?^])", "\\\\$1") + '"';
   }
 
   private void generateOptionIds(CustomField field) {
@@ -494,6 +693,22 @@ public class CustomFieldsServiceImpl implements CustomFieldsService {
     }
   }
 
+  /**
+   * Runs the function in a transaction of the tenant, counting its round trips for the current request.
+   */
+  private <T> Future<T> withTrans(String tenantId, Function<Conn, Future<T>> function) {
+    return CountingPostgresClient.getInstance(vertx, tenantId).withTrans(function);
+  }
+
+  /**
+   * Drops cached definitions of the tenant and keeps reads of the tenant on the primary until the read replica
+   * catches up with the write.
+   */
+  private void invalidate(String tenantId) {
+    readReplica.markWritten(tenantId);
+    cache.invalidate(tenantId);
+  }
+
   private static class SortVisitor extends CQLDefaultNodeVisitor {
 
     private CQLSortNode cqlSortNode;
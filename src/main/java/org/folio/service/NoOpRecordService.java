@@ -2,11 +2,14 @@ package org.folio.service;
 
 import static io.vertx.core.Future.succeededFuture;
 
+import java.util.List;
+
 import io.vertx.core.Future;
 
 import org.folio.model.RecordUpdate;
 import org.folio.rest.jaxrs.model.CustomField;
 import org.folio.rest.jaxrs.model.CustomFieldOptionStatistic;
+import org.folio.rest.jaxrs.model.CustomFieldOptionStatisticCollection;
 import org.folio.rest.jaxrs.model.CustomFieldStatistic;
 import org.folio.rest.persist.Conn;
 
@@ -22,6 +25,19 @@ public final class NoOpRecordService implements RecordService {
     );
   }
 
+  @Override
+  public Future<List<CustomFieldStatistic>> retrieveStatistics(List<CustomField> fields, boolean approximate,
+                                                               String tenantId) {
+    return succeededFuture(
+      fields.stream()
+        .map(field -> new CustomFieldStatistic()
+          .withFieldId(field.getId())
+          .withEntityType(field.getEntityType())
+          .withCount(0))
+        .toList()
+    );
+  }
+
   @Override
   public Future<CustomFieldOptionStatistic> retrieveOptionStatistic(CustomField field, String optId, String tenantId) {
     return succeededFuture(
@@ -33,11 +49,35 @@ public final class NoOpRecordService implements RecordService {
     );
   }
 
+  @Override
+  public Future<CustomFieldOptionStatisticCollection> retrieveOptionStatistics(CustomField field,
+                                                                               boolean approximate,
+                                                                               String tenantId) {
+    List<CustomFieldOptionStatistic> stats = CustomFieldUtils.extractStatisticOptionIds(field).stream()
+      .map(optId -> new CustomFieldOptionStatistic()
+        .withOptionId(optId)
+        .withCustomFieldId(field.getId())
+        .withEntityType(field.getEntityType())
+        .withCount(0))
+      .toList();
+    return succeededFuture(
+      new CustomFieldOptionStatisticCollection()
+        .withStats(stats)
+        .withAbsentCount(0)
+        .withTotalRecords(stats.size())
+    );
+  }
+
   @Override
   public Future<Void> deleteAllValues(CustomField field, String tenantId) {
     return succeededFuture();
   }
 
+  @Override
+  public Future<Long> deleteAllValuesInChunks(CustomField field, int chunkSize, String tenantId) {
+    return succeededFuture(0L);
+  }
+
   @Override
   public Future<Void> deleteAllValues(Conn conn, CustomField field, String tenantId) {
     return succeededFuture();
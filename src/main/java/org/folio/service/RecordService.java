@@ -1,10 +1,15 @@
 package org.folio.service;
 
+import java.util.Collection;
+import java.util.List;
+
 import io.vertx.core.Future;
 
 import org.folio.model.RecordUpdate;
 import org.folio.rest.jaxrs.model.CustomField;
+import org.folio.rest.jaxrs.model.CustomFieldIndex;
 import org.folio.rest.jaxrs.model.CustomFieldOptionStatistic;
+import org.folio.rest.jaxrs.model.CustomFieldOptionStatisticCollection;
 import org.folio.rest.jaxrs.model.CustomFieldStatistic;
 import org.folio.rest.persist.Conn;
 
@@ -12,11 +17,136 @@ public interface RecordService {
 
   Future<CustomFieldStatistic> retrieveStatistic(CustomField field, String tenantId);
 
+  /**
+   * Retrieves usage statistic of the custom field. If approximate statistic is requested, the count may be
+   * estimated, estimated statistics are marked as not exact and carry a margin of error.
+   * Implementations that cannot estimate counts do not need to override it, the exact statistic is returned.
+   */
+  default Future<CustomFieldStatistic> retrieveStatistic(CustomField field, boolean approximate, String tenantId) {
+    return retrieveStatistic(field, tenantId);
+  }
+
+  default Future<List<CustomFieldStatistic>> retrieveStatistics(List<CustomField> fields, String tenantId) {
+    return retrieveStatistics(fields, false, tenantId);
+  }
+
+  /**
+   * Retrieves usage statistic of all given custom fields, implementations should use a single query per entity
+   * table. Returned statistics follow the order of the given custom fields.
+   */
+  default Future<List<CustomFieldStatistic>> retrieveStatistics(List<CustomField> fields, boolean approximate,
+                                                                String tenantId) {
+    List<Future<CustomFieldStatistic>> futures = fields.stream()
+      .map(field -> retrieveStatistic(field, approximate, tenantId))
+      .toList();
+    return Future.all(futures).map(v -> futures.stream().map(Future::result).toList());
+  }
+
   Future<CustomFieldOptionStatistic> retrieveOptionStatistic(CustomField field, String optId, String tenantId);
 
+  /**
+   * Retrieves usage statistic of the option, see {@link #retrieveStatistic(CustomField, boolean, String)}.
+   */
+  default Future<CustomFieldOptionStatistic> retrieveOptionStatistic(CustomField field, String optId,
+                                                                     boolean approximate, String tenantId) {
+    return retrieveOptionStatistic(field, optId, tenantId);
+  }
+
+  default Future<CustomFieldOptionStatisticCollection> retrieveOptionStatistics(CustomField field,
+                                                                                String tenantId) {
+    return retrieveOptionStatistics(field, false, tenantId);
+  }
+
+  /**
+   * Retrieves usage statistic of all options of the given selectable or checkbox custom field, implementations
+   * should use a single query per entity table, which also counts entities without a value. The default
+   * implementation retrieves statistics of every option and reports no entities without a value.
+   */
+  default Future<CustomFieldOptionStatisticCollection> retrieveOptionStatistics(CustomField field,
+                                                                                boolean approximate,
+                                                                                String tenantId) {
+    List<Future<CustomFieldOptionStatistic>> futures = CustomFieldUtils.extractStatisticOptionIds(field).stream()
+      .map(optId -> retrieveOptionStatistic(field, optId, approximate, tenantId))
+      .toList();
+    return Future.all(futures).map(v -> {
+      List<CustomFieldOptionStatistic> stats = futures.stream().map(Future::result).toList();
+      return new CustomFieldOptionStatisticCollection()
+        .withStats(stats)
+        .withAbsentCount(0)
+        .withTotalRecords(stats.size());
+    });
+  }
+
+  /**
+   * Deletes values of the custom field outside of the caller's transaction, in chunks if
+   * {@link RecordServiceOptions#getDeleteChunkSize()} is set.
+   */
   Future<Void> deleteAllValues(CustomField field, String tenantId);
 
+  /**
+   * Deletes values of all given custom fields outside of the caller's transaction, in chunks of every field if
+   * {@link RecordServiceOptions#getDeleteChunkSize()} is set, otherwise implementations should update each entity
+   * table once for all the fields.
+   */
+  default Future<Void> deleteAllValues(Collection<CustomField> fields, String tenantId) {
+    Future<Void> future = Future.succeededFuture();
+    for (var field : fields) {
+      future = future.compose(x -> deleteAllValues(field, tenantId));
+    }
+    return future;
+  }
+
+  /**
+   * Deletes values of the custom field walking entity tables by id in chunks of the given size. Each chunk is
+   * updated in its own transaction, so row locks are held only for the chunk and concurrent edits are not blocked
+   * for the whole deletion. Returns the number of entities the value was deleted from.
+   * The default implementation deletes all values at once and returns {@code null}, as the number is unknown.
+   */
+  default Future<Long> deleteAllValuesInChunks(CustomField field, int chunkSize, String tenantId) {
+    return deleteAllValues(field, tenantId).map(v -> null);
+  }
+
   Future<Void> deleteAllValues(Conn conn, CustomField field, String tenantId);
 
+  /**
+   * Deletes values of all given custom fields, implementations should update each entity table once
+   * for all the fields.
+   */
+  default Future<Void> deleteAllValues(Conn conn, Collection<CustomField> fields, String tenantId) {
+    Future<Void> future = Future.succeededFuture();
+    for (var field : fields) {
+      future = future.compose(x -> deleteAllValues(conn, field, tenantId));
+    }
+    return future;
+  }
+
   Future<Void> deleteMissedOptionValues(RecordUpdate recordUpdate, String tenantId);
+
+  /**
+   * Installs triggers maintaining usage counters on entity tables of the tenant and recounts usages of existing
+   * entities, if the service counts usages. Writes to entity tables are blocked while usages are recounted.
+   * Should be called on tenant initialization, calling it again rebuilds the counters.
+   * Does nothing by default.
+   */
+  default Future<Void> installUsageCounters(String tenantId) {
+    return Future.succeededFuture();
+  }
+
+  /**
+   * Returns GIN indexes on custom field values of every entity table, with the planner's cost of counting usages
+   * of a custom field and the statement creating the recommended index for tables that have none.
+   * Returns no indexes by default.
+   */
+  default Future<List<CustomFieldIndex>> retrieveIndexes(String tenantId) {
+    return Future.succeededFuture(List.of());
+  }
+
+  /**
+   * Creates missing GIN indexes on custom field values of entity tables of the tenant with
+   * {@code CREATE INDEX CONCURRENTLY}, if the service is configured to. Writes to entity tables are not blocked
+   * while an index is built. Should be called on tenant initialization. Does nothing by default.
+   */
+  default Future<Void> createIndexes(String tenantId) {
+    return Future.succeededFuture();
+  }
 }
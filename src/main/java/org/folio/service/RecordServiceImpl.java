@@ -1,34 +1,103 @@
 package org.folio.service;
 
 import static java.util.Collections.emptyList;
+import static org.folio.metrics.CountingPostgresClient.counted;
+import static org.folio.metrics.CustomFieldsMetrics.RECORDS_TIMER;
 
+import io.micrometer.core.instrument.Tags;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
-import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.pgclient.PgException;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
 import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import lombok.extern.log4j.Log4j2;
+import org.folio.metrics.CountingPostgresClient;
+import org.folio.metrics.CustomFieldsMetrics;
 import org.folio.model.RecordUpdate;
+import org.folio.repository.ReadReplicaClient;
 import org.folio.rest.jaxrs.model.CustomField;
+import org.folio.rest.jaxrs.model.CustomFieldIndex;
 import org.folio.rest.jaxrs.model.CustomFieldOptionStatistic;
+import org.folio.rest.jaxrs.model.CustomFieldOptionStatisticCollection;
 import org.folio.rest.jaxrs.model.CustomFieldStatistic;
 import org.folio.rest.jaxrs.model.SelectField;
 import org.folio.rest.persist.Conn;
-import org.folio.rest.persist.PostgresClient;
 
+@Log4j2
 public class RecordServiceImpl implements RecordService {
 
+  /** Option id of usage counters of custom fields. */
+  private static final String FIELD_USAGE = "";
+  /** Ref id of usage counters of all entities of a table. */
+  private static final String ENTITIES_USAGE = "";
+  /** SQLSTATE of statements cancelled by statement_timeout. */
+  private static final String QUERY_CANCELED = "57014";
+
+  /**
+   * Selects name and operator class of a valid GIN index on jsonb->'customFields' of the table ($1).
+   */
+  private static final String SELECT_CUSTOM_FIELDS_INDEX =
+    "SELECT i.relname AS index_name, opc.opcname AS operator_class "
+      + "FROM pg_index x "
+      + "JOIN pg_class i ON i.oid = x.indexrelid "
+      + "JOIN pg_am am ON am.oid = i.relam "
+      + "JOIN pg_opclass opc ON opc.oid = x.indclass[0] "
+      + "WHERE x.indrelid = to_regclass($1) AND x.indisvalid AND x.indpred IS NULL AND x.indnatts = 1 "
+      + "  AND am.amname = 'gin' AND opc.opcname IN ('jsonb_ops', 'jsonb_path_ops') "
+      + "  AND regexp_replace(pg_get_indexdef(x.indexrelid, 1, true), '[\\s()]|::text', '', 'g')"
+      + "      = 'jsonb->''customFields''' "
+      + "ORDER BY opc.opcname = 'jsonb_ops' DESC, i.relname "
+      + "LIMIT 1";
+
+  /**
+   * Removes deleted options ($2) from values of a select field ($1) in entities matched by the jsonpath ($3).
+   * A multi-select value keeps its remaining options, any other value is removed.
+   */
+  static final String DELETE_OPTION_VALUES =
+    "UPDATE %s "
+      + "SET jsonb = jsonb_strip_nulls("
+      + "  jsonb_set("
+      + "    jsonb,"
+      + "    ARRAY['customFields', $1::text],"
+      + "    CASE"
+      + "      WHEN jsonb_typeof(jsonb->'customFields'->$1::text) = 'array' AND"
+      + "           jsonb_array_length((jsonb->'customFields'->$1::text) - $2::text[]) > 0"
+      + "      THEN (jsonb->'customFields'->$1::text) - $2::text[]"
+      + "      ELSE 'null'::jsonb"
+      + "    END"
+      + "  )"
+      + ") "
+      + "WHERE jsonb->'customFields' @? $3::jsonpath";
+
   private final Vertx vertx;
   private final Map<String, List<String>> entityTableMap;
+  private final RecordServiceOptions options;
+  private final CustomFieldsMetrics metrics;
 
-  private RecordServiceImpl(Vertx vertx, Map<String, List<String>> entityTableMap) {
+  private RecordServiceImpl(Vertx vertx, Map<String, List<String>> entityTableMap, RecordServiceOptions options) {
     this.vertx = vertx;
     this.entityTableMap = Objects.requireNonNull(entityTableMap);
+    this.options = Objects.requireNonNull(options);
+    this.metrics = new CustomFieldsMetrics(CustomFieldsMetrics.defaultRegistry());
   }
 
   /**
@@ -43,7 +112,22 @@ public class RecordServiceImpl implements RecordService {
    */
   public static RecordService createForMultipleTables(
     Vertx vertx, Map<String, List<String>> entityTableMap) {
-    return new RecordServiceImpl(vertx, entityTableMap);
+    return createForMultipleTables(vertx, entityTableMap, RecordServiceOptions.defaults());
+  }
+
+  /**
+   * Factory method for creating a new instance of RecordService that works with multiple tables
+   * and the given options.
+   *
+   * @param vertx          the Vertx instance.
+   * @param entityTableMap a map where the key is the entity type and the value is a list of table
+   *                       names associated with that entity type.
+   * @param options        options of the service.
+   * @return a new instance of RecordServiceImpl configured to work with the provided tables.
+   */
+  public static RecordService createForMultipleTables(
+    Vertx vertx, Map<String, List<String>> entityTableMap, RecordServiceOptions options) {
+    return new RecordServiceImpl(vertx, entityTableMap, options);
   }
 
   /**
@@ -58,84 +142,302 @@ public class RecordServiceImpl implements RecordService {
    */
   public static RecordService createForSingleTable(
     Vertx vertx, Map<String, String> entityTableMap) {
+    return createForSingleTable(vertx, entityTableMap, RecordServiceOptions.defaults());
+  }
+
+  /**
+   * Factory method for creating a new instance of RecordService that works with single tables
+   * and the given options.
+   *
+   * @param vertx          the Vertx instance.
+   * @param entityTableMap a map where the key is the entity type and the value is the table name
+   *                       associated with that entity type.
+   * @param options        options of the service.
+   * @return a new instance of RecordServiceImpl configured to work with the provided table.
+   */
+  public static RecordService createForSingleTable(
+    Vertx vertx, Map<String, String> entityTableMap, RecordServiceOptions options) {
     return new RecordServiceImpl(
       vertx,
       entityTableMap.entrySet().stream()
-        .collect(Collectors.toMap(Map.Entry::getKey, e -> List.of(e.getValue()))));
+        .collect(Collectors.toMap(Map.Entry::getKey, e -> List.of(e.getValue()))),
+      options);
   }
 
   @Override
   public Future<CustomFieldStatistic> retrieveStatistic(CustomField field, String tenantId) {
-    List<String> tableNames = getTableNames(field.getEntityType());
-    List<Future<CustomFieldStatistic>> futures =
-      tableNames.stream()
+    return retrieveStatistic(field, false, tenantId);
+  }
+
+  @Override
+  public Future<CustomFieldStatistic> retrieveStatistic(CustomField field, boolean approximate, String tenantId) {
+    if (options.isUsageCounters()) {
+      return readUsageCounters(field.getEntityType(), List.of(field.getRefId()), tenantId)
+        .map(counters -> createCustomFieldStatistic(field, getCounter(counters, field.getRefId(), FIELD_USAGE)));
+    }
+    List<Future<TableCounts>> futures =
+      getTableNames(field.getEntityType()).stream()
         .map(
-          tableName -> {
-            Promise<RowSet<Row>> replyHandler = Promise.promise();
-            PostgresClient.getInstance(vertx, tenantId)
-              .select(
-                "SELECT COUNT(*) FROM " + tableName + " WHERE jsonb->'customFields' ? $1",
-                Tuple.of(field.getRefId()),
-                replyHandler::handle);
-            return replyHandler
-              .future()
-              .map(
-                rs ->
-                  createCustomFieldStatistic(
-                    field, rs.iterator().next().getInteger(0)));
-          })
+          tableName -> count("countFieldUsages", tableName,
+            from -> "SELECT $1::text, COUNT(*) FROM " + from + " WHERE jsonb->'customFields' ? $1",
+            Tuple.of(field.getRefId()), approximate, tenantId))
         .toList();
-    return Future.all(futures)
+    return sumCounts(futures)
+      .map(counts -> createCustomFieldStatistic(field, counts.getOrDefault(field.getRefId(), Count.ZERO)));
+  }
+
+  @Override
+  public Future<List<CustomFieldStatistic>> retrieveStatistics(List<CustomField> fields, boolean approximate,
+                                                               String tenantId) {
+    if (options.isUsageCounters()) {
+      return retrieveStatisticsFromUsageCounters(fields, tenantId);
+    }
+    Map<String, List<String>> refIdsByEntityType =
+      fields.stream()
+        .filter(field -> field.getEntityType() != null)
+        .collect(Collectors.groupingBy(CustomField::getEntityType,
+          Collectors.mapping(CustomField::getRefId, Collectors.toList())));
+    List<Future<TableCounts>> futures =
+      refIdsByEntityType.entrySet().stream()
+        .flatMap(
+          entry ->
+            getTableNames(entry.getKey()).stream()
+              .map(tableName -> countUsages(tableName, entry.getValue(), approximate, tenantId)))
+        .toList();
+    return sumCounts(futures)
       .map(
-        cf ->
-          cf.list().stream()
-            .map(o -> (CustomFieldStatistic) o)
-            .reduce((s1, s2) -> s1.withCount(s1.getCount() + s2.getCount()))
-            .orElse(createCustomFieldStatistic(field, 0)));
+        counts ->
+          fields.stream()
+            .map(field -> createCustomFieldStatistic(field, counts.getOrDefault(field.getRefId(), Count.ZERO)))
+            .toList());
+  }
+
+  private Future<TableCounts> countUsages(String tableName, List<String> refIds, boolean approximate,
+                                                 String tenantId) {
+    return count("countFieldsUsages", tableName,
+      from -> "SELECT key, COUNT(*) FROM "
+        + from
+        + ", jsonb_object_keys(jsonb->'customFields') AS key "
+        + "WHERE jsonb_typeof(jsonb->'customFields') = 'object' AND key = ANY($1) "
+        + "GROUP BY key",
+      Tuple.tuple().addArrayOfString(refIds.toArray(new String[0])), approximate, tenantId);
   }
 
   @Override
-  public Future<CustomFieldOptionStatistic> retrieveOptionStatistic(
-    CustomField field, String optId, String tenantId) {
-    List<String> tableNames = getTableNames(field.getEntityType());
+  public Future<CustomFieldOptionStatistic> retrieveOptionStatistic(CustomField field, String optId, String tenantId) {
+    return retrieveOptionStatistic(field, optId, false, tenantId);
+  }
 
+  @Override
+  public Future<CustomFieldOptionStatistic> retrieveOptionStatistic(CustomField field, String optId,
+                                                                    boolean approximate, String tenantId) {
+    if (options.isUsageCounters()) {
+      return readUsageCounters(field.getEntityType(), List.of(field.getRefId()), tenantId)
+        .map(counters -> createCustomFieldOptionStatistic(field, optId, getCounter(counters, field.getRefId(), optId)));
+    }
     String objectValue = isMultiSelect(field) ? "jsonb_build_array($2)" : "$2";
-    List<Future<CustomFieldOptionStatistic>> futures =
-      tableNames.stream()
+    List<Future<TableCounts>> futures =
+      getTableNames(field.getEntityType()).stream()
         .map(
-          tableName -> {
-            Promise<RowSet<Row>> replyHandler = Promise.promise();
-            PostgresClient.getInstance(vertx, tenantId)
-              .select(
-                "SELECT COUNT(*) FROM "
-                  + tableName
-                  + " WHERE jsonb->'customFields' @> jsonb_build_object($1, " + objectValue + ")",
-                Tuple.of(field.getRefId(), optId),
-                replyHandler::handle);
-            return replyHandler
-              .future()
-              .map(
-                rs ->
-                  createCustomFieldOptionStatistic(
-                    field, optId, rs.iterator().next().getInteger(0)));
-          })
+          tableName -> count("countOptionUsages", tableName,
+            from -> "SELECT $2::text, COUNT(*) FROM "
+              + from
+              + " WHERE jsonb->'customFields' @> jsonb_build_object($1, " + objectValue + ")",
+            Tuple.of(field.getRefId(), optId), approximate, tenantId))
         .toList();
-    return Future.all(futures)
+    return sumCounts(futures)
+      .map(counts -> createCustomFieldOptionStatistic(field, optId, counts.getOrDefault(optId, Count.ZERO)));
+  }
+
+  @Override
+  public Future<CustomFieldOptionStatisticCollection> retrieveOptionStatistics(CustomField field,
+                                                                               boolean approximate,
+                                                                               String tenantId) {
+    if (options.isUsageCounters()) {
+      return retrieveOptionStatisticsFromUsageCounters(field, tenantId);
+    }
+    List<Future<TableCounts>> futures =
+      getTableNames(field.getEntityType()).stream()
+        .map(tableName -> countOptionUsages(tableName, field.getRefId(), approximate, tenantId))
+        .toList();
+    return sumCounts(futures)
       .map(
-        cf ->
-          cf.list().stream()
-            .map(o -> (CustomFieldOptionStatistic) o)
-            .reduce((s1, s2) -> s1.withCount(s1.getCount() + s2.getCount()))
-            .orElse(createCustomFieldOptionStatistic(field, optId, 0)));
+        counts -> {
+          // values are counted by option id, records without a value are counted by null key
+          List<CustomFieldOptionStatistic> stats =
+            CustomFieldUtils.extractStatisticOptionIds(field).stream()
+              .map(optId -> createCustomFieldOptionStatistic(field, optId, counts.getOrDefault(optId, Count.ZERO)))
+              .toList();
+          Count absent = counts.getOrDefault(null, Count.ZERO);
+          return new CustomFieldOptionStatisticCollection()
+            .withStats(stats)
+            .withAbsentCount(absent.value())
+            .withExact(absent.exact() ? null : Boolean.FALSE)
+            .withTotalRecords(stats.size());
+        });
+  }
+
+  private Future<TableCounts> countOptionUsages(String tableName, String refId, boolean approximate,
+                                                       String tenantId) {
+    // single values (select option ids, checkbox booleans) are wrapped into an array,
+    // so multi-select arrays and single values are expanded the same way
+    return count("countOptionsUsages", tableName,
+      from -> "SELECT value, COUNT(*) FROM "
+        + from
+        + " LEFT JOIN LATERAL jsonb_array_elements_text("
+        + "  CASE WHEN jsonb_typeof(t.jsonb->'customFields'->$1) = 'array'"
+        + "    THEN t.jsonb->'customFields'->$1"
+        + "    ELSE jsonb_build_array(t.jsonb->'customFields'->$1)"
+        + "  END) AS value ON true "
+        + "GROUP BY value",
+      Tuple.of(refId), approximate, tenantId);
+  }
+
+  /**
+   * Runs the counting query on the table, the query returns keys in the first column and counts in the second one.
+   * The query gets the table as the from item aliased {@code t}. If approximate counts are requested and the
+   * planner estimates at least {@link RecordServiceOptions#getApproximateMinRows()} rows in the table, the query
+   * reads a {@code TABLESAMPLE SYSTEM} sample of the table and counts are scaled to the whole table.
+   * A query cancelled by the statistics timeout yields timed out counts of the table.
+   */
+  private Future<TableCounts> count(String operation, String tableName, Function<String, String> query,
+                                    Tuple params, boolean approximate, String tenantId) {
+    CountingPostgresClient pgClient = CountingPostgresClient.getInstance(vertx, tenantId);
+    Future<Boolean> sampled = approximate
+      ? estimateRows(pgClient, tableName).map(rows -> rows >= options.getApproximateMinRows())
+      : Future.succeededFuture(false);
+    return sampled.compose(
+      sample -> {
+        String from = tableName + " t" + (sample ? " TABLESAMPLE SYSTEM (" + options.getSamplePercent() + ")" : "");
+        return timed(operation, tableName, tenantId,
+            () -> executeCount(pgClient, query.apply(from), params, tenantId))
+          .map(
+            rs -> {
+              Map<String, Count> counts = new HashMap<>();
+              rs.forEach(row -> {
+                int count = row.getInteger(1);
+                counts.put(row.getString(0),
+                  sample ? Count.estimate(count, options.getSamplePercent()) : Count.exact(count));
+              });
+              return new TableCounts(tableName, counts, false);
+            });
+      })
+      .recover(e -> isStatementTimeout(e)
+        ? Future.succeededFuture(new TableCounts(tableName, Map.of(), true))
+        : Future.failedFuture(e));
+  }
+
+  /**
+   * Times the statement on the entity table with the {@code custom.fields.records} timer.
+   */
+  private <T> Future<T> timed(String operation, String tableName, String tenantId, Supplier<Future<T>> statement) {
+    return metrics.time(RECORDS_TIMER, Tags.of("operation", operation, "table", tableName), tenantId, statement);
+  }
+
+  /**
+   * Runs the counting query on the read replica if it is enabled and readable for the tenant,
+   * on the primary otherwise.
+   */
+  private Future<RowSet<Row>> executeCount(CountingPostgresClient pgClient, String sql, Tuple params, String tenantId) {
+    ReadReplicaClient replica = options.getReadReplica();
+    if (replica != null && replica.isReadable(tenantId)) {
+      return replica.withReadConn(tenantId, options.getStatisticsTimeoutMillis(),
+        conn -> counted(conn.preparedQuery(sql).execute(params)));
+    }
+    return execute(pgClient, sql, params, options.getStatisticsTimeoutMillis());
+  }
+
+  /**
+   * Runs the statement in its own transaction with the given statement timeout, if the timeout is positive.
+   */
+  private static Future<RowSet<Row>> execute(CountingPostgresClient pgClient, String sql, Tuple params,
+                                             long timeoutMillis) {
+    if (timeoutMillis <= 0) {
+      return pgClient.execute(sql, params);
+    }
+    return pgClient.withTrans(conn -> setStatementTimeout(conn, timeoutMillis)
+      .compose(x -> counted(conn.execute(sql, params))));
+  }
+
+  /**
+   * Runs the function in a transaction of the tenant, counting its round trips for the current request.
+   */
+  private <T> Future<T> withTrans(String tenantId, Function<Conn, Future<T>> function) {
+    return CountingPostgresClient.getInstance(vertx, tenantId).withTrans(function);
+  }
+
+  private static Future<Void> setStatementTimeout(Conn conn, long timeoutMillis) {
+    if (timeoutMillis <= 0) {
+      return Future.succeededFuture();
+    }
+    return counted(conn.execute("SET LOCAL statement_timeout = " + timeoutMillis)).mapEmpty();
+  }
+
+  private static boolean isStatementTimeout(Throwable e) {
+    return e instanceof PgException pgException && QUERY_CANCELED.equals(pgException.getSqlState());
+  }
+
+  private static <T> Future<T> translateTimeout(Throwable e, String operation) {
+    return Future.failedFuture(isStatementTimeout(e)
+      ? new StatementTimeoutException(operation + " timed out", e)
+      : e);
+  }
+
+  /**
+   * Returns the number of rows of the table estimated by the planner, negative if the table was never analyzed.
+   */
+  private static Future<Long> estimateRows(CountingPostgresClient pgClient, String tableName) {
+    return pgClient.execute("SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass($1)", Tuple.of(tableName))
+      .map(rs -> rs.iterator().hasNext() ? rs.iterator().next().getLong(0) : -1L);
+  }
+
+  /**
+   * Sums counts of all tables. Fails with {@link StatementTimeoutException} holding counts of the other tables
+   * if counting timed out in any of them.
+   */
+  private static Future<Map<String, Count>> sumCounts(List<Future<TableCounts>> futures) {
+    return Future.all(futures)
+      .compose(
+        cf -> {
+          List<TableCounts> tables = cf.list();
+          List<String> timedOut = tables.stream().filter(TableCounts::timedOut).map(TableCounts::tableName).toList();
+          if (!timedOut.isEmpty()) {
+            Map<String, Map<String, Integer>> partialCounts = new TreeMap<>();
+            tables.stream().filter(table -> !table.timedOut()).forEach(table -> {
+              Map<String, Integer> counts = partialCounts.computeIfAbsent(table.tableName(), k -> new TreeMap<>());
+              // entities without a value of the field are counted under the empty key
+              table.counts().forEach((key, count) -> counts.merge(key == null ? "" : key, count.value(), Integer::sum));
+            });
+            return Future.failedFuture(new StatementTimeoutException(
+              "Counting usages timed out in tables: " + String.join(", ", timedOut), partialCounts));
+          }
+          Map<String, Count> counts = new HashMap<>();
+          tables.forEach(table -> table.counts().forEach((key, count) -> counts.merge(key, count, Count::plus)));
+          return Future.succeededFuture(counts);
+        });
   }
 
   @Override
   public Future<Void> deleteAllValues(CustomField field, String tenantId) {
-    List<String> tableNames = getTableNames(field.getEntityType());
+    return deleteAllValues(List.of(field), tenantId);
+  }
+
+  @Override
+  public Future<Void> deleteAllValues(Collection<CustomField> fields, String tenantId) {
+    if (options.getDeleteChunkSize() > 0) {
+      Future<Void> future = Future.succeededFuture();
+      for (var field : fields) {
+        future = future.compose(x -> deleteAllValuesInChunks(field, options.getDeleteChunkSize(), tenantId))
+          .mapEmpty();
+      }
+      return future;
+    }
     List<Future<Void>> futures =
-      tableNames.stream()
-        .map(tableName -> PostgresClient.getInstance(vertx, tenantId)
-            .withConn(conn -> deleteValue(conn, tableName, field.getRefId())))
+      refIdsByTable(fields).entrySet().stream()
+        .map(entry -> withTrans(tenantId,
+              conn -> setStatementTimeout(conn, options.getDeleteTimeoutMillis())
+                .compose(x -> deleteValues(conn, entry.getKey(), entry.getValue(), tenantId)))
+            .recover(e -> translateTimeout(e, "Deleting values from " + entry.getKey())))
         .toList();
     return Future.join(futures).mapEmpty();
   }
@@ -144,69 +446,331 @@ public class RecordServiceImpl implements RecordService {
   public Future<Void> deleteAllValues(Conn conn, CustomField field, String tenantId) {
     Future<Void> future = Future.succeededFuture();
     for (var tableName : getTableNames(field.getEntityType())) {
-      future = future.compose(x -> deleteValue(conn, tableName, field.getRefId()));
+      future = future.compose(x -> deleteValue(conn, tableName, field.getRefId(), tenantId));
+    }
+    return future;
+  }
+
+  @Override
+  public Future<Void> deleteAllValues(Conn conn, Collection<CustomField> fields, String tenantId) {
+    Future<Void> future = Future.succeededFuture();
+    for (var entry : refIdsByTable(fields).entrySet()) {
+      future = future.compose(x -> deleteValues(conn, entry.getKey(), entry.getValue(), tenantId));
     }
     return future;
   }
 
-  private static Future<Void> deleteValue(Conn conn, String tableName, String refId) {
-    return conn.execute(
+  /**
+   * Returns ref ids of all the fields stored in each table, a table may be shared by several entity types.
+   */
+  private Map<String, Set<String>> refIdsByTable(Collection<CustomField> fields) {
+    Map<String, Set<String>> refIdsByTable = new LinkedHashMap<>();
+    for (var field : fields) {
+      getTableNames(field.getEntityType()).forEach(tableName ->
+        refIdsByTable.computeIfAbsent(tableName, k -> new LinkedHashSet<>()).add(field.getRefId()));
+    }
+    return refIdsByTable;
+  }
+
+  private Future<Void> deleteValues(Conn conn, String tableName, Collection<String> refIds, String tenantId) {
+    return timed("deleteValues", tableName, tenantId, () -> counted(conn.execute(
+            "UPDATE "
+              + tableName
+              + " "
+              + "SET jsonb = jsonb_set(jsonb, '{customFields}', (jsonb->'customFields') - $1::text[]) "
+              + "WHERE jsonb->'customFields' ?| $1::text[]",
+            Tuple.tuple().addArrayOfString(refIds.toArray(new String[0])))))
+        .onSuccess(rs -> metrics.countDeletedValues(tableName, tenantId, rs.rowCount()))
+        .mapEmpty();
+  }
+
+  @Override
+  public Future<Long> deleteAllValuesInChunks(CustomField field, int chunkSize, String tenantId) {
+    CountingPostgresClient pgClient = CountingPostgresClient.getInstance(vertx, tenantId);
+    Future<Long> future = Future.succeededFuture(0L);
+    for (var tableName : getTableNames(field.getEntityType())) {
+      future = future.compose(deleted -> deleteValueInChunks(pgClient, tableName, field.getRefId(), chunkSize,
+        null, deleted, tenantId));
+    }
+    return future
+      .onSuccess(deleted -> log.info("deleteAllValuesInChunks:: Deleted values [refId: {}, entities: {}]",
+        field.getRefId(), deleted));
+  }
+
+  /**
+   * Deletes the value from the chunk of entities following the given id, then continues with the next chunk
+   * after a pause, until the whole table is walked.
+   */
+  private Future<Long> deleteValueInChunks(CountingPostgresClient pgClient, String tableName, String refId,
+                                           int chunkSize, UUID afterId, long deleted, String tenantId) {
+    return timed("deleteValueChunk", tableName, tenantId, () -> execute(pgClient,
+        "WITH chunk AS ("
+          + "  SELECT id FROM " + tableName
+          + "  WHERE $2::uuid IS NULL OR id > $2::uuid"
+          + "  ORDER BY id LIMIT $3"
+          + "), updated AS ("
+          + "  UPDATE " + tableName + " t "
+          + "  SET jsonb = jsonb_set(t.jsonb, '{customFields}', (t.jsonb->'customFields') - $1) "
+          + "  FROM chunk WHERE t.id = chunk.id AND t.jsonb->'customFields' ? $1"
+          + "  RETURNING t.id"
+          + ") "
+          + "SELECT (SELECT id FROM chunk ORDER BY id DESC LIMIT 1), (SELECT COUNT(*) FROM updated)",
+        Tuple.of(refId, afterId, (long) chunkSize), options.getDeleteTimeoutMillis()))
+      .recover(e -> translateTimeout(e, "Deleting values from " + tableName))
+      .compose(
+        rs -> {
+          Row row = rs.iterator().next();
+          UUID lastId = row.getUUID(0);
+          metrics.countDeletedValues(tableName, tenantId, row.getLong(1));
+          long total = deleted + row.getLong(1);
+          if (lastId == null) {
+            return Future.succeededFuture(total);
+          }
+          log.debug("deleteValueInChunks:: Deleted values of chunk [table: {}, refId: {}, lastId: {}, entities: {}]",
+            tableName, refId, lastId, total);
+          return vertx.timer(Math.max(1, options.getDeleteChunkPauseMillis()))
+            .compose(x -> deleteValueInChunks(pgClient, tableName, refId, chunkSize, lastId, total, tenantId));
+        });
+  }
+
+  private Future<Void> deleteValue(Conn conn, String tableName, String refId, String tenantId) {
+    return timed("deleteValue", tableName, tenantId, () -> counted(conn.execute(
             "UPDATE "
               + tableName
               + " "
               + "SET jsonb = jsonb_set(jsonb, '{customFields}', (jsonb->'customFields') - $1) "
               + "WHERE jsonb->'customFields' ? $1",
-            Tuple.of(refId))
+            Tuple.of(refId))))
+        .onSuccess(rs -> metrics.countDeletedValues(tableName, tenantId, rs.rowCount()))
         .mapEmpty();
   }
 
   @Override
   public Future<Void> deleteMissedOptionValues(RecordUpdate recordUpdate, String tenantId) {
     CustomField cf = recordUpdate.getCustomField();
-    List<String> tableNames = getTableNames(cf.getEntityType());
-    String opts = String.join(",", recordUpdate.getOptionIdsToDelete());
-
-    String objectValue =
-      isMultiSelect(recordUpdate.getCustomField())
-        ? "jsonb_build_array(value)"
-        : "value";
-
+    List<String> optionIds = recordUpdate.getOptionIdsToDelete();
+    if (optionIds == null || optionIds.isEmpty()) {
+      return Future.succeededFuture();
+    }
+    Tuple params = Tuple.tuple()
+      .addString(cf.getRefId())
+      .addArrayOfString(optionIds.toArray(new String[0]))
+      .addString(optionValuesPath(cf.getRefId(), optionIds));
     List<Future<Void>> futures =
-      tableNames.stream()
+      getTableNames(cf.getEntityType()).stream()
         .map(
-          tableName -> {
-            Promise<RowSet<Row>> replyHandler = Promise.promise();
-            PostgresClient.getInstance(vertx, tenantId)
-              .execute(
-                "UPDATE "
-                  + tableName
-                  + " "
-                  + "SET jsonb = jsonb_strip_nulls("
-                  + "  jsonb_set("
-                  + "    jsonb,"
-                  + "    string_to_array('customFields,' || $1, ','),"
-                  + "    ("
-                  + "      SELECT"
-                  + "        CASE"
-                  + "          WHEN jsonb_typeof(jsonb->'customFields'->$1) = 'array' AND"
-                  + "               jsonb_array_length((jsonb->'customFields'->$1) - string_to_array($2, ',')) > 0"
-                  + "          THEN (jsonb->'customFields'->$1) - string_to_array($2, ',')"
-                  + "          ELSE 'null'::jsonb"
-                  + "        END AS value"
-                  + "    )"
-                  + "  )"
-                  + ")"
-                  + "WHERE jsonb->'customFields' @> ANY(ARRAY("
-                  + "  SELECT jsonb_build_object($1, " + objectValue + ")"
-                  + "  FROM unnest(string_to_array($2, ',')) AS value))",
-                Tuple.of(cf.getRefId(), opts),
-                replyHandler::handle);
-            return replyHandler.future().<Void>mapEmpty();
-          })
+          tableName -> timed("deleteOptionValues", tableName, tenantId,
+              () -> execute(CountingPostgresClient.getInstance(vertx, tenantId),
+                String.format(DELETE_OPTION_VALUES, tableName), params, options.getDeleteTimeoutMillis()))
+            .recover(e -> translateTimeout(e, "Deleting option values from " + tableName))
+            .onSuccess(rs -> metrics.countDeletedValues(tableName, tenantId, rs.rowCount()))
+            .<Void>mapEmpty())
         .toList();
     return Future.join(futures).mapEmpty();
   }
 
+  /**
+   * Builds a jsonpath matching custom field values that hold any of the given options, either as a single value or as
+   * an element of a multi-select array, e.g. {@code $."refId" ? (@ == "opt_1" || @ == "opt_2")}.
+   * Equality checks combined with {@code ||} are extracted by both {@code jsonb_ops} and {@code jsonb_path_ops} GIN
+   * indexes on {@code jsonb->'customFields'}.
+   */
+  static String optionValuesPath(String refId, Collection<String> optionIds) {
+    return "$." + Json.encode(refId) + " ? ("
+      + optionIds.stream().map(optionId -> "@ == " + Json.encode(optionId)).collect(Collectors.joining(" || "))
+      + ")";
+  }
+
+  @Override
+  public Future<Void> installUsageCounters(String tenantId) {
+    if (!options.isUsageCounters()) {
+      return Future.succeededFuture();
+    }
+    List<String> tableNames = entityTableMap.values().stream().flatMap(List::stream).distinct().toList();
+    return CountingPostgresClient.getInstance(vertx, tenantId)
+      .withTrans(
+        conn -> {
+          Future<Void> future = Future.succeededFuture();
+          for (var tableName : tableNames) {
+            future = future
+              .compose(x -> counted(
+                conn.execute("SELECT install_custom_field_usage_triggers($1)", Tuple.of(tableName))))
+              .compose(x -> counted(conn.execute("SELECT rebuild_custom_field_usage($1)", Tuple.of(tableName))))
+              .mapEmpty();
+          }
+          return future;
+        });
+  }
+
+  @Override
+  public Future<List<CustomFieldIndex>> retrieveIndexes(String tenantId) {
+    CountingPostgresClient pgClient = CountingPostgresClient.getInstance(vertx, tenantId);
+    List<Future<CustomFieldIndex>> futures =
+      getEntityTypesByTable().entrySet().stream()
+        .map(entry -> retrieveIndex(pgClient, entry.getKey(), entry.getValue()))
+        .toList();
+    return Future.all(futures).map(CompositeFuture::list);
+  }
+
+  @Override
+  public Future<Void> createIndexes(String tenantId) {
+    if (!options.isCreateIndexes()) {
+      return Future.succeededFuture();
+    }
+    CountingPostgresClient pgClient = CountingPostgresClient.getInstance(vertx, tenantId);
+    Future<Void> future = Future.succeededFuture();
+    for (var tableName : getEntityTypesByTable().keySet()) {
+      future = future
+        .compose(x -> findIndex(pgClient, tableName))
+        .compose(index -> index.isPresent() ? Future.<Void>succeededFuture() : createIndex(pgClient, tableName));
+    }
+    return future;
+  }
+
+  private Future<CustomFieldIndex> retrieveIndex(CountingPostgresClient pgClient, String tableName,
+                                                 List<String> entityTypes) {
+    CustomFieldIndex index = new CustomFieldIndex().withTableName(tableName).withEntityTypes(entityTypes);
+    return findIndex(pgClient, tableName)
+      .map(
+        row -> row
+          .map(r -> index.withIndexed(true)
+            .withIndexName(r.getString("index_name"))
+            .withOperatorClass(CustomFieldIndex.OperatorClass.fromValue(r.getString("operator_class"))))
+          .orElseGet(() -> index.withIndexed(false).withRecommendedDdl(createIndexDdl(tableName))))
+      .compose(x -> pgClient.execute(
+        "EXPLAIN (FORMAT JSON) SELECT COUNT(*) FROM " + tableName + " WHERE jsonb->'customFields' ? 'refId'"))
+      .map(plan -> index.withEstimatedCost(totalCost(plan.iterator().next().getValue(0))));
+  }
+
+  /**
+   * Finds a valid GIN index on {@code jsonb->'customFields'} of the table, preferring {@code jsonb_ops} indexes
+   * that also serve key existence queries.
+   */
+  private static Future<Optional<Row>> findIndex(CountingPostgresClient pgClient, String tableName) {
+    return pgClient.execute(SELECT_CUSTOM_FIELDS_INDEX, Tuple.of(tableName))
+      .map(rs -> rs.iterator().hasNext() ? Optional.of(rs.iterator().next()) : Optional.<Row>empty());
+  }
+
+  /**
+   * Creates the recommended index of the table. An invalid index left behind by a failed concurrent build
+   * is dropped first, as {@code IF NOT EXISTS} would keep it.
+   */
+  private static Future<Void> createIndex(CountingPostgresClient pgClient, String tableName) {
+    String indexName = qualifiedIndexName(tableName);
+    log.info("createIndex:: Creating index of custom field values [table: {}, index: {}]", tableName, indexName);
+    return pgClient.execute("SELECT 1 FROM pg_index WHERE indexrelid = to_regclass($1) AND NOT indisvalid",
+        Tuple.of(indexName))
+      .compose(rs -> rs.size() > 0
+        ? pgClient.execute("DROP INDEX CONCURRENTLY IF EXISTS " + indexName)
+        : Future.succeededFuture(rs))
+      .compose(x -> pgClient.execute(createIndexDdl(tableName)))
+      .onFailure(e -> log.warn("createIndex:: Failed to create index of custom field values [table: {}]",
+        tableName, e))
+      .mapEmpty();
+  }
+
+  static String createIndexDdl(String tableName) {
+    String indexName = qualifiedIndexName(tableName);
+    return "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + indexName.substring(indexName.lastIndexOf('.') + 1)
+      + " ON " + tableName + " USING gin ((jsonb->'customFields'))";
+  }
+
+  /**
+   * Name of the recommended index of the table, in the schema of the table if the table name is qualified.
+   */
+  private static String qualifiedIndexName(String tableName) {
+    return tableName + "_custom_fields_idx";
+  }
+
+  private static double totalCost(Object plan) {
+    JsonArray plans = plan instanceof JsonArray array ? array : new JsonArray(String.valueOf(plan));
+    return plans.getJsonObject(0).getJsonObject("Plan").getDouble("Total Cost");
+  }
+
+  /**
+   * Returns entity types of every entity table, a table can be shared by several entity types.
+   */
+  private Map<String, List<String>> getEntityTypesByTable() {
+    Map<String, List<String>> entityTypesByTable = new TreeMap<>();
+    new TreeMap<>(entityTableMap).forEach((entityType, tableNames) -> tableNames.forEach(
+      tableName -> entityTypesByTable.computeIfAbsent(tableName, k -> new ArrayList<>()).add(entityType)));
+    return entityTypesByTable;
+  }
+
+  private Future<List<CustomFieldStatistic>> retrieveStatisticsFromUsageCounters(
+    List<CustomField> fields, String tenantId) {
+    Map<String, List<String>> refIdsByEntityType =
+      fields.stream()
+        .filter(field -> field.getEntityType() != null)
+        .collect(Collectors.groupingBy(CustomField::getEntityType,
+          Collectors.mapping(CustomField::getRefId, Collectors.toList())));
+    List<Future<Map<String, Map<String, Integer>>>> futures =
+      refIdsByEntityType.entrySet().stream()
+        .map(entry -> readUsageCounters(entry.getKey(), entry.getValue(), tenantId))
+        .toList();
+    return Future.all(futures)
+      .map(
+        cf -> {
+          Map<String, Map<String, Integer>> counters = new HashMap<>();
+          cf.<Map<String, Map<String, Integer>>>list().forEach(counters::putAll);
+          return fields.stream()
+            .map(field -> createCustomFieldStatistic(field, getCounter(counters, field.getRefId(), FIELD_USAGE)))
+            .toList();
+        });
+  }
+
+  private Future<CustomFieldOptionStatisticCollection> retrieveOptionStatisticsFromUsageCounters(
+    CustomField field, String tenantId) {
+    return readUsageCounters(field.getEntityType(), List.of(field.getRefId(), ENTITIES_USAGE), tenantId)
+      .map(
+        counters -> {
+          List<CustomFieldOptionStatistic> stats =
+            CustomFieldUtils.extractStatisticOptionIds(field).stream()
+              .map(optId -> createCustomFieldOptionStatistic(field, optId,
+                getCounter(counters, field.getRefId(), optId)))
+              .toList();
+          int absentCount = getCounter(counters, ENTITIES_USAGE, FIELD_USAGE)
+            - getCounter(counters, field.getRefId(), FIELD_USAGE);
+          return new CustomFieldOptionStatisticCollection()
+            .withStats(stats)
+            .withAbsentCount(absentCount)
+            .withTotalRecords(stats.size());
+        });
+  }
+
+  /**
+   * Reads usage counters of the given ref ids summed over all tables of the entity type,
+   * as a map of ref id to a map of option id to count. Shards of the number of entities are summed
+   * into the {@link #ENTITIES_USAGE} entry.
+   */
+  private Future<Map<String, Map<String, Integer>>> readUsageCounters(
+    String entityType, List<String> refIds, String tenantId) {
+    List<String> tableNames = getTableNames(entityType);
+    if (tableNames.isEmpty()) {
+      return Future.succeededFuture(Map.of());
+    }
+    return CountingPostgresClient.getInstance(vertx, tenantId)
+      .execute(
+        "SELECT ref_id, CASE WHEN ref_id = '' THEN '' ELSE option_id END, SUM(count)::integer "
+          + "FROM custom_field_usage "
+          + "WHERE table_name = ANY($1) AND ref_id = ANY($2) "
+          + "GROUP BY 1, 2",
+        Tuple.tuple()
+          .addArrayOfString(tableNames.toArray(new String[0]))
+          .addArrayOfString(refIds.toArray(new String[0])))
+      .map(
+        rs -> {
+          Map<String, Map<String, Integer>> counters = new HashMap<>();
+          rs.forEach(row -> counters.computeIfAbsent(row.getString(0), k -> new HashMap<>())
+            .put(row.getString(1), row.getInteger(2)));
+          return counters;
+        });
+  }
+
+  private static int getCounter(Map<String, Map<String, Integer>> counters, String refId, String optionId) {
+    return counters.getOrDefault(refId, Map.of()).getOrDefault(optionId, 0);
+  }
+
   private CustomFieldStatistic createCustomFieldStatistic(CustomField field, int count) {
     return new CustomFieldStatistic()
       .withFieldId(field.getId())
@@ -214,6 +778,16 @@ public class RecordServiceImpl implements RecordService {
       .withCount(count);
   }
 
+  private CustomFieldStatistic createCustomFieldStatistic(CustomField field, Count count) {
+    CustomFieldStatistic statistic = createCustomFieldStatistic(field, count.value());
+    return count.exact() ? statistic : statistic.withExact(false).withErrorMargin(count.errorMargin());
+  }
+
+  private CustomFieldOptionStatistic createCustomFieldOptionStatistic(CustomField field, String optId, Count count) {
+    CustomFieldOptionStatistic statistic = createCustomFieldOptionStatistic(field, optId, count.value());
+    return count.exact() ? statistic : statistic.withExact(false).withErrorMargin(count.errorMargin());
+  }
+
   private CustomFieldOptionStatistic createCustomFieldOptionStatistic(
     CustomField field, String optId, int count) {
     return new CustomFieldOptionStatistic()
@@ -233,4 +807,34 @@ public class RecordServiceImpl implements RecordService {
       .map(SelectField::getMultiSelect)
       .orElse(false);
   }
+
+  /**
+   * Counts of usages in a table, empty if counting timed out.
+   */
+  private record TableCounts(String tableName, Map<String, Count> counts, boolean timedOut) {
+  }
+
+  /**
+   * Count of usages, summed over tables. Counts of sampled tables are estimated, their margin of error is
+   * at 95% confidence assuming sampled rows are independent, which underestimates the error of values
+   * clustered in the same blocks.
+   */
+  private record Count(int value, int errorMargin, boolean exact) {
+
+    private static final Count ZERO = exact(0);
+
+    private static Count exact(int value) {
+      return new Count(value, 0, true);
+    }
+
+    private static Count estimate(int sampleCount, double samplePercent) {
+      double fraction = samplePercent / 100;
+      double errorMargin = 1.96 * Math.sqrt(Math.max(sampleCount, 1) * (1 - fraction)) / fraction;
+      return new Count((int) Math.round(sampleCount / fraction), (int) Math.round(errorMargin), false);
+    }
+
+    private Count plus(Count other) {
+      return new Count(value + other.value, errorMargin + other.errorMargin, exact && other.exact);
+    }
+  }
 }
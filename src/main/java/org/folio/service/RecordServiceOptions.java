@@ -0,0 +1,82 @@
+package org.folio.service;
+
+import lombok.Builder;
+import lombok.Value;
+
+import org.folio.repository.ReadReplicaClient;
+
+/**
+ * Options of {@link RecordServiceImpl}.
+ */
+@Value
+@Builder
+public class RecordServiceOptions {
+
+  /**
+   * If enabled, usages of custom fields and their options are counted by triggers on entity tables into
+   * custom_field_usage table, and statistics are read from the counters instead of scanning entity tables.
+   * Triggers are installed by {@link RecordService#installUsageCounters(String)}.
+   */
+  @Builder.Default
+  boolean usageCounters = false;
+
+  /**
+   * Percentage of table blocks read by {@code TABLESAMPLE SYSTEM} when approximate statistics are requested.
+   */
+  @Builder.Default
+  double samplePercent = 1.0;
+
+  /**
+   * Minimum number of rows of an entity table, as estimated by the planner, for approximate statistics to be
+   * counted on a sample of the table. Smaller tables are counted exactly.
+   */
+  @Builder.Default
+  long approximateMinRows = 1_000_000;
+
+  /**
+   * Number of entities per chunk when values of deleted custom fields are deleted outside of the caller's
+   * transaction, e.g. on {@code DELETE} and {@code PUT} of custom fields, each chunk is updated in its own transaction.
+   * If not positive, values are deleted by a single statement per entity table.
+   */
+  @Builder.Default
+  int deleteChunkSize = 0;
+
+  /**
+   * Pause between chunks of chunked value deletion, in milliseconds, at least 1.
+   */
+  @Builder.Default
+  long deleteChunkPauseMillis = 10;
+
+  /**
+   * If enabled, {@link RecordService#createIndexes(String)} creates a GIN index on {@code jsonb->'customFields'}
+   * of every entity table that has none, otherwise missing indexes are only reported by
+   * {@link RecordService#retrieveIndexes(String)}.
+   */
+  @Builder.Default
+  boolean createIndexes = false;
+
+  /**
+   * Statement timeout of queries counting usages, in milliseconds. If not positive, the timeout of the database
+   * role applies.
+   */
+  @Builder.Default
+  long statisticsTimeoutMillis = 0;
+
+  /**
+   * Statement timeout of statements deleting values outside of the caller's transaction, in milliseconds,
+   * applied to every chunk of chunked deletion. If not positive, the timeout of the database role applies.
+   */
+  @Builder.Default
+  long deleteTimeoutMillis = 0;
+
+  /**
+   * If set, queries counting usages go to the read replica while it is readable for the tenant, usage counters and
+   * value deletion always use the primary. The client is passed to
+   * {@link org.folio.service.spi.RecordServiceFactory#create(io.vertx.core.Vertx, ReadReplicaClient)}.
+   */
+  ReadReplicaClient readReplica;
+
+  public static RecordServiceOptions defaults() {
+    return builder().build();
+  }
+}
@@ -0,0 +1,26 @@
+package org.folio.service;
+
+import java.util.Map;
+
+/**
+ * Thrown when a statement on entity tables is cancelled by its statement timeout. Statistics keep counts of
+ * the tables counted in time, keyed by table name and then by ref id or option id.
+ */
+public class StatementTimeoutException extends RuntimeException {
+
+  private final transient Map<String, Map<String, Integer>> partialCounts;
+
+  public StatementTimeoutException(String message, Throwable cause) {
+    super(message, cause);
+    this.partialCounts = Map.of();
+  }
+
+  public StatementTimeoutException(String message, Map<String, Map<String, Integer>> partialCounts) {
+    super(message);
+    this.partialCounts = partialCounts;
+  }
+
+  public Map<String, Map<String, Integer>> getPartialCounts() {
+    return partialCounts;
+  }
+}
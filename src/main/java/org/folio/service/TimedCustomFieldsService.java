@@ -0,0 +1,128 @@
+package org.folio.service;
+
+import static org.folio.metrics.CustomFieldsMetrics.SERVICE_TIMER;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalLong;
+
+import io.vertx.core.Future;
+
+import org.folio.common.OkapiParams;
+import org.folio.metrics.CustomFieldsMetrics;
+import org.folio.rest.jaxrs.model.CustomField;
+import org.folio.rest.jaxrs.model.CustomFieldCollection;
+import org.folio.rest.jaxrs.model.CustomFieldIndexCollection;
+import org.folio.rest.jaxrs.model.CustomFieldJob;
+import org.folio.rest.jaxrs.model.CustomFieldJobCollection;
+import org.folio.rest.jaxrs.model.CustomFieldOptionStatistic;
+import org.folio.rest.jaxrs.model.CustomFieldOptionStatisticCollection;
+import org.folio.rest.jaxrs.model.CustomFieldStatistic;
+import org.folio.rest.jaxrs.model.CustomFieldStatisticCollection;
+
+/**
+ * {@link CustomFieldsService} decorator that times every operation with the {@code custom.fields.service} timer,
+ * tagged by operation, tenant and outcome.
+ */
+public class TimedCustomFieldsService implements CustomFieldsService {
+
+  private final CustomFieldsService delegate;
+  private final CustomFieldsMetrics metrics;
+
+  public TimedCustomFieldsService(CustomFieldsService delegate, CustomFieldsMetrics metrics) {
+    this.delegate = Objects.requireNonNull(delegate);
+    this.metrics = Objects.requireNonNull(metrics);
+  }
+
+  @Override
+  public Future<CustomField> save(CustomField customField, OkapiParams params) {
+    return metrics.time(SERVICE_TIMER, "save", params.getTenant(), () -> delegate.save(customField, params));
+  }
+
+  @Override
+  public Future<Void> update(String id, CustomField customField, OkapiParams params) {
+    return metrics.time(SERVICE_TIMER, "update", params.getTenant(),
+      () -> delegate.update(id, customField, params));
+  }
+
+  @Override
+  public Future<CustomField> findById(String id, String tenantId) {
+    return metrics.time(SERVICE_TIMER, "findById", tenantId, () -> delegate.findById(id, tenantId));
+  }
+
+  @Override
+  public Future<CustomFieldCollection> findByQuery(String query, int offset, int limit, String lang,
+                                                   String tenantId) {
+    return metrics.time(SERVICE_TIMER, "findByQuery", tenantId,
+      () -> delegate.findByQuery(query, offset, limit, lang, tenantId));
+  }
+
+  @Override
+  public Future<List<CustomField>> findByEntityType(String entityType, String tenantId) {
+    return metrics.time(SERVICE_TIMER, "findByEntityType", tenantId,
+      () -> delegate.findByEntityType(entityType, tenantId));
+  }
+
+  @Override
+  public OptionalLong getDefinitionsGeneration(String tenantId) {
+    return delegate.getDefinitionsGeneration(tenantId);
+  }
+
+  @Override
+  public Future<Void> delete(String id, String tenantId) {
+    return metrics.time(SERVICE_TIMER, "delete", tenantId, () -> delegate.delete(id, tenantId));
+  }
+
+  @Override
+  public Future<Void> deleteAll(List<String> ids, String tenantId) {
+    return metrics.time(SERVICE_TIMER, "deleteAll", tenantId, () -> delegate.deleteAll(ids, tenantId));
+  }
+
+  @Override
+  public Future<List<CustomField>> replaceAll(List<CustomField> newFields, String entityType, OkapiParams params) {
+    return metrics.time(SERVICE_TIMER, "replaceAll", params.getTenant(),
+      () -> delegate.replaceAll(newFields, entityType, params));
+  }
+
+  @Override
+  public Future<CustomFieldStatistic> retrieveStatistic(String id, boolean approximate, String tenantId) {
+    return metrics.time(SERVICE_TIMER, "retrieveStatistic", tenantId,
+      () -> delegate.retrieveStatistic(id, approximate, tenantId));
+  }
+
+  @Override
+  public Future<CustomFieldStatisticCollection> retrieveStatistics(String entityType, boolean approximate,
+                                                                   String tenantId) {
+    return metrics.time(SERVICE_TIMER, "retrieveStatistics", tenantId,
+      () -> delegate.retrieveStatistics(entityType, approximate, tenantId));
+  }
+
+  @Override
+  public Future<CustomFieldOptionStatistic> retrieveOptionStatistic(String id, String optId, boolean approximate,
+                                                                    String tenantId) {
+    return metrics.time(SERVICE_TIMER, "retrieveOptionStatistic", tenantId,
+      () -> delegate.retrieveOptionStatistic(id, optId, approximate, tenantId));
+  }
+
+  @Override
+  public Future<CustomFieldOptionStatisticCollection> retrieveOptionStatistics(String id, boolean approximate,
+                                                                               String tenantId) {
+    return metrics.time(SERVICE_TIMER, "retrieveOptionStatistics", tenantId,
+      () -> delegate.retrieveOptionStatistics(id, approximate, tenantId));
+  }
+
+  @Override
+  public Future<CustomFieldJob> findJobById(String id, String tenantId) {
+    return metrics.time(SERVICE_TIMER, "findJobById", tenantId, () -> delegate.findJobById(id, tenantId));
+  }
+
+  @Override
+  public Future<CustomFieldJobCollection> findJobs(String customFieldId, String tenantId) {
+    return metrics.time(SERVICE_TIMER, "findJobs", tenantId, () -> delegate.findJobs(customFieldId, tenantId));
+  }
+
+  @Override
+  public Future<CustomFieldIndexCollection> retrieveIndexes(String tenantId) {
+    return metrics.time(SERVICE_TIMER, "retrieveIndexes", tenantId, () -> delegate.retrieveIndexes(tenantId));
+  }
+}
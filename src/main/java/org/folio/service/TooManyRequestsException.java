@@ -0,0 +1,11 @@
+package org.folio.service;
+
+/**
+ * Thrown when an operation is rejected because too many operations of the tenant are running or waiting.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+  public TooManyRequestsException(String message) {
+    super(message);
+  }
+}
@@ -1,6 +1,7 @@
 package org.folio.service;
 
 import static io.vertx.core.http.HttpResponseExpectation.SC_OK;
+import static org.folio.metrics.CustomFieldsMetrics.USERS_TIMER;
 import static org.folio.HttpStatus.SC_FORBIDDEN;
 import static org.folio.HttpStatus.SC_NOT_FOUND;
 import static org.folio.HttpStatus.SC_UNAUTHORIZED;
@@ -25,6 +26,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import org.folio.metrics.CustomFieldsMetrics;
+import org.folio.metrics.RequestRoundTrips;
 import org.folio.model.User;
 import org.folio.okapi.common.XOkapiHeaders;
 
@@ -38,9 +41,11 @@ public class UserService {
   private static final String CANNOT_GET_USER_DATA_MESSAGE = "Cannot get user data: %s";
 
   private final WebClient webClient;
+  private final CustomFieldsMetrics metrics;
 
-  public UserService(@Autowired Vertx vertx) {
+  public UserService(@Autowired Vertx vertx, @Autowired CustomFieldsMetrics metrics) {
     this.webClient = WebClient.create(vertx);
+    this.metrics = metrics;
   }
 
   /**
@@ -50,6 +55,12 @@ public class UserService {
    * @return User information based on userid from header.
    */
   public Future<User> getUserInfo(final Map<String, String> okapiHeaders) {
+    return metrics.time(USERS_TIMER, "getUserInfo", MapUtils.emptyIfNull(okapiHeaders).get(XOkapiHeaders.TENANT),
+      () -> requestUserInfo(okapiHeaders));
+  }
+
+  private Future<User> requestUserInfo(Map<String, String> okapiHeaders) {
+    RequestRoundTrips.countHttpCall();
     MultiMap headers = HeadersMultiMap.httpHeaders();
     headers.addAll(MapUtils.emptyIfNull(okapiHeaders));
 
@@ -2,10 +2,18 @@ package org.folio.service.spi;
 
 import io.vertx.core.Vertx;
 
+import org.folio.repository.ReadReplicaClient;
 import org.folio.service.RecordService;
 
 public interface RecordServiceFactory {
 
   RecordService create(Vertx vertx);
 
+  /**
+   * Creates the service with the client of the read replica of the module, which can be passed to
+   * {@link org.folio.service.RecordServiceOptions#getReadReplica()} to count usages on the replica.
+   */
+  default RecordService create(Vertx vertx, ReadReplicaClient readReplica) {
+    return create(vertx);
+  }
 }
@@ -9,6 +9,8 @@ import static org.folio.rest.exc.RestExceptionHandlers.generalHandler;
 import static org.folio.rest.exc.RestExceptionHandlers.logged;
 import static org.folio.rest.exceptions.CustomFieldExceptionHandlers.invalidOrderHandler;
 import static org.folio.rest.exceptions.CustomFieldExceptionHandlers.invalidValueHandler;
+import static org.folio.rest.exceptions.CustomFieldExceptionHandlers.statementTimeoutHandler;
+import static org.folio.rest.exceptions.CustomFieldExceptionHandlers.tooManyRequestsHandler;
 
 import java.util.ServiceLoader;
 import java.util.stream.StreamSupport;
@@ -22,19 +24,32 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
 import org.springframework.core.io.ClassPathResource;
 
 import org.folio.common.pf.PartialFunction;
 import org.folio.db.exc.translation.DBExceptionTranslator;
 import org.folio.db.exc.translation.DBExceptionTranslatorFactory;
+import org.folio.metrics.CustomFieldsMetrics;
+import org.folio.repository.CustomFieldsRepository;
+import org.folio.repository.CustomFieldsRepositoryImpl;
+import org.folio.repository.ReadReplicaClient;
+import org.folio.repository.TimedCustomFieldsRepository;
+import org.folio.service.BulkheadRecordService;
+import org.folio.service.CachingRecordService;
+import org.folio.service.CustomFieldsCache;
+import org.folio.service.CustomFieldsService;
+import org.folio.service.CustomFieldsServiceImpl;
 import org.folio.service.NoOpRecordService;
 import org.folio.service.RecordService;
+import org.folio.service.TimedCustomFieldsService;
 import org.folio.service.spi.RecordServiceFactory;
 
 @Log4j2
 @Configuration
 @ComponentScan(basePackages = {
+  "org.folio.metrics",
   "org.folio.repository",
   "org.folio.service",
   "org.folio.validate"})
@@ -48,6 +63,8 @@ public class ApplicationConfig {
       .orElse(baseUnauthorizedHandler())
       .orElse(invalidValueHandler())
       .orElse(invalidOrderHandler())
+      .orElse(tooManyRequestsHandler())
+      .orElse(statementTimeoutHandler())
       .orElse(baseUnprocessableHandler())
       .orElse(generalHandler())
       .compose(completionCause()));
@@ -67,7 +84,39 @@ public class ApplicationConfig {
   }
 
   @Bean
-  public RecordService recordService(Vertx vertx) {
+  public CustomFieldsMetrics customFieldsMetrics(CustomFieldsCache definitionsCache) {
+    CustomFieldsMetrics metrics = new CustomFieldsMetrics(CustomFieldsMetrics.defaultRegistry());
+    metrics.bindCache("definitions", definitionsCache::getStats);
+    return metrics;
+  }
+
+  @Bean
+  @Primary
+  public CustomFieldsService customFieldsService(CustomFieldsServiceImpl customFieldsService,
+                                                 CustomFieldsMetrics metrics) {
+    return new TimedCustomFieldsService(customFieldsService, metrics);
+  }
+
+  @Bean
+  @Primary
+  public CustomFieldsRepository customFieldsRepository(CustomFieldsRepositoryImpl customFieldsRepository,
+                                                       CustomFieldsMetrics metrics) {
+    return new TimedCustomFieldsRepository(customFieldsRepository, metrics);
+  }
+
+  @Bean
+  public RecordService recordService(Vertx vertx, CustomFieldsMetrics metrics, ReadReplicaClient readReplica,
+                                     @Value("${custom.fields.statistics.cache.max.size:10000}") int cacheMaxSize,
+                                     @Value("${custom.fields.statistics.cache.ttl.seconds:60}") long cacheTtlSeconds,
+                                     @Value("${custom.fields.statistics.cache.stale.seconds:300}")
+                                     long cacheStaleSeconds,
+                                     @Value("${custom.fields.records.max.concurrent:2}") int maxConcurrent,
+                                     @Value("${custom.fields.records.max.concurrent.per.tenant:2}")
+                                     int maxConcurrentPerTenant,
+                                     @Value("${custom.fields.records.max.queued.per.tenant:20}")
+                                     int maxQueuedPerTenant,
+                                     @Value("${custom.fields.records.max.concurrent.jobs:1}")
+                                     int maxConcurrentJobs) {
     RecordService rc;
 
     var serviceLoader = ServiceLoader.load(RecordServiceFactory.class);
@@ -83,13 +132,25 @@ public class ApplicationConfig {
           RecordServiceFactory.class.getName(), RecordServiceFactory.class.getName());
     } else {
       RecordServiceFactory factory = factories.iterator().next();
-      rc = factory.create(vertx);
+      rc = factory.create(vertx, readReplica);
 
       if (factories.size() > 1) {
         // log warning: too many implementations
         log.warn("Too many implementations of {} service provider interface found. The first one will be used: {}",
           RecordServiceFactory.class.getName(), rc.getClass().getName());
       }
+
+      if (maxConcurrent > 0 && maxConcurrentPerTenant > 0 && maxConcurrentJobs > 0) {
+        rc = new BulkheadRecordService(rc, maxConcurrent, maxConcurrentPerTenant, maxQueuedPerTenant,
+          maxConcurrentJobs);
+      }
+
+      if (cacheMaxSize > 0 && cacheTtlSeconds > 0) {
+        CachingRecordService cachingRecordService =
+          new CachingRecordService(rc, cacheMaxSize, cacheTtlSeconds, cacheStaleSeconds);
+        metrics.bindCache("statistics", cachingRecordService::getStats);
+        rc = cachingRecordService;
+      }
     }
 
     return rc;
@@ -0,0 +1,90 @@
+package org.folio.validate;
+
+import static org.folio.service.CustomFieldUtils.extractOptionIds;
+import static org.folio.service.CustomFieldUtils.isSelectableCustomFieldType;
+import static org.folio.service.CustomFieldUtils.isTextBoxCustomFieldType;
+import static org.folio.validate.ValidationUtil.createError;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.vertx.core.json.Json;
+import lombok.Getter;
+
+import org.folio.rest.jaxrs.model.CustomField;
+import org.folio.rest.jaxrs.model.Error;
+import org.folio.rest.jaxrs.model.TextField;
+import org.folio.validate.value.CustomFieldValueValidator;
+import org.folio.validate.value.format.FormatValidator;
+import org.folio.validate.value.format.FormatValidators;
+
+/**
+ * Immutable validation plan of a single custom field definition. Holds everything that is needed to
+ * validate a value of the field, resolved once when the plan is compiled.
+ */
+@Getter
+public final class CustomFieldValidationPlan {
+
+  private final CustomField definition;
+  private final CustomFieldValueValidator[] validators;
+  private final Set<String> optionIds;
+  private final FormatValidator formatValidator;
+  private final int maxLength;
+
+  CustomFieldValidationPlan(CustomField definition, CustomFieldValueValidator[] validators,
+                            Set<String> optionIds, FormatValidator formatValidator, int maxLength) {
+    this.definition = definition;
+    this.validators = validators;
+    this.optionIds = optionIds;
+    this.formatValidator = formatValidator;
+    this.maxLength = maxLength;
+  }
+
+  /**
+   * Compiles a validation plan of a single definition.
+   *
+   * @param definition - custom field definition
+   * @param maxLength  - maximum length of a text box value, ignored for other types
+   * @param validators - validators of the field type
+   */
+  public static CustomFieldValidationPlan of(CustomField definition, int maxLength,
+                                             CustomFieldValueValidator... validators) {
+    Set<String> optionIds = Collections.emptySet();
+    if (isSelectableCustomFieldType(definition) && definition.getSelectField() != null) {
+      optionIds = Collections.unmodifiableSet(new HashSet<>(extractOptionIds(definition)));
+    }
+
+    FormatValidator formatValidator = null;
+    int textMaxLength = 0;
+    if (isTextBoxCustomFieldType(definition)) {
+      TextField textField = definition.getTextField();
+      formatValidator = FormatValidators.forFormat(
+        textField != null ? textField.getFieldFormat() : TextField.FieldFormat.TEXT);
+      textMaxLength = maxLength;
+    }
+
+    return new CustomFieldValidationPlan(definition, validators, optionIds, formatValidator, textMaxLength);
+  }
+
+  public String getRefId() {
+    return definition.getRefId();
+  }
+
+  /**
+   * Validates the value of the custom field and adds an error to the given list for every failed validator.
+   *
+   * @param fieldValue object that was parsed from json
+   * @param errors     list to add errors to
+   */
+  public void validate(Object fieldValue, List<Error> errors) {
+    for (CustomFieldValueValidator validator : validators) {
+      try {
+        validator.validate(fieldValue, this);
+      } catch (IllegalArgumentException ex) {
+        errors.add(createError(Json.encode(fieldValue), definition.getRefId(), ex.getMessage()));
+      }
+    }
+  }
+}
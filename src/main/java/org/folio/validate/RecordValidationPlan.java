@@ -0,0 +1,45 @@
+package org.folio.validate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.folio.rest.jaxrs.model.Error;
+
+/**
+ * Immutable validation plan of all custom field definitions of a tenant, indexed by refId.
+ */
+public final class RecordValidationPlan {
+
+  private static final String FIELD_NOT_FOUND_MESSAGE = "Custom field with refId %s is not found";
+
+  private final Map<String, CustomFieldValidationPlan> plansByRefId;
+
+  RecordValidationPlan(Map<String, CustomFieldValidationPlan> plansByRefId) {
+    this.plansByRefId = plansByRefId;
+  }
+
+  public CustomFieldValidationPlan get(String refId) {
+    return plansByRefId.get(refId);
+  }
+
+  /**
+   * Validates values of custom fields of a single record.
+   *
+   * @param customFieldsMap map of custom field parsed from json
+   * @return list of errors, empty if all values are valid
+   */
+  public List<Error> validate(Map<String, Object> customFieldsMap) {
+    List<Error> errors = new ArrayList<>(0);
+    for (Map.Entry<String, Object> entry : customFieldsMap.entrySet()) {
+      String refId = entry.getKey();
+      CustomFieldValidationPlan plan = plansByRefId.get(refId);
+      if (plan != null) {
+        plan.validate(entry.getValue(), errors);
+      } else {
+        errors.add(ValidationUtil.createError(refId, "customFields", String.format(FIELD_NOT_FOUND_MESSAGE, refId)));
+      }
+    }
+    return errors;
+  }
+}
@@ -0,0 +1,91 @@
+package org.folio.validate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import org.folio.rest.jaxrs.model.CustomField;
+import org.folio.validate.value.CustomFieldValueValidator;
+
+/**
+ * Compiles custom field definitions into immutable validation plans.
+ * The last compiled plan of every tenant is kept and reused while the tenant's definitions stay the same.
+ */
+@Component
+public class ValidationPlanCompiler {
+
+  private static final CustomFieldValueValidator[] NO_VALIDATORS = new CustomFieldValueValidator[0];
+
+  private final Map<CustomField.Type, CustomFieldValueValidator[]> validatorsByType;
+  private final int textBoxShortLengthLimit;
+  private final int textBoxLongLengthLimit;
+
+  private final Map<String, TenantPlan> tenantPlans = new ConcurrentHashMap<>();
+
+  public ValidationPlanCompiler(List<CustomFieldValueValidator> validators,
+                                @Value("${custom.fields.value.textbox.short.length}") int textBoxShortLengthLimit,
+                                @Value("${custom.fields.value.textbox.long.length}") int textBoxLongLengthLimit) {
+    this.textBoxShortLengthLimit = textBoxShortLengthLimit;
+    this.textBoxLongLengthLimit = textBoxLongLengthLimit;
+
+    Map<CustomField.Type, List<CustomFieldValueValidator>> byType = new EnumMap<>(CustomField.Type.class);
+    for (CustomFieldValueValidator validator : validators) {
+      for (CustomField.Type type : validator.supportedTypes()) {
+        byType.computeIfAbsent(type, t -> new ArrayList<>()).add(validator);
+      }
+    }
+    validatorsByType = new EnumMap<>(CustomField.Type.class);
+    byType.forEach((type, list) -> validatorsByType.put(type, list.toArray(NO_VALIDATORS)));
+  }
+
+  /**
+   * Returns validation plan of the given tenant's definitions. The plan is compiled only if the
+   * definitions differ from the ones the tenant's previous plan was compiled from.
+   *
+   * @param tenantId    - tenant id
+   * @param definitions - all custom field definitions of the tenant
+   */
+  public RecordValidationPlan compile(String tenantId, List<CustomField> definitions) {
+    TenantPlan tenantPlan = tenantPlans.get(tenantId);
+    if (tenantPlan != null && tenantPlan.definitions == definitions) {
+      return tenantPlan.plan;
+    }
+    RecordValidationPlan plan = compile(definitions);
+    tenantPlans.put(tenantId, new TenantPlan(definitions, plan));
+    return plan;
+  }
+
+  /**
+   * Compiles the given definitions into a validation plan.
+   *
+   * @param definitions - custom field definitions
+   */
+  public RecordValidationPlan compile(List<CustomField> definitions) {
+    Map<String, CustomFieldValidationPlan> plansByRefId = new HashMap<>(definitions.size() * 2);
+    for (CustomField definition : definitions) {
+      plansByRefId.putIfAbsent(definition.getRefId(), compile(definition));
+    }
+    return new RecordValidationPlan(plansByRefId);
+  }
+
+  /**
+   * Compiles a single definition into a validation plan.
+   *
+   * @param definition - custom field definition
+   */
+  public CustomFieldValidationPlan compile(CustomField definition) {
+    CustomFieldValueValidator[] validators = validatorsByType.getOrDefault(definition.getType(), NO_VALIDATORS);
+    int maxLength = CustomField.Type.TEXTBOX_LONG == definition.getType()
+      ? textBoxLongLengthLimit
+      : textBoxShortLengthLimit;
+    return CustomFieldValidationPlan.of(definition, maxLength, validators);
+  }
+
+  private record TenantPlan(List<CustomField> definitions, RecordValidationPlan plan) { }
+}
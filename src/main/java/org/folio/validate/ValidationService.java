@@ -1,9 +1,12 @@
 package org.folio.validate;
 
+import java.util.List;
 import java.util.Map;
 
 import io.vertx.core.Future;
 
+import org.folio.rest.jaxrs.model.Errors;
+
 public interface ValidationService {
   /**
    * Validates values of custom fields
@@ -12,4 +15,19 @@ public interface ValidationService {
    *
    */
   Future<Void> validateCustomFields(Map<String, Object> customFieldsMap, String tenantId);
+
+  /**
+   * Validates values of custom fields of multiple records, loading custom field definitions only once
+   * @param customFieldsMaps list of custom field maps, one per record
+   * @return list of validation errors in the same order as records, with empty Errors for valid records
+   */
+  Future<List<Errors>> validateCustomFields(List<Map<String, Object>> customFieldsMaps, String tenantId);
+
+  /**
+   * Validates values of custom fields of multiple records, loading custom field definitions only once
+   * @param customFieldsByRecordId custom field maps keyed by record id
+   * @return validation errors keyed by record id, with empty Errors for valid records
+   */
+  Future<Map<String, Errors>> validateCustomFieldsById(Map<String, Map<String, Object>> customFieldsByRecordId,
+                                                       String tenantId);
 }
@@ -1,33 +1,30 @@
 package org.folio.validate;
 
-import static org.folio.validate.ValidationUtil.createError;
+import static org.folio.metrics.CustomFieldsMetrics.VALIDATION_TIMER;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 import io.vertx.core.Context;
 import io.vertx.core.Future;
-import io.vertx.core.json.Json;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import org.folio.rest.jaxrs.model.CustomField;
+import org.folio.metrics.CustomFieldsMetrics;
 import org.folio.rest.jaxrs.model.Error;
 import org.folio.rest.jaxrs.model.Errors;
 import org.folio.service.CustomFieldsService;
 import org.folio.spring.SpringContextUtil;
-import org.folio.validate.value.CustomFieldValueValidator;
 
 public class ValidationServiceImpl implements ValidationService {
 
   @Autowired
-  private List<CustomFieldValueValidator> validators;
+  private ValidationPlanCompiler planCompiler;
   @Autowired
   private CustomFieldsService customFieldsService;
+  @Autowired
+  private CustomFieldsMetrics metrics;
 
   public ValidationServiceImpl(Context vertxContext) {
     SpringContextUtil.autowireDependencies(this, vertxContext);
@@ -35,52 +32,50 @@ public class ValidationServiceImpl implements ValidationService {
 
   @Override
   public Future<Void> validateCustomFields(Map<String, Object> customFieldsMap, String tenantId) {
-    return customFieldsService
-      .findByQuery(null, 0, Integer.MAX_VALUE, null, tenantId)
-      .compose(fields -> {
-        List<Error> errorList = new ArrayList<>();
-        for (Map.Entry<String, Object> entry : customFieldsMap.entrySet()) {
-          String key = entry.getKey();
-          Optional<CustomField> customField = findCustomField(key, fields.getCustomFields());
-          if (customField.isPresent()) {
-            errorList.addAll(validate(entry.getValue(), customField.get()));
-          } else {
-            errorList.add(
-              ValidationUtil
-                .createError(key, "customFields", "Custom field with refId " + key + " is not found"));
-          }
-
-        }
+    return metrics.time(VALIDATION_TIMER, "validateCustomFields", tenantId, () -> loadPlan(tenantId)
+      .compose(plan -> {
+        List<Error> errorList = plan.validate(customFieldsMap);
         if (!errorList.isEmpty()) {
-          Errors errors = new Errors();
-          errors.setErrors(errorList);
-          return Future.failedFuture(new CustomFieldValidationException(errors));
+          return Future.<Void>failedFuture(new CustomFieldValidationException(toErrors(errorList)));
         }
-        return Future.succeededFuture();
-      });
+        return Future.<Void>succeededFuture();
+      }));
   }
 
-  private Optional<CustomField> findCustomField(String key, List<CustomField> customFields) {
-    return customFields.stream()
-      .filter(field -> key.equals(field.getRefId()))
-      .findFirst();
+  @Override
+  public Future<List<Errors>> validateCustomFields(List<Map<String, Object>> customFieldsMaps, String tenantId) {
+    return metrics.time(VALIDATION_TIMER, "validateCustomFieldsBatch", tenantId, () -> loadPlan(tenantId)
+      .map(plan -> {
+        List<Errors> result = new ArrayList<>(customFieldsMaps.size());
+        for (Map<String, Object> customFieldsMap : customFieldsMaps) {
+          result.add(toErrors(plan.validate(customFieldsMap)));
+        }
+        return result;
+      }));
   }
 
-  private List<Error> validate(Object fieldValue, CustomField fieldDefinition) {
-    return validators.stream()
-      .filter(validator -> validator.supportedTypes().contains(fieldDefinition.getType()))
-      .map(validator -> validate(fieldValue, fieldDefinition, validator))
-      .flatMap(Collection::stream)
-      .collect(Collectors.toList());
+  @Override
+  public Future<Map<String, Errors>> validateCustomFieldsById(Map<String, Map<String, Object>> customFieldsByRecordId,
+                                                              String tenantId) {
+    return metrics.time(VALIDATION_TIMER, "validateCustomFieldsById", tenantId, () -> loadPlan(tenantId)
+      .map(plan -> {
+        Map<String, Errors> result = new LinkedHashMap<>(customFieldsByRecordId.size() * 2);
+        for (Map.Entry<String, Map<String, Object>> entry : customFieldsByRecordId.entrySet()) {
+          result.put(entry.getKey(), toErrors(plan.validate(entry.getValue())));
+        }
+        return result;
+      }));
+  }
+
+  private Future<RecordValidationPlan> loadPlan(String tenantId) {
+    return customFieldsService
+      .findByEntityType(null, tenantId)
+      .map(fields -> planCompiler.compile(tenantId, fields));
   }
 
-  private List<Error> validate(Object fieldValue, CustomField fieldDefinition, CustomFieldValueValidator validator) {
-    try {
-      validator.validate(fieldValue, fieldDefinition);
-    } catch (IllegalArgumentException ex) {
-      return Collections.singletonList(
-        createError(Json.encode(fieldValue), fieldDefinition.getRefId(), ex.getMessage()));
-    }
-    return Collections.emptyList();
+  private Errors toErrors(List<Error> errorList) {
+    Errors errors = new Errors();
+    errors.setErrors(errorList);
+    return errors;
   }
 }
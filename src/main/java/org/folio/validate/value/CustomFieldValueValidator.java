@@ -3,6 +3,7 @@ package org.folio.validate.value;
 import java.util.List;
 
 import org.folio.rest.jaxrs.model.CustomField;
+import org.folio.validate.CustomFieldValidationPlan;
 
 public interface CustomFieldValueValidator {
 
@@ -15,6 +16,18 @@ public interface CustomFieldValueValidator {
    */
   void validate(Object fieldValue, CustomField fieldDefinition);
 
+  /**
+   * Validates custom field value using the compiled validation plan of the field.
+   * Validators can override it to use the data resolved in the plan instead of the raw definition.
+   *
+   * @param fieldValue object that was parsed from json, type of object is String or List<String>
+   * @param plan       compiled validation plan of the field
+   * @throws IllegalArgumentException if validation fails
+   */
+  default void validate(Object fieldValue, CustomFieldValidationPlan plan) {
+    validate(fieldValue, plan.getDefinition());
+  }
+
   /**
    * @return List of custom field types that can be processed by this validator
    */
@@ -1,7 +1,6 @@
 package org.folio.validate.value;
 
 import static org.apache.commons.lang3.Validate.isInstanceOf;
-import static org.apache.commons.lang3.Validate.isTrue;
 
 import static org.folio.validate.value.CustomFieldValueValidatorConstants.EXPECT_ARRAY_MESSAGE;
 import static org.folio.validate.value.CustomFieldValueValidatorConstants.EXPECT_STRING_MESSAGE;
@@ -9,47 +8,54 @@ import static org.folio.validate.value.CustomFieldValueValidatorConstants.NOT_AL
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Predicate;
 
 import org.springframework.stereotype.Component;
 
 import org.folio.rest.jaxrs.model.CustomField;
 import org.folio.rest.jaxrs.model.SelectFieldOption;
+import org.folio.validate.CustomFieldValidationPlan;
 
 @Component
 public class SelectFieldValueValidator implements CustomFieldValueValidator {
 
   @Override
   public void validate(Object fieldValue, CustomField fieldDefinition) {
-    boolean isRepeatable = fieldDefinition.getIsRepeatable();
-    CustomField.Type type = fieldDefinition.getType();
+    validate(fieldValue, fieldDefinition, optionId -> isOption(fieldDefinition, optionId));
+  }
 
-    if (isRepeatable) {
-      validateFieldList(fieldValue, fieldDefinition);
-    } else {
-      if (CustomField.Type.MULTI_SELECT_DROPDOWN == type) {
-        if (fieldValue instanceof List) {
-          validateFieldList(fieldValue, fieldDefinition);
-        } else {
-          validateField(fieldValue, fieldDefinition);
-        }
-      } else {
-        validateField(fieldValue, fieldDefinition);
+  @Override
+  public void validate(Object fieldValue, CustomFieldValidationPlan plan) {
+    validate(fieldValue, plan.getDefinition(), plan.getOptionIds()::contains);
+  }
+
+  private void validate(Object fieldValue, CustomField fieldDefinition, Predicate<Object> isOption) {
+    if (fieldDefinition.getIsRepeatable()
+      || (CustomField.Type.MULTI_SELECT_DROPDOWN == fieldDefinition.getType() && fieldValue instanceof List)) {
+      isInstanceOf(List.class, fieldValue, EXPECT_ARRAY_MESSAGE, fieldDefinition.getType());
+      for (Object val : (List<?>) fieldValue) {
+        validateField(val, fieldDefinition, isOption);
       }
+    } else {
+      validateField(fieldValue, fieldDefinition, isOption);
     }
   }
 
-  private void validateFieldList(Object fieldValue, CustomField fieldDefinition) {
-    isInstanceOf(List.class, fieldValue, EXPECT_ARRAY_MESSAGE, fieldDefinition.getType());
-    ((List<?>) fieldValue).forEach(val -> validateField(val, fieldDefinition));
+  private static boolean isOption(CustomField fieldDefinition, Object optionId) {
+    for (SelectFieldOption option : fieldDefinition.getSelectField().getOptions().getValues()) {
+      if (option.getId().equals(optionId)) {
+        return true;
+      }
+    }
+    return false;
   }
 
-  private void validateField(Object fieldValue, CustomField fieldDefinition) {
+  private void validateField(Object fieldValue, CustomField fieldDefinition, Predicate<Object> isOption) {
     isInstanceOf(String.class, fieldValue, EXPECT_STRING_MESSAGE, fieldDefinition.getType());
-    String optionId = (String) fieldValue;
-    List<SelectFieldOption> possibleValues = fieldDefinition.getSelectField().getOptions().getValues();
-    boolean isAllowedValue = possibleValues
-      .stream().anyMatch(selectFieldOption -> selectFieldOption.getId().equals(optionId));
-    isTrue(isAllowedValue, NOT_ALLOWED_VALUE_MESSAGE, fieldDefinition.getRefId(), possibleValues);
+    if (!isOption.test(fieldValue)) {
+      throw new IllegalArgumentException(String.format(NOT_ALLOWED_VALUE_MESSAGE, fieldDefinition.getRefId(),
+        fieldDefinition.getSelectField().getOptions().getValues()));
+    }
   }
 
   @Override
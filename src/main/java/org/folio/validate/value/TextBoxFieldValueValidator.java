@@ -8,19 +8,15 @@ import static org.folio.validate.value.CustomFieldValueValidatorConstants.MAX_LE
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
-import org.apache.commons.collections4.map.HashedMap;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import org.folio.rest.jaxrs.model.CustomField;
 import org.folio.rest.jaxrs.model.TextField;
-import org.folio.validate.value.format.EmailFormatValidator;
+import org.folio.validate.CustomFieldValidationPlan;
 import org.folio.validate.value.format.FormatValidator;
-import org.folio.validate.value.format.NumberFormatValidator;
-import org.folio.validate.value.format.TextFormatValidator;
-import org.folio.validate.value.format.URLFormatValidator;
+import org.folio.validate.value.format.FormatValidators;
 
 @Component
 public class TextBoxFieldValueValidator implements CustomFieldValueValidator {
@@ -28,32 +24,37 @@ public class TextBoxFieldValueValidator implements CustomFieldValueValidator {
   private final int textBoxShortLengthLimit;
   private final int textBoxLongLengthLimit;
 
-  private final Map<TextField.FieldFormat, FormatValidator> formatValidators;
-
   public TextBoxFieldValueValidator(@Value("${custom.fields.value.textbox.short.length}") int textBoxShortLengthLimit,
                                     @Value("${custom.fields.value.textbox.long.length}") int textBoxLongLengthLimit) {
     this.textBoxShortLengthLimit = textBoxShortLengthLimit;
     this.textBoxLongLengthLimit = textBoxLongLengthLimit;
-
-    formatValidators = new HashedMap<>();
-    formatValidators.put(TextField.FieldFormat.TEXT, new TextFormatValidator());
-    formatValidators.put(TextField.FieldFormat.EMAIL, new EmailFormatValidator());
-    formatValidators.put(TextField.FieldFormat.NUMBER, new NumberFormatValidator());
-    formatValidators.put(TextField.FieldFormat.URL, new URLFormatValidator());
   }
 
   @Override
   public void validate(Object fieldValue, CustomField fieldDefinition) {
-    boolean isRepeatable = fieldDefinition.getIsRepeatable();
+    int maxLength = CustomField.Type.TEXTBOX_LONG == fieldDefinition.getType()
+      ? textBoxLongLengthLimit
+      : textBoxShortLengthLimit;
+    TextField textField = fieldDefinition.getTextField();
+    FormatValidator formatValidator = FormatValidators.forFormat(
+      textField != null ? textField.getFieldFormat() : TextField.FieldFormat.TEXT);
+    validate(fieldValue, fieldDefinition, formatValidator, maxLength);
+  }
+
+  @Override
+  public void validate(Object fieldValue, CustomFieldValidationPlan plan) {
+    validate(fieldValue, plan.getDefinition(), plan.getFormatValidator(), plan.getMaxLength());
+  }
 
-    if (isRepeatable) {
-      if (fieldValue instanceof List) {
-        ((List<?>) fieldValue).forEach(val -> validateValue(val, fieldDefinition));
-      } else {
-        validateValue(fieldValue, fieldDefinition);
+  private void validate(Object fieldValue, CustomField fieldDefinition, FormatValidator formatValidator,
+                        int maxLength) {
+    CustomField.Type type = fieldDefinition.getType();
+    if (fieldDefinition.getIsRepeatable() && fieldValue instanceof List) {
+      for (Object val : (List<?>) fieldValue) {
+        validateValue(val, type, formatValidator, maxLength);
       }
     } else {
-      validateValue(fieldValue, fieldDefinition);
+      validateValue(fieldValue, type, formatValidator, maxLength);
     }
   }
 
@@ -62,16 +63,11 @@ public class TextBoxFieldValueValidator implements CustomFieldValueValidator {
     return Arrays.asList(CustomField.Type.TEXTBOX_LONG, CustomField.Type.TEXTBOX_SHORT);
   }
 
-  private void validateValue(Object fieldValue, CustomField fieldDefinition) {
-    CustomField.Type type = fieldDefinition.getType();
-    TextField.FieldFormat fieldFormat = fieldDefinition.getTextField().getFieldFormat();
+  private void validateValue(Object fieldValue, CustomField.Type type, FormatValidator formatValidator,
+                             int maxLength) {
     isInstanceOf(String.class, fieldValue, EXPECT_STRING_MESSAGE, type);
-    formatValidators.get(fieldFormat).validate(fieldValue.toString());
-    final int textFieldValueLength = fieldValue.toString().length();
-    if (CustomField.Type.TEXTBOX_LONG == type) {
-      isTrue(textFieldValueLength <= textBoxLongLengthLimit, MAX_LENGTH_MESSAGE, textBoxLongLengthLimit);
-    } else {
-      isTrue(textFieldValueLength <= textBoxShortLengthLimit, MAX_LENGTH_MESSAGE, textBoxShortLengthLimit);
-    }
+    String value = (String) fieldValue;
+    formatValidator.validate(value);
+    isTrue(value.length() <= maxLength, MAX_LENGTH_MESSAGE, maxLength);
   }
 }
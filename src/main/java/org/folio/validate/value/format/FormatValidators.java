@@ -0,0 +1,32 @@
+package org.folio.validate.value.format;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.folio.rest.jaxrs.model.TextField;
+
+public final class FormatValidators {
+
+  private static final Map<TextField.FieldFormat, FormatValidator> VALIDATORS =
+    new EnumMap<>(TextField.FieldFormat.class);
+
+  static {
+    VALIDATORS.put(TextField.FieldFormat.TEXT, new TextFormatValidator());
+    VALIDATORS.put(TextField.FieldFormat.EMAIL, new EmailFormatValidator());
+    VALIDATORS.put(TextField.FieldFormat.NUMBER, new NumberFormatValidator());
+    VALIDATORS.put(TextField.FieldFormat.URL, new URLFormatValidator());
+  }
+
+  private FormatValidators() {
+  }
+
+  /**
+   * Returns validator of the given text field format.
+   *
+   * @param fieldFormat - text field format
+   * @return format validator, or {@code null} if the format is not supported
+   */
+  public static FormatValidator forFormat(TextField.FieldFormat fieldFormat) {
+    return fieldFormat != null ? VALIDATORS.get(fieldFormat) : null;
+  }
+}
@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS ${myuniversity}_${mymodule}.custom_field_job (
+  id uuid PRIMARY KEY,
+  jsonb jsonb NOT NULL,
+  -- jobs are claimed when due, a claimed job is due again when its lease expires
+  next_run_at timestamptz NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS custom_field_job_next_run_at_idx
+  ON ${myuniversity}_${mymodule}.custom_field_job (next_run_at)
+  WHERE jsonb->>'status' IN ('PENDING', 'IN_PROGRESS');
+
+CREATE INDEX IF NOT EXISTS custom_field_job_custom_field_id_idx
+  ON ${myuniversity}_${mymodule}.custom_field_job ((jsonb->>'customFieldId'));
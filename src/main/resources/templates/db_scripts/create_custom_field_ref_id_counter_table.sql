@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS ${myuniversity}_${mymodule}.custom_field_ref_id_counter (
+  base_ref_id text PRIMARY KEY,
+  value integer NOT NULL
+);
+
+INSERT INTO ${myuniversity}_${mymodule}.custom_field_ref_id_counter (base_ref_id, value)
+SELECT regexp_replace(jsonb->>'refId', '_\d+$', ''),
+       max(COALESCE(substring(jsonb->>'refId' FROM '_(\d+)$')::integer, 1))
+FROM ${myuniversity}_${mymodule}.custom_fields
+WHERE jsonb->>'refId' IS NOT NULL
+GROUP BY 1
+ON CONFLICT (base_ref_id) DO UPDATE SET value = GREATEST(custom_field_ref_id_counter.value, EXCLUDED.value);
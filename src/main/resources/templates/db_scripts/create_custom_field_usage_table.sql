@@ -0,0 +1,119 @@
+CREATE TABLE IF NOT EXISTS ${myuniversity}_${mymodule}.custom_field_usage (
+  table_name text NOT NULL,
+  ref_id text NOT NULL,
+  option_id text NOT NULL,
+  count bigint NOT NULL DEFAULT 0,
+  PRIMARY KEY (table_name, ref_id, option_id)
+);
+
+-- usage entries of customFields of an entity: (refId, '') for every custom field with a value
+-- and (refId, optionId) for every selected option id or checkbox value
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.custom_field_usage_entries(custom_fields jsonb)
+RETURNS TABLE (ref_id text, option_id text) AS $$
+  SELECT field.key, ''
+  FROM jsonb_each(CASE WHEN jsonb_typeof(custom_fields) = 'object' THEN custom_fields ELSE '{}'::jsonb END)
+    AS field(key, value)
+  UNION ALL
+  SELECT field.key, opt.value
+  FROM jsonb_each(CASE WHEN jsonb_typeof(custom_fields) = 'object' THEN custom_fields ELSE '{}'::jsonb END)
+    AS field(key, value),
+    jsonb_array_elements_text(CASE WHEN jsonb_typeof(field.value) = 'array' THEN field.value
+                                   ELSE jsonb_build_array(field.value) END) AS opt(value)
+  WHERE opt.value ~ '^opt_\d+$' OR jsonb_typeof(field.value) = 'boolean';
+$$ LANGUAGE sql IMMUTABLE;
+
+-- applies the usage entries of the rows changed by a statement to the usage counters, once per statement:
+-- entries of new rows count +1 and of old rows -1, so rows with unchanged customFields cancel out.
+-- Counters are upserted in key order, so concurrent statements lock them in the same order and do not deadlock.
+-- The number of entities of the table is kept in ('', shard) entries, the shard is picked by the backend,
+-- so concurrent inserts and deletes do not wait for each other on a single row
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.update_custom_field_usage()
+RETURNS trigger AS $$
+DECLARE
+  diff text;
+BEGIN
+  IF TG_OP = 'INSERT' THEN
+    diff := 'SELECT e.ref_id, e.option_id, 1 AS delta'
+      || ' FROM new_rows n, ${myuniversity}_${mymodule}.custom_field_usage_entries(n.jsonb->''customFields'') e'
+      || ' UNION ALL SELECT '''', $2, count(*) FROM new_rows';
+  ELSIF TG_OP = 'DELETE' THEN
+    diff := 'SELECT e.ref_id, e.option_id, -1 AS delta'
+      || ' FROM old_rows o, ${myuniversity}_${mymodule}.custom_field_usage_entries(o.jsonb->''customFields'') e'
+      || ' UNION ALL SELECT '''', $2, -count(*) FROM old_rows';
+  ELSE
+    diff := 'SELECT e.ref_id, e.option_id, 1 AS delta'
+      || ' FROM new_rows n, ${myuniversity}_${mymodule}.custom_field_usage_entries(n.jsonb->''customFields'') e'
+      || ' UNION ALL SELECT e.ref_id, e.option_id, -1'
+      || ' FROM old_rows o, ${myuniversity}_${mymodule}.custom_field_usage_entries(o.jsonb->''customFields'') e';
+  END IF;
+
+  EXECUTE 'INSERT INTO ${myuniversity}_${mymodule}.custom_field_usage AS u (table_name, ref_id, option_id, count)'
+    || ' SELECT $1, diff.ref_id, diff.option_id, SUM(diff.delta) FROM (' || diff || ') diff'
+    || ' GROUP BY diff.ref_id, diff.option_id'
+    || ' HAVING SUM(diff.delta) <> 0'
+    || ' ORDER BY diff.ref_id, diff.option_id'
+    || ' ON CONFLICT (table_name, ref_id, option_id) DO UPDATE SET count = u.count + EXCLUDED.count'
+    USING TG_TABLE_NAME, (pg_backend_pid() % 16)::text;
+
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.clear_custom_field_usage()
+RETURNS trigger AS $$
+BEGIN
+  DELETE FROM ${myuniversity}_${mymodule}.custom_field_usage WHERE table_name = TG_TABLE_NAME;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.install_custom_field_usage_triggers(entity_table text)
+RETURNS void AS $$
+BEGIN
+  -- row level trigger of previous versions
+  EXECUTE format('DROP TRIGGER IF EXISTS custom_field_usage_trigger ON %I.%I',
+    '${myuniversity}_${mymodule}', entity_table);
+  -- a trigger with transition tables can fire on a single event only
+  EXECUTE format('DROP TRIGGER IF EXISTS custom_field_usage_insert_trigger ON %I.%I',
+    '${myuniversity}_${mymodule}', entity_table);
+  EXECUTE format('CREATE TRIGGER custom_field_usage_insert_trigger AFTER INSERT ON %I.%I'
+    || ' REFERENCING NEW TABLE AS new_rows'
+    || ' FOR EACH STATEMENT EXECUTE PROCEDURE %I.update_custom_field_usage()',
+    '${myuniversity}_${mymodule}', entity_table, '${myuniversity}_${mymodule}');
+  EXECUTE format('DROP TRIGGER IF EXISTS custom_field_usage_update_trigger ON %I.%I',
+    '${myuniversity}_${mymodule}', entity_table);
+  EXECUTE format('CREATE TRIGGER custom_field_usage_update_trigger AFTER UPDATE ON %I.%I'
+    || ' REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows'
+    || ' FOR EACH STATEMENT EXECUTE PROCEDURE %I.update_custom_field_usage()',
+    '${myuniversity}_${mymodule}', entity_table, '${myuniversity}_${mymodule}');
+  EXECUTE format('DROP TRIGGER IF EXISTS custom_field_usage_delete_trigger ON %I.%I',
+    '${myuniversity}_${mymodule}', entity_table);
+  EXECUTE format('CREATE TRIGGER custom_field_usage_delete_trigger AFTER DELETE ON %I.%I'
+    || ' REFERENCING OLD TABLE AS old_rows'
+    || ' FOR EACH STATEMENT EXECUTE PROCEDURE %I.update_custom_field_usage()',
+    '${myuniversity}_${mymodule}', entity_table, '${myuniversity}_${mymodule}');
+  EXECUTE format('DROP TRIGGER IF EXISTS custom_field_usage_truncate_trigger ON %I.%I',
+    '${myuniversity}_${mymodule}', entity_table);
+  EXECUTE format('CREATE TRIGGER custom_field_usage_truncate_trigger AFTER TRUNCATE ON %I.%I'
+    || ' FOR EACH STATEMENT EXECUTE PROCEDURE %I.clear_custom_field_usage()',
+    '${myuniversity}_${mymodule}', entity_table, '${myuniversity}_${mymodule}');
+END;
+$$ LANGUAGE plpgsql;
+
+-- recounts usages of the entity table; writes to the table are blocked until the end of the calling transaction,
+-- so no change is missed or counted twice
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.rebuild_custom_field_usage(entity_table text)
+RETURNS void AS $$
+BEGIN
+  EXECUTE format('LOCK TABLE %I.%I IN SHARE MODE', '${myuniversity}_${mymodule}', entity_table);
+  DELETE FROM ${myuniversity}_${mymodule}.custom_field_usage WHERE table_name = entity_table;
+  EXECUTE format('INSERT INTO %I.custom_field_usage (table_name, ref_id, option_id, count)'
+    || ' SELECT %L, e.ref_id, e.option_id, count(*)'
+    || ' FROM %I.%I t, %I.custom_field_usage_entries(t.jsonb->''customFields'') e'
+    || ' GROUP BY e.ref_id, e.option_id'
+    || ' UNION ALL SELECT %L, '''', ''0'', count(*) FROM %I.%I',
+    '${myuniversity}_${mymodule}', entity_table,
+    '${myuniversity}_${mymodule}', entity_table, '${myuniversity}_${mymodule}',
+    entity_table, '${myuniversity}_${mymodule}', entity_table);
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,15 @@
+CREATE INDEX IF NOT EXISTS custom_fields_entity_type_order_idx
+  ON ${myuniversity}_${mymodule}.custom_fields ((jsonb->>'entityType'), ((jsonb->>'order')::int));
+
+DO $$
+BEGIN
+  IF EXISTS (
+    SELECT jsonb->>'refId' FROM ${myuniversity}_${mymodule}.custom_fields
+    GROUP BY jsonb->>'refId' HAVING count(*) > 1
+  ) THEN
+    RAISE WARNING 'custom_fields contains duplicate refIds, unique index custom_fields_ref_id_idx is not created';
+  ELSE
+    CREATE UNIQUE INDEX IF NOT EXISTS custom_fields_ref_id_idx
+      ON ${myuniversity}_${mymodule}.custom_fields ((jsonb->>'refId'));
+  END IF;
+END $$;
@@ -0,0 +1,15 @@
+-- One notification per statement and schema: PostgreSQL delivers identical notifications sent in one transaction
+-- only once, so a bulk change of custom fields invalidates definitions of the tenant once.
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.notify_custom_fields_changed()
+RETURNS TRIGGER AS $$
+BEGIN
+  PERFORM pg_notify('custom_fields_changed', json_build_object('schema', TG_TABLE_SCHEMA)::text);
+
+  RETURN NULL;
+END;
+$$ LANGUAGE 'plpgsql';
+
+DROP TRIGGER IF EXISTS notify_custom_fields_changed_trigger ON ${myuniversity}_${mymodule}.custom_fields;
+CREATE TRIGGER notify_custom_fields_changed_trigger
+AFTER INSERT OR UPDATE OR DELETE ON ${myuniversity}_${mymodule}.custom_fields
+FOR EACH STATEMENT EXECUTE PROCEDURE ${myuniversity}_${mymodule}.notify_custom_fields_changed();
@@ -0,0 +1,23 @@
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.next_custom_field_order(entity_type text)
+RETURNS integer AS $$
+DECLARE
+  nextOrder integer;
+BEGIN
+  -- serializes order allocation of the entity type until the end of the calling transaction
+  PERFORM pg_advisory_xact_lock(hashtext('${myuniversity}_${mymodule}.custom_fields'), hashtext(entity_type));
+
+  SELECT COALESCE(MAX((jsonb->>'order')::int), 0) + 1 INTO nextOrder
+  FROM ${myuniversity}_${mymodule}.custom_fields
+  WHERE jsonb->>'entityType' = entity_type;
+
+  RETURN nextOrder;
+END;
+$$ LANGUAGE 'plpgsql';
+
+UPDATE ${myuniversity}_${mymodule}.custom_fields cf
+SET jsonb = jsonb_set(cf.jsonb, '{order}', to_jsonb(numbered.new_order))
+FROM (
+  SELECT id, row_number() OVER (PARTITION BY jsonb->>'entityType' ORDER BY (jsonb->>'order')::int, id) AS new_order
+  FROM ${myuniversity}_${mymodule}.custom_fields
+) numbered
+WHERE cf.id = numbered.id AND (cf.jsonb->>'order')::int IS DISTINCT FROM numbered.new_order;
@@ -0,0 +1,21 @@
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.reorder_custom_fields(entity_type text)
+RETURNS integer AS $$
+DECLARE
+  reordered integer;
+BEGIN
+  -- serializes with order allocation of the entity type until the end of the calling transaction
+  PERFORM pg_advisory_xact_lock(hashtext('${myuniversity}_${mymodule}.custom_fields'), hashtext(entity_type));
+
+  UPDATE ${myuniversity}_${mymodule}.custom_fields cf
+  SET jsonb = jsonb_set(cf.jsonb, '{order}', to_jsonb(numbered.new_order))
+  FROM (
+    SELECT id, row_number() OVER (PARTITION BY jsonb->>'entityType' ORDER BY (jsonb->>'order')::int, id) AS new_order
+    FROM ${myuniversity}_${mymodule}.custom_fields
+    WHERE jsonb->>'entityType' = entity_type
+  ) numbered
+  WHERE cf.id = numbered.id AND (cf.jsonb->>'order')::int IS DISTINCT FROM numbered.new_order;
+
+  GET DIAGNOSTICS reordered = ROW_COUNT;
+  RETURN reordered;
+END;
+$$ LANGUAGE 'plpgsql';
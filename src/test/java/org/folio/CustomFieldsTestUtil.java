@@ -6,6 +6,7 @@ import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 
 import static org.folio.repository.CustomFieldsConstants.CUSTOM_FIELDS_TABLE;
+import static org.folio.repository.CustomFieldsConstants.REF_ID_COUNTER_TABLE;
 import static org.folio.test.util.DBTestUtil.deleteFromTable;
 import static org.folio.test.util.DBTestUtil.getAll;
 import static org.folio.test.util.TestUtil.readFile;
@@ -40,6 +41,7 @@ public class CustomFieldsTestUtil {
 
   public static void deleteAllCustomFields(Vertx vertx) {
     deleteFromTable(vertx, CUSTOM_FIELDS_TABLE);
+    deleteFromTable(vertx, REF_ID_COUNTER_TABLE);
   }
 
   public static List<CustomField> getAllCustomFields(Vertx vertx) {
@@ -89,6 +91,10 @@ public class CustomFieldsTestUtil {
     return itemResourcePath(id) + "/stats";
   }
 
+  public static String itemOptionsStatResourcePath(String id) {
+    return itemResourcePath(id) + "/options/stats";
+  }
+
   public static String itemOptionStatResourcePath(String id, String optId) {
     return itemResourcePath(id) + "/options/" + optId + "/stats";
   }
@@ -0,0 +1,53 @@
+package org.folio.metrics;
+
+import static org.folio.metrics.CountingPostgresClient.counted;
+import static org.folio.test.util.TestUtil.STUB_TENANT;
+
+import java.util.function.Supplier;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.sqlclient.Tuple;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import org.folio.test.util.TestBase;
+
+@RunWith(VertxUnitRunner.class)
+public class CountingPostgresClientTest extends TestBase {
+
+  @Test
+  public void shouldCountStatementsOnPool(TestContext context) {
+    onRequest(() -> {
+      CountingPostgresClient client = CountingPostgresClient.getInstance(vertx, STUB_TENANT);
+      return client.execute("SELECT 1").compose(x -> client.execute("SELECT 2"));
+    }).onComplete(context.asyncAssertSuccess(roundTrips ->
+      context.assertEquals("statements=2, connections=2, httpCalls=0", roundTrips.toString())));
+  }
+
+  @Test
+  public void shouldCountStatementsOfTransaction(TestContext context) {
+    onRequest(() -> CountingPostgresClient.getInstance(vertx, STUB_TENANT)
+      .withTrans(conn -> counted(conn.execute("SELECT 1"))
+        .compose(x -> counted(conn.getPgConnection().query("SELECT 2").execute()))
+        .compose(x -> counted(conn.getPgConnection().preparedQuery("SELECT $1::int").execute(Tuple.of(3))))))
+      .onComplete(context.asyncAssertSuccess(roundTrips ->
+        context.assertEquals("statements=3, connections=1, httpCalls=0", roundTrips.toString())));
+  }
+
+  /**
+   * Runs the database calls as a request on a context of its own and returns its round trips.
+   */
+  private Future<RequestRoundTrips> onRequest(Supplier<Future<?>> calls) {
+    Promise<RequestRoundTrips> promise = Promise.promise();
+    Context request = vertx.getOrCreateContext();
+    request.runOnContext(v -> {
+      RequestRoundTrips roundTrips = RequestRoundTrips.start(request);
+      calls.get().map(x -> roundTrips).onComplete(promise);
+    });
+    return promise.future();
+  }
+}
@@ -0,0 +1,71 @@
+package org.folio.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.folio.model.CacheStats;
+
+public class CustomFieldsMetricsTest {
+
+  private SimpleMeterRegistry registry;
+  private CustomFieldsMetrics metrics;
+
+  @Before
+  public void setUp() {
+    registry = new SimpleMeterRegistry();
+    metrics = new CustomFieldsMetrics(registry);
+  }
+
+  @Test
+  public void shouldTimeOperationOnCompletion() {
+    Promise<String> promise = Promise.promise();
+
+    Future<String> future = metrics.time(CustomFieldsMetrics.SERVICE_TIMER, "findById", "tenant", promise::future);
+    assertTrue(registry.find(CustomFieldsMetrics.SERVICE_TIMER).timers().isEmpty());
+
+    promise.complete("result");
+    assertEquals("result", future.result());
+    assertEquals(1, registry.get(CustomFieldsMetrics.SERVICE_TIMER)
+      .tags("operation", "findById", "tenant", "tenant", "outcome", "success").timer().count());
+  }
+
+  @Test
+  public void shouldTimeFailedOperation() {
+    Future<Object> future = metrics.time(CustomFieldsMetrics.REPOSITORY_TIMER, "update", null, () -> {
+      throw new IllegalStateException("failed");
+    });
+
+    assertTrue(future.failed());
+    assertEquals(1, registry.get(CustomFieldsMetrics.REPOSITORY_TIMER)
+      .tags("operation", "update", "tenant", CustomFieldsMetrics.UNKNOWN_TENANT, "outcome", "failure").timer().count());
+  }
+
+  @Test
+  public void shouldCountDeletedValuesByTable() {
+    metrics.countDeletedValues("users", "tenant", 3);
+    metrics.countDeletedValues("users", "tenant", 2);
+
+    assertEquals(5, registry.get(CustomFieldsMetrics.DELETED_VALUES_COUNTER)
+      .tags("table", "users", "tenant", "tenant").counter().count(), 0);
+  }
+
+  @Test
+  public void shouldReadCacheStatsWhenMeasured() {
+    AtomicReference<CacheStats> stats = new AtomicReference<>(new CacheStats(1, 2, 0, 2));
+    metrics.bindCache("definitions", stats::get);
+    stats.set(new CacheStats(4, 2, 1, 1));
+
+    assertEquals(4, registry.get(CustomFieldsMetrics.CACHE_METER_PREFIX + "hits")
+      .tag("cache", "definitions").functionCounter().count(), 0);
+    assertEquals(1, registry.get(CustomFieldsMetrics.CACHE_METER_PREFIX + "size")
+      .tag("cache", "definitions").gauge().value(), 0);
+  }
+}
@@ -0,0 +1,101 @@
+package org.folio.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.Response;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RoundTripMonitorTest {
+
+  private Vertx vertx;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @After
+  public void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  public void shouldKeepCountsOfStartedRequest() {
+    Context request = vertx.getOrCreateContext();
+    RequestRoundTrips started = RequestRoundTrips.start(request);
+
+    assertSame(started, RequestRoundTrips.of(request));
+    assertNotSame(started, RequestRoundTrips.start(request));
+  }
+
+  @Test
+  public void shouldNotKeepCountsOutsideOfRequest() {
+    Context context = vertx.getOrCreateContext();
+
+    assertNotSame(RequestRoundTrips.of(context), RequestRoundTrips.of(context));
+    assertNotSame(RequestRoundTrips.of(null), RequestRoundTrips.of(null));
+  }
+
+  @Test
+  public void shouldCountOnCurrentRequestContext() throws Exception {
+    Context request = vertx.getOrCreateContext();
+    CompletableFuture<RequestRoundTrips> counted = new CompletableFuture<>();
+
+    request.runOnContext(v -> {
+      RequestRoundTrips.start(Vertx.currentContext());
+      RequestRoundTrips.countConnection();
+      RequestRoundTrips.countStatement();
+      RequestRoundTrips.countStatement();
+      RequestRoundTrips.countHttpCall();
+      counted.complete(RequestRoundTrips.of(Vertx.currentContext()));
+    });
+
+    assertEquals("statements=2, connections=1, httpCalls=1", counted.get(5, TimeUnit.SECONDS).toString());
+  }
+
+  @Test
+  public void shouldNotExceedUnlimitedBudget() {
+    RoundTripMonitor monitor = new RoundTripMonitor(false, true, 0, 0, 0);
+
+    assertFalse(monitor.isOverBudget(new RequestRoundTrips(100, 100, 100)));
+  }
+
+  @Test
+  public void shouldExceedBudgetOfAnyRoundTrip() {
+    RoundTripMonitor monitor = new RoundTripMonitor(false, true, 5, 1, 1);
+
+    assertFalse(monitor.isOverBudget(new RequestRoundTrips(5, 1, 1)));
+    assertTrue(monitor.isOverBudget(new RequestRoundTrips(6, 1, 0)));
+    assertTrue(monitor.isOverBudget(new RequestRoundTrips(1, 2, 0)));
+    assertTrue(monitor.isOverBudget(new RequestRoundTrips(1, 1, 2)));
+  }
+
+  @Test
+  public void shouldPassFailureWithinBudget() {
+    RoundTripMonitor monitor = new RoundTripMonitor(true, true, 5, 1, 1);
+    AsyncResult<Response> failure = Future.failedFuture(new IllegalStateException("failed"));
+
+    assertSame(failure, monitor.report("getCustomFields", new RequestRoundTrips(1, 1, 0), failure));
+  }
+
+  @Test
+  public void shouldPassResultOverBudgetWhenNotEnforced() {
+    RoundTripMonitor monitor = new RoundTripMonitor(false, false, 1, 1, 1);
+    AsyncResult<Response> failure = Future.failedFuture(new IllegalStateException("failed"));
+
+    assertSame(failure, monitor.report("getCustomFields", new RequestRoundTrips(10, 10, 10), failure));
+  }
+}
@@ -0,0 +1,166 @@
+package org.folio.repository;
+
+import static org.folio.repository.CustomFieldsConstants.CUSTOM_FIELDS_TABLE;
+import static org.folio.repository.CustomFieldsConstants.REF_ID_COUNTER_TABLE;
+import static org.folio.test.util.DBTestUtil.deleteFromTable;
+import static org.folio.test.util.TestUtil.STUB_TENANT;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.vertx.core.Future;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.Tuple;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.folio.rest.jaxrs.model.CustomField;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.spring.SpringContextUtil;
+import org.folio.test.util.TestBase;
+
+@RunWith(VertxUnitRunner.class)
+public class CustomFieldsRepositoryImplTest extends TestBase {
+
+  private static final String SCHEMA = PostgresClient.convertToPsqlStandard(STUB_TENANT);
+  private static final Pattern SELECT_INTO = Pattern.compile("(SELECT .+?)\\s+INTO \\w+\\s+(FROM .+?);", Pattern.DOTALL);
+
+  @Autowired
+  private CustomFieldsRepository repository;
+
+  @Before
+  public void setUp() {
+    SpringContextUtil.autowireDependenciesFromFirstContext(this, vertx);
+  }
+
+  @After
+  public void tearDown() {
+    deleteFromTable(vertx, REF_ID_COUNTER_TABLE);
+    deleteFromTable(vertx, CUSTOM_FIELDS_TABLE);
+  }
+
+  @Test
+  public void shouldIncrementRefIdCounterPerBaseRefId(TestContext context) {
+    repository.nextRefIdCounter("department", STUB_TENANT)
+      .compose(first -> {
+        context.assertEquals(1, first);
+        return repository.nextRefIdCounter("department", STUB_TENANT);
+      })
+      .compose(second -> {
+        context.assertEquals(2, second);
+        return repository.nextRefIdCounter("expirationDate", STUB_TENANT);
+      })
+      .onComplete(context.asyncAssertSuccess(other -> {
+        context.assertEquals(1, other);
+      }));
+  }
+
+  @Test
+  public void shouldNotAllocateSameRefIdCounterConcurrently(TestContext context) {
+    List<Future<Integer>> counters = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      counters.add(repository.nextRefIdCounter("department", STUB_TENANT));
+    }
+    Future.all(counters)
+      .onComplete(context.asyncAssertSuccess(all -> {
+        Set<Integer> distinct = new HashSet<>(all.<Integer>list());
+        context.assertEquals(10, distinct.size());
+      }));
+  }
+
+  @Test
+  public void shouldAllocateNextOrderPerEntityType(TestContext context) {
+    CustomField field = new CustomField().withName("Department").withRefId("department")
+      .withEntityType("user").withType(CustomField.Type.TEXTBOX_SHORT);
+    PostgresClient.getInstance(vertx, STUB_TENANT)
+      .withTrans(conn -> repository.nextOrder("user", STUB_TENANT, conn)
+        .compose(order -> repository.save(field.withOrder(order), conn)))
+      .compose(saved -> PostgresClient.getInstance(vertx, STUB_TENANT)
+        .withTrans(conn -> repository.nextOrder("user", STUB_TENANT, conn)
+          .compose(userOrder -> repository.nextOrder("package", STUB_TENANT, conn)
+            .map(packageOrder -> List.of(saved.getOrder(), userOrder, packageOrder)))))
+      .onComplete(context.asyncAssertSuccess(orders -> {
+        context.assertEquals(List.of(1, 2, 1), orders);
+      }));
+  }
+
+  @Test
+  public void shouldUseEntityTypeOrderIndexToFindNextOrder(TestContext context) {
+    PostgresClient.getInstance(vertx, STUB_TENANT)
+      .execute("SELECT prosrc FROM pg_proc WHERE oid = $1::regproc", Tuple.of(SCHEMA + ".next_custom_field_order"))
+      .map(rows -> nextOrderStatement(rows.iterator().next().getString(0)))
+      .compose(query -> explain(query, Tuple.of("user")))
+      .onComplete(context.asyncAssertSuccess(plan ->
+        context.assertTrue(plan.contains("custom_fields_entity_type_order_idx"), plan)));
+  }
+
+  @Test
+  public void shouldAllocateConsecutiveRefIdCountersInBatch(TestContext context) {
+    repository.nextRefIdCounter("department", STUB_TENANT)
+      .compose(v -> PostgresClient.getInstance(vertx, STUB_TENANT)
+        .withTrans(conn -> repository.nextRefIdCounters(
+          List.of("department", "expirationDate", "department"), STUB_TENANT, conn)))
+      .onComplete(context.asyncAssertSuccess(counters -> {
+        context.assertEquals(List.of(2, 1, 3), counters);
+      }));
+  }
+
+  @Test
+  public void shouldSaveUpdateAndDeleteCustomFieldsInBatch(TestContext context) {
+    CustomField department = new CustomField().withName("Department").withRefId("department")
+      .withEntityType("user").withType(CustomField.Type.TEXTBOX_SHORT).withOrder(1);
+    CustomField expirationDate = new CustomField().withName("Expiration date").withRefId("expirationDate")
+      .withEntityType("user").withType(CustomField.Type.TEXTBOX_SHORT).withOrder(2);
+    PostgresClient postgresClient = PostgresClient.getInstance(vertx, STUB_TENANT);
+    postgresClient
+      .withTrans(conn -> repository.saveAll(List.of(department, expirationDate), STUB_TENANT, conn))
+      .compose(v -> postgresClient.withTrans(conn -> repository.updateAll(
+        List.of(department.withHelpText("updated"), expirationDate.withHelpText("updated")), STUB_TENANT, conn)))
+      .compose(updatedIds -> {
+        context.assertEquals(Set.of(department.getId(), expirationDate.getId()), new HashSet<>(updatedIds));
+        return repository.findById(department.getId(), STUB_TENANT);
+      })
+      .compose(found -> {
+        context.assertEquals("updated", found.orElseThrow().getHelpText());
+        return postgresClient.withTrans(conn ->
+          repository.deleteAll(List.of(department.getId(), expirationDate.getId()), STUB_TENANT, conn));
+      })
+      .onComplete(context.asyncAssertSuccess(deleted -> {
+        context.assertEquals(2, deleted);
+      }));
+  }
+
+  /**
+   * Extracts the statement selecting the next order from the source of the deployed next_custom_field_order
+   * function, with the function argument as parameter.
+   */
+  private static String nextOrderStatement(String functionSource) {
+    Matcher select = SELECT_INTO.matcher(functionSource);
+    if (!select.find()) {
+      throw new AssertionError("No SELECT INTO statement in next_custom_field_order: " + functionSource);
+    }
+    return select.group(1) + " " + select.group(2).replace("entity_type", "$1");
+  }
+
+  private Future<String> explain(String query, Tuple params) {
+    return PostgresClient.getInstance(vertx, STUB_TENANT)
+      .withTrans(conn -> conn.execute("SET LOCAL enable_seqscan = off")
+        .compose(v -> conn.execute("EXPLAIN " + query, params))
+        .map(rows -> {
+          StringBuilder plan = new StringBuilder();
+          for (Row row : rows) {
+            plan.append(row.getString(0)).append('\n');
+          }
+          return plan.toString();
+        }));
+  }
+}
@@ -0,0 +1,51 @@
+package org.folio.repository;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.vertx.core.Vertx;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReadReplicaClientTest {
+
+  private final AtomicLong ticker = new AtomicLong();
+
+  private Vertx vertx;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @After
+  public void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  public void shouldNotReadFromReplicaIfHostIsBlank() {
+    ReadReplicaClient client = new ReadReplicaClient(vertx, "", 0, 4, 10, ticker::get);
+
+    assertFalse(client.isEnabled());
+    assertFalse(client.isReadable("tenant"));
+  }
+
+  @Test
+  public void shouldReadFromPrimaryWithinStalenessAfterWrite() {
+    ReadReplicaClient client = new ReadReplicaClient(vertx, "replica", 0, 4, 10, ticker::get);
+    assertTrue(client.isReadable("tenant"));
+
+    client.markWritten("tenant");
+    ticker.addAndGet(TimeUnit.SECONDS.toNanos(10));
+    assertFalse(client.isReadable("tenant"));
+    assertTrue(client.isReadable("other"));
+
+    ticker.incrementAndGet();
+    assertTrue(client.isReadable("tenant"));
+  }
+}
@@ -4,6 +4,8 @@ import static org.apache.http.HttpStatus.SC_BAD_REQUEST;
 import static org.apache.http.HttpStatus.SC_CREATED;
 import static org.apache.http.HttpStatus.SC_INTERNAL_SERVER_ERROR;
 import static org.apache.http.HttpStatus.SC_NOT_FOUND;
+import static org.apache.http.HttpStatus.SC_NOT_MODIFIED;
+import static org.apache.http.HttpStatus.SC_OK;
 import static org.apache.http.HttpStatus.SC_UNAUTHORIZED;
 import static org.apache.http.HttpStatus.SC_UNPROCESSABLE_ENTITY;
 import static org.folio.CustomFieldsTestUtil.CUSTOM_FIELDS_PATH;
@@ -18,6 +20,7 @@ import static org.folio.CustomFieldsTestUtil.USER5_ID;
 import static org.folio.CustomFieldsTestUtil.deleteAllCustomFields;
 import static org.folio.CustomFieldsTestUtil.getAllCustomFields;
 import static org.folio.CustomFieldsTestUtil.itemOptionStatResourcePath;
+import static org.folio.CustomFieldsTestUtil.itemOptionsStatResourcePath;
 import static org.folio.CustomFieldsTestUtil.itemResourcePath;
 import static org.folio.CustomFieldsTestUtil.itemStatResourcePath;
 import static org.folio.CustomFieldsTestUtil.mockUserRequests;
@@ -34,6 +37,7 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
@@ -43,20 +47,26 @@ import java.util.Arrays;
 import java.util.Base64;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.folio.okapi.common.XOkapiHeaders;
 import org.folio.rest.jaxrs.model.CustomField;
 import org.folio.rest.jaxrs.model.CustomFieldCollection;
 import org.folio.rest.jaxrs.model.CustomFieldOptionStatistic;
+import org.folio.rest.jaxrs.model.CustomFieldOptionStatisticCollection;
 import org.folio.rest.jaxrs.model.CustomFieldStatistic;
 import org.folio.rest.jaxrs.model.Error;
 import org.folio.rest.jaxrs.model.Metadata;
 import org.folio.rest.jaxrs.model.PutCustomFieldCollection;
 import org.folio.rest.jaxrs.model.TextField;
+import org.folio.service.CustomFieldsChangeListener;
+import org.folio.spring.SpringContextUtil;
 import org.folio.test.util.TestBase;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import io.restassured.http.Header;
 import io.vertx.core.json.Json;
@@ -65,8 +75,12 @@ import io.vertx.ext.unit.junit.VertxUnitRunner;
 @RunWith(VertxUnitRunner.class)
 public class CustomFieldsImplTest extends TestBase {
 
+  @Autowired
+  private CustomFieldsChangeListener changeListener;
+
   @Before
   public void setUp() throws IOException, URISyntaxException {
+    SpringContextUtil.autowireDependenciesFromFirstContext(this, vertx);
     deleteAllCustomFields(vertx);
     mockUserRequests();
   }
@@ -266,7 +280,9 @@ public class CustomFieldsImplTest extends TestBase {
   @Test
   public void shouldReturnAllFieldsOnGetSortedByOrder() throws IOException, URISyntaxException {
     createFieldsMultipleEntityTypes();
-    CustomFieldCollection fields = getWithOk(CUSTOM_FIELDS_PATH).as(CustomFieldCollection.class);
+    createCustomField(readFile("fields/post/postCustomField2.json"));
+    CustomFieldCollection fields = getWithOk(CUSTOM_FIELDS_PATH + "?query=entityType==user")
+      .as(CustomFieldCollection.class);
     assertEquals(2, fields.getCustomFields().size());
     assertThat(fields.getCustomFields().get(0), is(allOf(
       hasProperty("name", is("Department")),
@@ -276,12 +292,22 @@ public class CustomFieldsImplTest extends TestBase {
     )));
     assertThat(fields.getCustomFields().get(1), is(allOf(
       hasProperty("name", is("Expiration Date")),
-      hasProperty("helpText", is("Set expiration date")),
-      hasProperty("entityType", is("package")),
+      hasProperty("entityType", is("user")),
       hasProperty("order", is(2))
     )));
   }
 
+  @Test
+  public void shouldAssignOrderPerEntityType() throws IOException, URISyntaxException {
+    CustomField userField = createCustomField(readFile("fields/post/postCustomField.json"));
+    CustomField packageField = createCustomField(readFile("fields/post/postCustomField-package.json"));
+    CustomField secondUserField = createCustomField(readFile("fields/post/postCustomField2.json"));
+
+    assertEquals(1, (int) userField.getOrder());
+    assertEquals(1, (int) packageField.getOrder());
+    assertEquals(2, (int) secondUserField.getOrder());
+  }
+
   @Test
   public void shouldReturnFieldsByName() throws IOException, URISyntaxException {
     createFieldsMultipleEntityTypes();
@@ -316,6 +342,53 @@ public class CustomFieldsImplTest extends TestBase {
     assertEquals("Provide a department", fields.getCustomFields().get(0).getHelpText());
   }
 
+  @Test
+  public void shouldReturn304WhenFieldsNotChanged() throws IOException, URISyntaxException, InterruptedException {
+    createFieldsMultipleEntityTypes();
+    String resourcePath = CUSTOM_FIELDS_PATH + "?query=entityType==user";
+    String eTag = awaitStableETag(resourcePath);
+    assertNotNull(eTag);
+
+    String vary = getWithStatus(resourcePath, SC_NOT_MODIFIED, new Header("If-None-Match", eTag)).header("Vary");
+    assertThat(vary, containsString(XOkapiHeaders.TENANT));
+    String otherQueryETag = getWithOk(CUSTOM_FIELDS_PATH + "?query=entityType==package").header("ETag");
+    assertNotEquals(eTag, otherQueryETag);
+  }
+
+  @Test
+  public void shouldReturnDifferentETagsForDifferentTenants() {
+    String eTag = CustomFieldsImpl.definitionsETag(1, "tenant_a", "entityType==user", 0, 10, "en");
+    assertEquals(eTag, CustomFieldsImpl.definitionsETag(1, "tenant_a", "entityType==user", 0, 10, "en"));
+    assertNotEquals(eTag, CustomFieldsImpl.definitionsETag(1, "tenant_b", "entityType==user", 0, 10, "en"));
+    assertNotEquals(eTag, CustomFieldsImpl.definitionsETag(1, "tenant_a", "entityType==user", 0, 10, null));
+    assertNotEquals(CustomFieldsImpl.definitionsETag(1, "tenant_a", "a", 0, 10, "b,c"),
+      CustomFieldsImpl.definitionsETag(1, "tenant_a", "a,b", 0, 10, "c"));
+  }
+
+  @Test
+  public void shouldReturnNewETagWhenFieldsChanged() throws IOException, URISyntaxException, InterruptedException {
+    createFieldsMultipleEntityTypes();
+    String eTag = awaitStableETag(CUSTOM_FIELDS_PATH);
+
+    createCustomField(readFile("fields/post/postCustomField2.json"));
+
+    String newETag = getWithStatus(CUSTOM_FIELDS_PATH, SC_OK, new Header("If-None-Match", eTag)).header("ETag");
+    assertNotEquals(eTag, newETag);
+  }
+
+  @Test
+  public void shouldNotReturnETagWhileChangesOfOtherInstancesAreNotReceived() throws Exception {
+    createFieldsMultipleEntityTypes();
+    String eTag = awaitStableETag(CUSTOM_FIELDS_PATH);
+
+    changeListener.stop().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    try {
+      assertNull(getWithStatus(CUSTOM_FIELDS_PATH, SC_OK, new Header("If-None-Match", eTag)).header("ETag"));
+    } finally {
+      changeListener.start().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+  }
+
   @Test
   public void shouldReturn400OnInvalidLimit() {
     String error = getWithStatus(CUSTOM_FIELDS_PATH + "?limit=-1", SC_BAD_REQUEST).asString();
@@ -722,6 +795,43 @@ public class CustomFieldsImplTest extends TestBase {
     assertThat(error, containsString("'id' parameter is incorrect"));
   }
 
+  @Test
+  public void shouldRenumberOrderOfEntityTypeOnDelete() throws IOException, URISyntaxException {
+    CustomField firstUserField = createCustomField(readFile("fields/post/postCustomField.json"));
+    CustomField packageField = createCustomField(readFile("fields/post/postCustomField-package.json"));
+    CustomField secondUserField = createCustomField(readFile("fields/post/postCustomField2.json"));
+
+    deleteWithNoContent(itemResourcePath(firstUserField.getId()));
+
+    CustomField userField = getWithOk(itemResourcePath(secondUserField.getId())).as(CustomField.class);
+    CustomField otherField = getWithOk(itemResourcePath(packageField.getId())).as(CustomField.class);
+    assertEquals(1, (int) userField.getOrder());
+    assertEquals(1, (int) otherField.getOrder());
+  }
+
+  @Test
+  public void shouldDeleteCustomFieldsByIds() throws IOException, URISyntaxException {
+    CustomField firstUserField = createCustomField(readFile("fields/post/postCustomField.json"));
+    CustomField packageField = createCustomField(readFile("fields/post/postCustomField-package.json"));
+    CustomField secondUserField = createCustomField(readFile("fields/post/postCustomField2.json"));
+
+    deleteWithNoContent(CUSTOM_FIELDS_PATH + "?ids=" + firstUserField.getId() + "," + packageField.getId());
+
+    getWithStatus(itemResourcePath(firstUserField.getId()), SC_NOT_FOUND);
+    getWithStatus(itemResourcePath(packageField.getId()), SC_NOT_FOUND);
+    CustomField userField = getWithOk(itemResourcePath(secondUserField.getId())).as(CustomField.class);
+    assertEquals(1, (int) userField.getOrder());
+  }
+
+  @Test
+  public void shouldNotDeleteCustomFieldsByIdsIfAnyIsNotFound() throws IOException, URISyntaxException {
+    CustomField customField = createCustomField(readFile("fields/post/postCustomField.json"));
+
+    deleteWithStatus(CUSTOM_FIELDS_PATH + "?ids=" + customField.getId() + "," + STUB_FIELD_ID, SC_NOT_FOUND);
+
+    getWithOk(itemResourcePath(customField.getId()));
+  }
+
   @Test
   public void shouldDeleteAndGenerateNewRefId() throws IOException, URISyntaxException {
     CustomField customFieldOne = createCustomField(readFile("fields/post/postCustomField.json"));
@@ -763,6 +873,25 @@ public class CustomFieldsImplTest extends TestBase {
       .withCount(0));
   }
 
+  @Test
+  public void shouldReturnEmptyOptionsStatsForCheckbox() throws IOException, URISyntaxException {
+    CustomField field = createCustomField(readFile("fields/post/checkbox/postCheckbox.json"));
+    CustomFieldOptionStatisticCollection stats = getWithOk(itemOptionsStatResourcePath(field.getId()))
+      .as(CustomFieldOptionStatisticCollection.class);
+
+    assertEquals(List.of("true", "false"), stats.getStats().stream()
+      .map(CustomFieldOptionStatistic::getOptionId)
+      .collect(Collectors.toList()));
+    assertEquals(0, (int) stats.getAbsentCount());
+  }
+
+  @Test
+  @SuppressWarnings("squid:S2699")
+  public void shouldReturn422OnGetOptionsStatsForTextbox() throws IOException, URISyntaxException {
+    CustomField field = createCustomField(readFile("fields/post/postCustomField.json"));
+    getWithStatus(itemOptionsStatResourcePath(field.getId()), SC_UNPROCESSABLE_ENTITY);
+  }
+
   @Test
   @SuppressWarnings("squid:S2699")
   public void shouldReturn404OnGetOptionStatsForNotExistingField() {
@@ -801,6 +930,22 @@ public class CustomFieldsImplTest extends TestBase {
     createCustomField(readFile("fields/post/postCustomField-package.json"));
   }
 
+  /**
+   * Returns the ETag once the change listener is subscribed and notifications of previous writes are received.
+   */
+  private String awaitStableETag(String resourcePath) throws InterruptedException {
+    String previous = null;
+    for (int i = 0; i < 50; i++) {
+      String eTag = getWithOk(resourcePath).header("ETag");
+      if (eTag != null && eTag.equals(previous)) {
+        return eTag;
+      }
+      previous = eTag;
+      Thread.sleep(200);
+    }
+    throw new AssertionError("ETag of " + resourcePath + " is not stable");
+  }
+
   private CustomField createCustomField(String postBody) {
     return postWithStatus(CUSTOM_FIELDS_PATH, postBody, SC_CREATED, USER1_HEADER).as(CustomField.class);
   }
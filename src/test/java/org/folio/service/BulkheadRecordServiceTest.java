@@ -0,0 +1,156 @@
+package org.folio.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.folio.model.RecordUpdate;
+import org.folio.rest.jaxrs.model.CustomField;
+import org.folio.rest.jaxrs.model.CustomFieldOptionStatistic;
+import org.folio.rest.jaxrs.model.CustomFieldOptionStatisticCollection;
+import org.folio.rest.jaxrs.model.CustomFieldStatistic;
+import org.folio.rest.persist.Conn;
+
+public class BulkheadRecordServiceTest {
+
+  private final CustomField field = new CustomField().withId("id").withRefId("department").withEntityType("user");
+
+  private PendingRecordService delegate;
+
+  @Before
+  public void setUp() {
+    delegate = new PendingRecordService();
+  }
+
+  @Test
+  public void shouldQueueAndRejectStatisticsOverTenantLimit() {
+    RecordService recordService = new BulkheadRecordService(delegate, 10, 1, 1, 1);
+
+    Future<CustomFieldStatistic> first = recordService.retrieveStatistic(field, "tenant");
+    Future<CustomFieldStatistic> second = recordService.retrieveStatistic(field, "tenant");
+    Future<CustomFieldStatistic> third = recordService.retrieveStatistic(field, "tenant");
+
+    assertEquals(List.of("tenant"), delegate.calls);
+    assertTrue(third.failed());
+    assertTrue(third.cause() instanceof TooManyRequestsException);
+
+    delegate.complete(0);
+    assertTrue(first.succeeded());
+    assertFalse(second.isComplete());
+    assertEquals(List.of("tenant", "tenant"), delegate.calls);
+  }
+
+  @Test
+  public void shouldQueueDeletionsEvenIfQueueIsFull() {
+    RecordService recordService = new BulkheadRecordService(delegate, 10, 1, 0, 1);
+
+    recordService.retrieveStatistic(field, "tenant");
+    Future<Void> deletion = recordService.deleteAllValues(field, "tenant");
+
+    assertFalse(deletion.isComplete());
+    delegate.complete(0);
+    delegate.complete(1);
+    assertTrue(deletion.succeeded());
+  }
+
+  @Test
+  public void shouldLetTenantsTakeTurns() {
+    RecordService recordService = new BulkheadRecordService(delegate, 1, 1, 10, 1);
+
+    recordService.retrieveStatistic(field, "tenant1");
+    recordService.retrieveStatistic(field, "tenant1");
+    recordService.retrieveStatistic(field, "tenant1");
+    recordService.retrieveStatistic(field, "tenant2");
+    delegate.complete(0);
+    delegate.complete(1);
+    delegate.complete(2);
+
+    assertEquals(List.of("tenant1", "tenant1", "tenant2", "tenant1"), delegate.calls);
+  }
+
+  @Test
+  public void shouldNotLimitRequestsWithChunkedDeletions() {
+    RecordService recordService = new BulkheadRecordService(delegate, 1, 1, 0, 1);
+
+    Future<Long> deletion = recordService.deleteAllValuesInChunks(field, 100, "tenant");
+    Future<Long> otherDeletion = recordService.deleteAllValuesInChunks(field, 100, "tenant");
+    Future<CustomFieldStatistic> statistic = recordService.retrieveStatistic(field, "tenant");
+
+    assertEquals(List.of("tenant", "tenant"), delegate.calls);
+    assertFalse(otherDeletion.isComplete());
+    delegate.complete(1);
+    assertTrue(statistic.succeeded());
+    delegate.complete(0);
+    assertTrue(deletion.succeeded());
+    assertEquals(List.of("tenant", "tenant", "tenant"), delegate.calls);
+  }
+
+  private static class PendingRecordService implements RecordService {
+
+    private final List<String> calls = new ArrayList<>();
+    private final List<Promise<?>> promises = new ArrayList<>();
+
+    private void complete(int call) {
+      promises.get(call).tryComplete();
+    }
+
+    private <T> Future<T> pending(String tenantId) {
+      Promise<T> promise = Promise.promise();
+      calls.add(tenantId);
+      promises.add(promise);
+      return promise.future();
+    }
+
+    @Override
+    public Future<CustomFieldStatistic> retrieveStatistic(CustomField field, String tenantId) {
+      return pending(tenantId);
+    }
+
+    @Override
+    public Future<List<CustomFieldStatistic>> retrieveStatistics(List<CustomField> fields, boolean approximate,
+                                                                 String tenantId) {
+      return pending(tenantId);
+    }
+
+    @Override
+    public Future<CustomFieldOptionStatistic> retrieveOptionStatistic(CustomField field, String optId,
+                                                                      String tenantId) {
+      return pending(tenantId);
+    }
+
+    @Override
+    public Future<CustomFieldOptionStatisticCollection> retrieveOptionStatistics(CustomField field,
+                                                                                 boolean approximate,
+                                                                                 String tenantId) {
+      return pending(tenantId);
+    }
+
+    @Override
+    public Future<Void> deleteAllValues(CustomField field, String tenantId) {
+      return pending(tenantId);
+    }
+
+    @Override
+    public Future<Long> deleteAllValuesInChunks(CustomField field, int chunkSize, String tenantId) {
+      return pending(tenantId);
+    }
+
+    @Override
+    public Future<Void> deleteAllValues(Conn conn, CustomField field, String tenantId) {
+      return pending(tenantId);
+    }
+
+    @Override
+    public Future<Void> deleteMissedOptionValues(RecordUpdate recordUpdate, String tenantId) {
+      return pending(tenantId);
+    }
+  }
+}
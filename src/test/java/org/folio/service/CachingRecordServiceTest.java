@@ -0,0 +1,132 @@
+package org.folio.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.folio.model.CacheStats;
+import org.folio.model.RecordUpdate;
+import org.folio.rest.jaxrs.model.CustomField;
+import org.folio.rest.jaxrs.model.CustomFieldOptionStatistic;
+import org.folio.rest.jaxrs.model.CustomFieldStatistic;
+import org.folio.rest.persist.Conn;
+
+public class CachingRecordServiceTest {
+
+  private static final String TENANT = "tenant";
+
+  private final AtomicLong now = new AtomicLong();
+  private final CustomField field = new CustomField().withId("id").withRefId("department").withEntityType("user");
+
+  private CountingRecordService delegate;
+  private CachingRecordService recordService;
+
+  @Before
+  public void setUp() {
+    delegate = new CountingRecordService();
+    recordService = new CachingRecordService(delegate, 10, 60, 300, now::get);
+  }
+
+  @Test
+  public void shouldServeFreshStatisticFromCache() {
+    CustomFieldStatistic first = recordService.retrieveStatistic(field, TENANT).result();
+    now.set(TimeUnit.SECONDS.toNanos(59));
+    CustomFieldStatistic second = recordService.retrieveStatistic(field, TENANT).result();
+
+    assertSame(first, second);
+    assertEquals(1, delegate.loads.get());
+  }
+
+  @Test
+  public void shouldServeStaleStatisticAndRefreshInBackground() {
+    recordService.retrieveStatistic(field, TENANT);
+    now.set(TimeUnit.SECONDS.toNanos(61));
+
+    assertEquals(1, (int) recordService.retrieveStatistic(field, TENANT).result().getCount());
+    assertEquals(2, (int) recordService.retrieveStatistic(field, TENANT).result().getCount());
+    assertEquals(2, delegate.loads.get());
+  }
+
+  @Test
+  public void shouldReloadExpiredStatistic() {
+    recordService.retrieveStatistic(field, TENANT);
+    now.set(TimeUnit.SECONDS.toNanos(360));
+
+    assertEquals(2, (int) recordService.retrieveStatistic(field, TENANT).result().getCount());
+  }
+
+  @Test
+  public void shouldCountHitsAndMisses() {
+    recordService.retrieveStatistic(field, TENANT);
+    recordService.retrieveStatistic(field, TENANT);
+    recordService.retrieveStatistic(field, true, TENANT);
+
+    CacheStats stats = recordService.getStats();
+    assertEquals(1, stats.getHits());
+    assertEquals(2, stats.getMisses());
+    assertEquals(2, stats.getSize());
+  }
+
+  @Test
+  public void shouldShareLoadOfConcurrentRequests() {
+    delegate.pending = Promise.promise();
+
+    Future<CustomFieldStatistic> first = recordService.retrieveStatistic(field, TENANT);
+    Future<CustomFieldStatistic> second = recordService.retrieveStatistic(field, TENANT);
+    delegate.pending.complete(new CustomFieldStatistic().withCount(1));
+
+    assertSame(first.result(), second.result());
+    assertEquals(1, delegate.loads.get());
+  }
+
+  @Test
+  public void shouldInvalidateStatisticWhenValuesAreDeleted() {
+    recordService.retrieveStatistic(field, TENANT);
+    recordService.deleteAllValues(field, TENANT);
+
+    assertEquals(2, (int) recordService.retrieveStatistic(field, TENANT).result().getCount());
+  }
+
+  private static class CountingRecordService implements RecordService {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private Promise<CustomFieldStatistic> pending;
+
+    @Override
+    public Future<CustomFieldStatistic> retrieveStatistic(CustomField field, String tenantId) {
+      int count = loads.incrementAndGet();
+      return pending != null
+        ? pending.future()
+        : Future.succeededFuture(new CustomFieldStatistic().withFieldId(field.getId()).withCount(count));
+    }
+
+    @Override
+    public Future<CustomFieldOptionStatistic> retrieveOptionStatistic(CustomField field, String optId,
+                                                                      String tenantId) {
+      return Future.succeededFuture(new CustomFieldOptionStatistic());
+    }
+
+    @Override
+    public Future<Void> deleteAllValues(CustomField field, String tenantId) {
+      return Future.succeededFuture();
+    }
+
+    @Override
+    public Future<Void> deleteAllValues(Conn conn, CustomField field, String tenantId) {
+      return Future.succeededFuture();
+    }
+
+    @Override
+    public Future<Void> deleteMissedOptionValues(RecordUpdate recordUpdate, String tenantId) {
+      return Future.succeededFuture();
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package org.folio.service;
+
+import static org.folio.repository.CustomFieldsConstants.CUSTOM_FIELD_JOB_TABLE;
+import static org.folio.test.util.DBTestUtil.deleteFromTable;
+import static org.folio.test.util.TestUtil.STUB_TENANT;
+
+import java.util.List;
+import java.util.UUID;
+
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.folio.model.RecordUpdate;
+import org.folio.repository.CustomFieldJobRepository;
+import org.folio.rest.jaxrs.model.CustomField;
+import org.folio.rest.jaxrs.model.CustomFieldJob;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.spring.SpringContextUtil;
+import org.folio.test.util.TestBase;
+
+@RunWith(VertxUnitRunner.class)
+public class CustomFieldJobWorkerTest extends TestBase {
+
+  @Autowired
+  private CustomFieldJobWorker worker;
+  @Autowired
+  private CustomFieldJobRepository repository;
+  @Autowired
+  private CustomFieldsService customFieldsService;
+
+  private final CustomField field = new CustomField().withId(UUID.randomUUID().toString())
+    .withName("Department").withRefId("department").withEntityType("user").withType(CustomField.Type.TEXTBOX_SHORT);
+
+  @Before
+  public void setUp() {
+    SpringContextUtil.autowireDependenciesFromFirstContext(this, vertx);
+  }
+
+  @After
+  public void tearDown() {
+    deleteFromTable(vertx, CUSTOM_FIELD_JOB_TABLE);
+  }
+
+  @Test
+  public void shouldProcessEnqueuedJobs(TestContext context) {
+    Async async = context.async();
+    RecordUpdate recordUpdate = new RecordUpdate(field, List.of("opt_1"), List.of());
+    PostgresClient.getInstance(vertx, STUB_TENANT)
+      .withTrans(conn -> worker.enqueueValuesDeletion(field, conn)
+        .compose(v -> worker.enqueueOptionValuesDeletion(recordUpdate, conn)))
+      .compose(v -> worker.process(STUB_TENANT))
+      .compose(processed -> {
+        context.assertEquals(2, processed);
+        return customFieldsService.findJobs(field.getId(), STUB_TENANT);
+      })
+      .onComplete(context.asyncAssertSuccess(jobs -> {
+        context.assertEquals(2, jobs.getTotalRecords());
+        jobs.getJobs().forEach(job -> {
+          context.assertEquals(CustomFieldJob.Status.COMPLETED, job.getStatus());
+          context.assertEquals(1, job.getAttempts());
+        });
+        context.assertEquals(List.of("opt_1"), jobs.getJobs().stream()
+          .filter(job -> job.getType() == CustomFieldJob.Type.DELETE_OPTION_VALUES)
+          .findFirst().orElseThrow().getOptionIds());
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void shouldNotClaimLeasedJob(TestContext context) {
+    Async async = context.async();
+    PostgresClient.getInstance(vertx, STUB_TENANT)
+      .withTrans(conn -> worker.enqueueValuesDeletion(field, conn))
+      .compose(job -> repository.claimNext(60, STUB_TENANT))
+      .compose(claimed -> {
+        context.assertEquals(CustomFieldJob.Status.IN_PROGRESS, claimed.orElseThrow().getStatus());
+        return repository.claimNext(60, STUB_TENANT);
+      })
+      .onComplete(context.asyncAssertSuccess(claimed -> {
+        context.assertTrue(claimed.isEmpty());
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void shouldReclaimJobWithExpiredLease(TestContext context) {
+    Async async = context.async();
+    // the first claim stands for an instance that stopped while processing the job
+    PostgresClient.getInstance(vertx, STUB_TENANT)
+      .withTrans(conn -> worker.enqueueValuesDeletion(field, conn))
+      .compose(job -> repository.claimNext(0, STUB_TENANT))
+      .compose(claimed -> worker.process(STUB_TENANT))
+      .compose(processed -> {
+        context.assertEquals(1, processed);
+        return customFieldsService.findJobs(field.getId(), STUB_TENANT);
+      })
+      .onComplete(context.asyncAssertSuccess(jobs -> {
+        CustomFieldJob job = jobs.getJobs().getFirst();
+        context.assertEquals(CustomFieldJob.Status.COMPLETED, job.getStatus());
+        context.assertEquals(2, job.getAttempts());
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void shouldNotUpdateJobFromAttemptWithExpiredLease(TestContext context) {
+    Async async = context.async();
+    PostgresClient.getInstance(vertx, STUB_TENANT)
+      .withTrans(conn -> worker.enqueueValuesDeletion(field, conn))
+      .compose(job -> repository.claimNext(0, STUB_TENANT))
+      .compose(expired -> repository.claimNext(60, STUB_TENANT)
+        .compose(current -> {
+          context.assertEquals(2, current.orElseThrow().getAttempts());
+          CustomFieldJob job = expired.orElseThrow();
+          return repository.renewLease(job.getId(), job.getAttempts(), 60, STUB_TENANT)
+            .compose(renewed -> {
+              context.assertFalse(renewed);
+              return repository.update(job.withStatus(CustomFieldJob.Status.FAILED), 0, STUB_TENANT);
+            })
+            .compose(updated -> {
+              context.assertFalse(updated);
+              return repository.renewLease(job.getId(), current.get().getAttempts(), 60, STUB_TENANT);
+            })
+            .compose(renewed -> {
+              context.assertTrue(renewed);
+              return repository.findById(job.getId(), STUB_TENANT);
+            });
+        }))
+      .onComplete(context.asyncAssertSuccess(job -> {
+        context.assertEquals(CustomFieldJob.Status.IN_PROGRESS, job.orElseThrow().getStatus());
+        context.assertEquals(2, job.get().getAttempts());
+        async.complete();
+      }));
+  }
+}
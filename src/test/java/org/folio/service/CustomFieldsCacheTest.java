@@ -0,0 +1,104 @@
+package org.folio.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.vertx.core.Future;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.folio.model.CacheStats;
+import org.folio.rest.jaxrs.model.CustomField;
+
+public class CustomFieldsCacheTest {
+
+  private static final String TENANT_1 = "tenant1";
+  private static final String TENANT_2 = "tenant2";
+
+  private AtomicInteger loads;
+  private Supplier<Future<List<CustomField>>> loader;
+
+  @Before
+  public void setUp() {
+    loads = new AtomicInteger();
+    loader = () -> {
+      loads.incrementAndGet();
+      return Future.succeededFuture(List.of(new CustomField().withRefId("field")));
+    };
+  }
+
+  @Test
+  public void shouldLoadDefinitionsOnceUntilInvalidated() {
+    CustomFieldsCache cache = new CustomFieldsCache(10, 300);
+
+    List<CustomField> first = cache.get(TENANT_1, "user", loader).result();
+    List<CustomField> second = cache.get(TENANT_1, "user", loader).result();
+    assertSame(first, second);
+    assertEquals(1, loads.get());
+
+    cache.invalidate(TENANT_1);
+    cache.get(TENANT_1, "user", loader);
+    assertEquals(2, loads.get());
+
+    CacheStats stats = cache.getStats();
+    assertEquals(1, stats.getHits());
+    assertEquals(2, stats.getMisses());
+  }
+
+  @Test
+  public void shouldInvalidateOnlyGivenTenant() {
+    CustomFieldsCache cache = new CustomFieldsCache(10, 300);
+
+    cache.get(TENANT_1, "user", loader);
+    cache.get(TENANT_1, null, loader);
+    cache.get(TENANT_2, "user", loader);
+    cache.invalidate(TENANT_1);
+
+    assertEquals(1, cache.getStats().getSize());
+    cache.get(TENANT_2, "user", loader);
+    assertEquals(3, loads.get());
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedEntry() {
+    CustomFieldsCache cache = new CustomFieldsCache(2, 300);
+
+    cache.get(TENANT_1, "user", loader);
+    cache.get(TENANT_2, "user", loader);
+    cache.get(TENANT_1, "user", loader);
+    cache.get(TENANT_1, "package", loader);
+
+    CacheStats stats = cache.getStats();
+    assertEquals(1, stats.getEvictions());
+    assertEquals(2, stats.getSize());
+
+    cache.get(TENANT_1, "user", loader);
+    assertEquals(3, loads.get());
+  }
+
+  @Test
+  public void shouldNotCacheFailedLoad() {
+    CustomFieldsCache cache = new CustomFieldsCache(10, 300);
+
+    assertTrue(cache.get(TENANT_1, "user", () -> Future.failedFuture("db error")).failed());
+    cache.get(TENANT_1, "user", loader);
+
+    assertEquals(1, loads.get());
+    assertEquals(2, cache.getStats().getMisses());
+  }
+
+  @Test
+  public void shouldReloadExpiredEntry() {
+    CustomFieldsCache cache = new CustomFieldsCache(10, 0);
+
+    cache.get(TENANT_1, "user", loader);
+    cache.get(TENANT_1, "user", loader);
+
+    assertEquals(2, loads.get());
+  }
+}
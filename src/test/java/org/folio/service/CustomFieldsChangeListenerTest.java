@@ -0,0 +1,119 @@
+package org.folio.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import static org.folio.repository.CustomFieldsConstants.CUSTOM_FIELDS_TABLE;
+import static org.folio.test.util.TestUtil.STUB_TENANT;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.pgclient.PgConnectOptions;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.folio.rest.jaxrs.model.CustomField;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.spring.SpringContextUtil;
+import org.folio.test.util.TestBase;
+
+@RunWith(VertxUnitRunner.class)
+public class CustomFieldsChangeListenerTest extends TestBase {
+
+  private static final long POLL_MILLIS = 50;
+  private static final long TIMEOUT_MILLIS = 10_000;
+
+  @Autowired
+  private CustomFieldsChangeListener listener;
+  @Autowired
+  private CustomFieldsCache cache;
+
+  @Before
+  public void setUp() {
+    SpringContextUtil.autowireDependenciesFromFirstContext(this, vertx);
+  }
+
+  @Test
+  public void shouldResolveTenantFromSchema() {
+    String schema = PostgresClient.convertToPsqlStandard("diku");
+
+    assertEquals("diku", CustomFieldsChangeListener.toTenantId(schema));
+  }
+
+  @Test
+  public void shouldIgnoreSchemaOfOtherModule() {
+    assertNull(CustomFieldsChangeListener.toTenantId("diku_mod_other"));
+    assertNull(CustomFieldsChangeListener.toTenantId(null));
+  }
+
+  @Test
+  public void shouldEvictDefinitionsOnNotificationOfChangeByOtherInstance(TestContext context) {
+    AtomicInteger loads = new AtomicInteger();
+    Supplier<Future<List<CustomField>>> loader = () -> {
+      loads.incrementAndGet();
+      return Future.succeededFuture(List.of());
+    };
+    long[] generation = new long[1];
+    // a change made by another instance reaches this one only by the table trigger
+    String update = "UPDATE " + PostgresClient.convertToPsqlStandard(STUB_TENANT) + "." + CUSTOM_FIELDS_TABLE
+      + " SET jsonb = jsonb";
+
+    listener.start()
+      .compose(v -> await(listener::isListening))
+      .compose(v -> {
+        cache.invalidate(STUB_TENANT);
+        return cache.get(STUB_TENANT, "user", loader);
+      })
+      .compose(v -> {
+        generation[0] = cache.getGeneration(STUB_TENANT);
+        return PostgresClient.getInstance(vertx, STUB_TENANT).execute(update);
+      })
+      .compose(v -> await(() -> cache.getGeneration(STUB_TENANT) > generation[0]))
+      .compose(v -> cache.get(STUB_TENANT, "user", loader))
+      .onComplete(context.asyncAssertSuccess(v -> context.assertEquals(2, loads.get())));
+  }
+
+  @Test
+  public void shouldRetryWhenFirstConnectFails(TestContext context) {
+    AtomicInteger connects = new AtomicInteger();
+    CustomFieldsChangeListener failingFirst = new CustomFieldsChangeListener() {
+      @Override
+      PgConnectOptions connectOptions() {
+        PgConnectOptions options = super.connectOptions();
+        // nothing listens on port 1, so the first connection is refused
+        return connects.getAndIncrement() == 0 ? options.setPort(1) : options;
+      }
+    };
+    SpringContextUtil.autowireDependenciesFromFirstContext(failingFirst, vertx);
+
+    failingFirst.start()
+      .otherwise(e -> null)
+      .compose(v -> await(failingFirst::isListening))
+      .eventually(failingFirst::stop)
+      .onComplete(context.asyncAssertSuccess(v -> context.assertEquals(2, connects.get())));
+  }
+
+  private Future<Void> await(BooleanSupplier condition) {
+    Promise<Void> promise = Promise.promise();
+    long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    vertx.setPeriodic(0, POLL_MILLIS, id -> {
+      if (condition.getAsBoolean()) {
+        vertx.cancelTimer(id);
+        promise.tryComplete();
+      } else if (System.currentTimeMillis() > deadline) {
+        vertx.cancelTimer(id);
+        promise.tryFail("Condition not met in " + TIMEOUT_MILLIS + " ms");
+      }
+    });
+    return promise.future();
+  }
+}
@@ -2,8 +2,10 @@ package org.folio.service;
 
 import static io.restassured.RestAssured.given;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.folio.CustomFieldsTestUtil.CUSTOM_FIELDS_PATH;
 import static org.folio.repository.CustomFieldsConstants.CUSTOM_FIELDS_TABLE;
+import static org.folio.repository.CustomFieldsConstants.REF_ID_COUNTER_TABLE;
 import static org.folio.service.RecordServiceImplTest.CustomFieldAssert.assertThatCustomField;
 import static org.folio.service.RecordServiceImplTest.CustomFieldAssert.assertThatCustomFieldOf;
 import static org.folio.service.RecordServiceImplTest.CustomFieldsAssert.assertThatCustomFieldsOf;
@@ -28,6 +30,7 @@ import io.vertx.sqlclient.Tuple;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -37,9 +40,13 @@ import org.folio.postgres.testing.PostgresTesterContainer;
 import org.folio.rest.RestVerticle;
 import org.folio.rest.client.TenantClient;
 import org.folio.rest.jaxrs.model.CustomField;
+import org.folio.rest.jaxrs.model.CustomFieldIndex;
+import org.folio.rest.jaxrs.model.CustomFieldIndexCollection;
 import org.folio.rest.jaxrs.model.CustomField.Type;
 import org.folio.rest.jaxrs.model.CustomFieldOptionStatistic;
+import org.folio.rest.jaxrs.model.CustomFieldOptionStatisticCollection;
 import org.folio.rest.jaxrs.model.CustomFieldStatistic;
+import org.folio.rest.jaxrs.model.CustomFieldStatisticCollection;
 import org.folio.rest.jaxrs.model.PutCustomFieldCollection;
 import org.folio.rest.jaxrs.model.SelectField;
 import org.folio.rest.jaxrs.model.SelectFieldOption;
@@ -175,7 +182,7 @@ public class RecordServiceImplTest {
 
   private static Future<Void> clearTables() {
     return Future.all(
-        Stream.of("table1", "table2", "templates", CUSTOM_FIELDS_TABLE)
+        Stream.of("table1", "table2", "templates", CUSTOM_FIELDS_TABLE, REF_ID_COUNTER_TABLE)
           .map(tableName -> pgClient.execute("TRUNCATE TABLE " + tableName))
           .toList())
       .mapEmpty();
@@ -329,6 +336,81 @@ public class RecordServiceImplTest {
           }));
   }
 
+  @Test
+  public void testDeleteAllValuesOfMultipleFieldsMultiTable(TestContext context) {
+    RecordService recordService = RecordServiceImpl.createForMultipleTables(
+      vertx,
+      Map.of("entityType1", List.of("table1", "templates"), "entityType2", List.of("table2", "templates")));
+
+    pgClient.withTrans(conn -> recordService.deleteAllValues(conn,
+        List.of(customFieldsType1.get(0), customFieldsType1.get(2)), TENANT))
+      .compose(v -> fetchAllEntities())
+      .onComplete(
+        context.asyncAssertSuccess(
+          res -> {
+            assertThatCustomFieldsOf(res.get(0))
+              .allSatisfy(
+                cf -> assertThatCustomField(cf).hasSize(1)
+                  .doesNotContainKey("textbox")
+                  .doesNotContainKey("multiselect"));
+            assertThat(res.get(1)).containsExactlyInAnyOrderElementsOf(entitiesType2);
+            assertThatCustomFieldOf(res.get(2).get(0))
+              .hasSize(4)
+              .doesNotContainKey("textbox")
+              .doesNotContainKey("multiselect");
+          }));
+  }
+
+  @Test
+  public void testDeleteAllValuesInChunksMultiTable(TestContext context) {
+    RecordService recordService = RecordServiceImpl.createForMultipleTables(
+      vertx,
+      Map.of("entityType1", List.of("table1", "templates"), "entityType2", List.of("table2", "templates")),
+      RecordServiceOptions.builder().deleteChunkPauseMillis(1).build());
+
+    recordService.deleteAllValuesInChunks(customFieldsType1.get(0), 1, TENANT)
+      .compose(deleted -> {
+        assertThat(deleted).isEqualTo(3);
+        return fetchAllEntities();
+      })
+      .onComplete(
+        context.asyncAssertSuccess(
+          res -> {
+            assertThatCustomFieldsOf(res.get(0))
+              .allSatisfy(
+                cf -> assertThatCustomField(cf).hasSize(2).doesNotContainKey("textbox"));
+            assertThat(res.get(1)).containsExactlyInAnyOrderElementsOf(entitiesType2);
+            assertThatCustomFieldOf(res.get(2).get(0))
+              .hasSize(5)
+              .doesNotContainKey("textbox");
+          }));
+  }
+
+  @Test
+  public void testDeleteAllValuesOfMultipleFieldsInChunksMultiTable(TestContext context) {
+    RecordService recordService = RecordServiceImpl.createForMultipleTables(
+      vertx,
+      Map.of("entityType1", List.of("table1", "templates"), "entityType2", List.of("table2", "templates")),
+      RecordServiceOptions.builder().deleteChunkSize(1).deleteChunkPauseMillis(1).build());
+
+    recordService.deleteAllValues(List.of(customFieldsType1.get(0), customFieldsType1.get(2)), TENANT)
+      .compose(v -> fetchAllEntities())
+      .onComplete(
+        context.asyncAssertSuccess(
+          res -> {
+            assertThatCustomFieldsOf(res.get(0))
+              .allSatisfy(
+                cf -> assertThatCustomField(cf).hasSize(1)
+                  .doesNotContainKey("textbox")
+                  .doesNotContainKey("multiselect"));
+            assertThat(res.get(1)).containsExactlyInAnyOrderElementsOf(entitiesType2);
+            assertThatCustomFieldOf(res.get(2).get(0))
+              .hasSize(4)
+              .doesNotContainKey("textbox")
+              .doesNotContainKey("multiselect");
+          }));
+  }
+
   @Test
   public void testPutByIdRemoveMultipleOptionsSingleTable(TestContext context) {
     SpringContextUtil.init(vertx, getFirstContextFromDeployments(), TestConfigSingleTable.class);
@@ -406,6 +488,35 @@ public class RecordServiceImplTest {
                 List.of(entitiesType1, entitiesType2, entitiesTemplates))));
   }
 
+  @Test
+  public void testDeleteMissedOptionValuesUsesGinIndex(TestContext context) {
+    CustomField multiselect = customFieldsType1.get(2);
+    Tuple params = Tuple.tuple()
+      .addString(multiselect.getRefId())
+      .addArrayOfString(new String[] {"opt_1", "opt_2"})
+      .addString(RecordServiceImpl.optionValuesPath(multiselect.getRefId(), List.of("opt_1", "opt_2")));
+
+    pgClient.execute("CREATE INDEX table1_custom_fields_path_idx ON table1 USING gin ((jsonb->'customFields') jsonb_path_ops)")
+      .compose(v -> pgClient.withTrans(conn -> conn.execute("SET LOCAL enable_seqscan = off")
+        .compose(x -> conn.execute(
+          "EXPLAIN " + String.format(RecordServiceImpl.DELETE_OPTION_VALUES, "table1"), params))))
+      .eventually(() -> pgClient.execute("DROP INDEX table1_custom_fields_path_idx"))
+      .onComplete(
+        context.asyncAssertSuccess(
+          rows -> {
+            String plan = Streams.stream(rows).map(row -> row.getString(0)).collect(Collectors.joining("\n"));
+            assertThat(plan)
+              .contains("Bitmap Index Scan on table1_custom_fields_path_idx")
+              .doesNotContain("SubPlan");
+          }));
+  }
+
+  @Test
+  public void testOptionValuesPathQuotesIds() {
+    assertThat(RecordServiceImpl.optionValuesPath("multi\"select", List.of("opt_1", "opt\\2")))
+      .isEqualTo("$.\"multi\\\"select\" ? (@ == \"opt_1\" || @ == \"opt\\\\2\")");
+  }
+
   @Test
   public void testPutPutCustomFieldCollectionMultiTable(TestContext context) {
     SpringContextUtil.init(vertx, getFirstContextFromDeployments(), TestConfigMultiTable.class);
@@ -465,6 +576,24 @@ public class RecordServiceImplTest {
     assertThat(customFieldStatistic.getCount()).isZero();
   }
 
+  @Test
+  public void testRetrieveStatisticsMultiTable() {
+    SpringContextUtil.init(vertx, getFirstContextFromDeployments(), TestConfigMultiTable.class);
+    CustomFieldStatisticCollection statistics = getCustomFieldStatistics("entityType1");
+    assertThat(statistics.getTotalRecords()).isEqualTo(3);
+    assertThat(statistics.getStats())
+      .extracting(CustomFieldStatistic::getFieldId)
+      .containsExactlyElementsOf(customFieldsType1.stream().map(CustomField::getId).toList());
+    assertThat(statistics.getStats()).extracting(CustomFieldStatistic::getCount).containsExactly(3, 3, 3);
+  }
+
+  @Test
+  public void testRetrieveStatisticsUnused() {
+    SpringContextUtil.init(vertx, getFirstContextFromDeployments(), TestConfigSingleTable.class);
+    CustomFieldStatisticCollection statistics = getCustomFieldStatistics("entityType3");
+    assertThat(statistics.getStats()).extracting(CustomFieldStatistic::getCount).containsExactly(0, 0, 0);
+  }
+
   @Test
   public void testRetrieveOptionStatisticSingleTable() {
     SpringContextUtil.init(vertx, getFirstContextFromDeployments(), TestConfigSingleTable.class);
@@ -495,6 +624,182 @@ public class RecordServiceImplTest {
     assertThat(customFieldOptionStatistic.getCount()).isZero();
   }
 
+  @Test
+  public void testRetrieveOptionStatisticsMultiTable() {
+    SpringContextUtil.init(vertx, getFirstContextFromDeployments(), TestConfigMultiTable.class);
+    CustomFieldOptionStatisticCollection statistics = getCustomFieldOptionStatistics(customFieldsType1.get(2));
+    assertThat(statistics.getStats())
+      .extracting(CustomFieldOptionStatistic::getOptionId)
+      .containsExactly("opt_0", "opt_1", "opt_2", "opt_3");
+    assertThat(statistics.getStats()).extracting(CustomFieldOptionStatistic::getCount).containsExactly(0, 2, 3, 1);
+    assertThat(statistics.getAbsentCount()).isZero();
+  }
+
+  @Test
+  public void testRetrieveStatisticsFromUsageCounters(TestContext context) {
+    RecordService recordService = RecordServiceImpl.createForMultipleTables(
+      vertx,
+      Map.of("entityType1", List.of("table1", "templates"), "entityType2", List.of("table2", "templates")),
+      RecordServiceOptions.builder().usageCounters(true).build());
+    CustomField textbox = customFieldsType1.get(0);
+    CustomField multiselect = customFieldsType1.get(2);
+
+    recordService.installUsageCounters(TENANT)
+      .compose(v -> populateWithEntities("table1", createEntities("")))
+      .compose(v -> Future.all(
+        recordService.retrieveStatistic(textbox, TENANT),
+        recordService.retrieveOptionStatistic(multiselect, "opt_2", TENANT),
+        recordService.retrieveOptionStatistics(multiselect, TENANT)))
+      .onComplete(
+        context.asyncAssertSuccess(
+          res -> {
+            assertThat(res.<CustomFieldStatistic>resultAt(0).getCount()).isEqualTo(5);
+            assertThat(res.<CustomFieldOptionStatistic>resultAt(1).getCount()).isEqualTo(5);
+            CustomFieldOptionStatisticCollection optionStatistics = res.resultAt(2);
+            assertThat(optionStatistics.getStats())
+              .extracting(CustomFieldOptionStatistic::getCount)
+              .containsExactly(0, 3, 5, 2);
+            assertThat(optionStatistics.getAbsentCount()).isZero();
+          }));
+  }
+
+  @Test
+  public void testUsageCountersFollowBulkUpdatesAndDeletes(TestContext context) {
+    RecordService recordService = RecordServiceImpl.createForMultipleTables(
+      vertx,
+      Map.of("entityType1", List.of("table1", "templates"), "entityType2", List.of("table2", "templates")),
+      RecordServiceOptions.builder().usageCounters(true).build());
+    CustomField textbox = customFieldsType1.get(0);
+    CustomField multiselect = customFieldsType1.get(2);
+
+    // each statement changes two rows of table1 and fires the triggers once
+    recordService.installUsageCounters(TENANT)
+      .compose(v -> populateWithEntities("table1", createEntities("")))
+      .compose(v -> pgClient.execute(
+        "UPDATE table1 SET jsonb = jsonb - 'customFields' WHERE jsonb->>'name' = 'entity2'"))
+      .compose(v -> pgClient.execute("DELETE FROM table1 WHERE jsonb->>'name' = 'entity1'"))
+      .compose(v -> Future.all(
+        recordService.retrieveStatistic(textbox, TENANT),
+        recordService.retrieveOptionStatistics(multiselect, TENANT)))
+      .onComplete(
+        context.asyncAssertSuccess(
+          res -> {
+            assertThat(res.<CustomFieldStatistic>resultAt(0).getCount()).isEqualTo(1);
+            CustomFieldOptionStatisticCollection optionStatistics = res.resultAt(1);
+            assertThat(optionStatistics.getStats())
+              .extracting(CustomFieldOptionStatistic::getCount)
+              .containsExactly(0, 1, 1, 0);
+            assertThat(optionStatistics.getAbsentCount()).isEqualTo(2);
+          }));
+  }
+
+  @Test
+  public void testRetrieveApproximateStatisticsFromSample(TestContext context) {
+    RecordService recordService = RecordServiceImpl.createForMultipleTables(
+      vertx,
+      Map.of("entityType1", List.of("table1", "templates"), "entityType2", List.of("table2", "templates")),
+      RecordServiceOptions.builder().samplePercent(100).approximateMinRows(0).build());
+    CustomField textbox = customFieldsType1.get(0);
+    CustomField multiselect = customFieldsType1.get(2);
+    PostgresClient pgClient = PostgresClient.getInstance(vertx, TENANT);
+
+    pgClient.execute("ANALYZE table1")
+      .compose(v -> pgClient.execute("ANALYZE templates"))
+      .compose(v -> Future.all(
+        recordService.retrieveStatistic(textbox, true, TENANT),
+        recordService.retrieveOptionStatistic(multiselect, "opt_2", true, TENANT),
+        recordService.retrieveStatistic(textbox, false, TENANT)))
+      .onComplete(
+        context.asyncAssertSuccess(
+          res -> {
+            CustomFieldStatistic approximate = res.resultAt(0);
+            assertThat(approximate.getCount()).isEqualTo(3);
+            assertThat(approximate.getExact()).isFalse();
+            assertThat(approximate.getErrorMargin()).isZero();
+            CustomFieldOptionStatistic approximateOption = res.resultAt(1);
+            assertThat(approximateOption.getCount()).isEqualTo(3);
+            assertThat(approximateOption.getExact()).isFalse();
+            CustomFieldStatistic exact = res.resultAt(2);
+            assertThat(exact.getCount()).isEqualTo(3);
+            assertThat(exact.getExact()).isNull();
+          }));
+  }
+
+  @Test
+  public void testRetrieveStatisticTimeoutReturnsPartialCounts(TestContext context) {
+    RecordService recordService = RecordServiceImpl.createForMultipleTables(
+      vertx,
+      Map.of("entityType1", List.of("table1", "table2")),
+      RecordServiceOptions.builder().statisticsTimeoutMillis(500).build());
+    CustomField textbox = customFieldsType1.get(0);
+
+    // statement_timeout includes the time spent waiting for the lock of table2
+    pgClient.withTrans(conn -> conn.execute("LOCK TABLE table2 IN ACCESS EXCLUSIVE MODE")
+        .compose(x -> recordService.retrieveStatistic(textbox, TENANT)
+          .transform(ar -> Future.succeededFuture(ar))))
+      .onComplete(
+        context.asyncAssertSuccess(
+          ar -> {
+            assertThat(ar.failed()).isTrue();
+            assertThat(ar.cause()).isInstanceOf(StatementTimeoutException.class);
+            assertThat(((StatementTimeoutException) ar.cause()).getPartialCounts())
+              .isEqualTo(Map.of("table1", Map.of(textbox.getRefId(), 2)));
+          }));
+  }
+
+  @Test
+  public void testCreateIndexes(TestContext context) {
+    RecordService recordService = RecordServiceImpl.createForMultipleTables(
+      vertx,
+      Map.of("entityType1", List.of("table1", "templates"), "entityType2", List.of("table2", "templates")),
+      RecordServiceOptions.builder().createIndexes(true).build());
+
+    recordService.retrieveIndexes(TENANT)
+      .compose(indexes -> {
+        assertThat(indexes)
+          .extracting(CustomFieldIndex::getTableName, CustomFieldIndex::getIndexed, CustomFieldIndex::getRecommendedDdl)
+          .containsExactly(
+            tuple("table1", false, RecordServiceImpl.createIndexDdl("table1")),
+            tuple("table2", false, RecordServiceImpl.createIndexDdl("table2")),
+            tuple("templates", false, RecordServiceImpl.createIndexDdl("templates")));
+        assertThat(indexes.get(2).getEntityTypes()).containsExactly("entityType1", "entityType2");
+        assertThat(indexes).allSatisfy(index -> assertThat(index.getEstimatedCost()).isPositive());
+        return recordService.createIndexes(TENANT);
+      })
+      .compose(v -> recordService.retrieveIndexes(TENANT))
+      .eventually(() -> Future.all(Stream.of("table1", "table2", "templates")
+        .map(tableName -> pgClient.execute("DROP INDEX IF EXISTS " + tableName + "_custom_fields_idx"))
+        .toList()))
+      .onComplete(
+        context.asyncAssertSuccess(
+          indexes -> assertThat(indexes)
+            .extracting(CustomFieldIndex::getIndexName, CustomFieldIndex::getOperatorClass,
+              CustomFieldIndex::getRecommendedDdl)
+            .containsExactly(
+              tuple("table1_custom_fields_idx", CustomFieldIndex.OperatorClass.JSONB_OPS, null),
+              tuple("table2_custom_fields_idx", CustomFieldIndex.OperatorClass.JSONB_OPS, null),
+              tuple("templates_custom_fields_idx", CustomFieldIndex.OperatorClass.JSONB_OPS, null))));
+  }
+
+  @Test
+  public void testRetrieveIndexesSingleTable() {
+    SpringContextUtil.init(vertx, getFirstContextFromDeployments(), TestConfigSingleTable.class);
+
+    CustomFieldIndexCollection indexes = given()
+      .get(CUSTOM_FIELDS_PATH + "/indexes")
+      .then()
+      .statusCode(200)
+      .extract()
+      .as(CustomFieldIndexCollection.class);
+
+    assertThat(indexes.getTotalRecords()).isEqualTo(2);
+    assertThat(indexes.getIndexes())
+      .extracting(CustomFieldIndex::getTableName, CustomFieldIndex::getEntityTypes, CustomFieldIndex::getIndexed)
+      .containsExactly(
+        tuple("table1", List.of("entityType1"), false),
+        tuple("table2", List.of("entityType2"), false));
+  }
+
   private Future<List<List<JsonObject>>> fetchAllEntities() {
     List<Future<List<JsonObject>>> futures =
       Stream.of("table1", "table2", "templates").map(this::getEntitiesFromTable).toList();
@@ -534,6 +839,16 @@ public class RecordServiceImplTest {
       .as(CustomFieldStatistic.class);
   }
 
+  private CustomFieldStatisticCollection getCustomFieldStatistics(String entityType) {
+    return given()
+      .queryParam("entityType", entityType)
+      .get(CUSTOM_FIELDS_PATH + "/stats")
+      .then()
+      .statusCode(200)
+      .extract()
+      .as(CustomFieldStatisticCollection.class);
+  }
+
   private CustomFieldOptionStatistic getCustomFieldOptionStatistic(
     CustomField customField, String optId) {
     return given()
@@ -544,6 +859,15 @@ public class RecordServiceImplTest {
       .as(CustomFieldOptionStatistic.class);
   }
 
+  private CustomFieldOptionStatisticCollection getCustomFieldOptionStatistics(CustomField customField) {
+    return given()
+      .get(CUSTOM_FIELDS_PATH + "/{id}/options/stats", customField.getId())
+      .then()
+      .statusCode(200)
+      .extract()
+      .as(CustomFieldOptionStatisticCollection.class);
+  }
+
   private void putPutCustomFieldCollection(PutCustomFieldCollection putCustomFieldCollection) {
     given()
       .header("Content-Type", "application/json")
@@ -0,0 +1,87 @@
+package org.folio.validate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import static org.folio.validate.ValidationTestUtil.parseCustomFieldJsonValue;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import org.folio.rest.jaxrs.model.CustomField;
+import org.folio.rest.jaxrs.model.Error;
+import org.folio.spring.TestConfiguration;
+import org.folio.test.util.TestUtil;
+
+@RunWith(SpringRunner.class)
+@ContextConfiguration(classes = TestConfiguration.class)
+public class ValidationPlanCompilerTest {
+
+  @Autowired
+  private ValidationPlanCompiler compiler;
+
+  @Test
+  public void shouldReturnNoErrorsWhenAllValuesAreValid() throws IOException, URISyntaxException {
+    RecordValidationPlan plan = compiler.compile(getDefinitions());
+
+    Map<String, Object> values = new LinkedHashMap<>();
+    values.put("textbox-field", parseCustomFieldJsonValue("\"text\""));
+    values.put("favoritefood_1", parseCustomFieldJsonValue("\"pizza\""));
+
+    assertTrue(plan.validate(values).isEmpty());
+  }
+
+  @Test
+  public void shouldReturnErrorForEveryInvalidValue() throws IOException, URISyntaxException {
+    RecordValidationPlan plan = compiler.compile(getDefinitions());
+
+    Map<String, Object> values = new LinkedHashMap<>();
+    values.put("textbox-field", parseCustomFieldJsonValue("\"" + StringUtils.repeat("*", 16) + "\""));
+    values.put("favoritefood_1", parseCustomFieldJsonValue("\"table\""));
+    values.put("unknown", parseCustomFieldJsonValue("\"value\""));
+
+    List<Error> errors = plan.validate(values);
+    assertEquals(3, errors.size());
+    assertEquals("Maximum length of the value is 15", errors.get(0).getMessage());
+    assertTrue(errors.get(1).getMessage().startsWith("Field favoritefood_1 can only have following values"));
+    assertEquals("Custom field with refId unknown is not found", errors.get(2).getMessage());
+  }
+
+  @Test
+  public void shouldResolveOptionIdsAndLimitsOnCompile() throws IOException, URISyntaxException {
+    RecordValidationPlan plan = compiler.compile(getDefinitions());
+
+    assertEquals(15, plan.get("textbox-field").getMaxLength());
+    assertEquals(3, plan.get("favoritefood_1").getOptionIds().size());
+    assertTrue(plan.get("favoritefood_1").getOptionIds().contains("potatoes"));
+  }
+
+  @Test
+  public void shouldReusePlanWhileTenantDefinitionsAreTheSame() throws IOException, URISyntaxException {
+    List<CustomField> definitions = getDefinitions();
+
+    RecordValidationPlan first = compiler.compile("tenant", definitions);
+    assertSame(first, compiler.compile("tenant", definitions));
+    assertNotSame(first, compiler.compile("tenant", new ArrayList<>(definitions)));
+  }
+
+  private List<CustomField> getDefinitions() throws IOException, URISyntaxException {
+    return List.of(
+      TestUtil.readJsonFile("fields/model/shortTextBoxField.json", CustomField.class),
+      TestUtil.readJsonFile("fields/model/singleSelectField.json", CustomField.class)
+    );
+  }
+}
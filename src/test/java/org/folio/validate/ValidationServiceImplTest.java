@@ -9,6 +9,9 @@ import static org.folio.test.util.TestUtil.readFile;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.folio.CustomFieldsTestUtil;
 import org.folio.rest.jaxrs.model.Errors;
@@ -109,6 +112,46 @@ public class ValidationServiceImplTest extends TestBase {
       });
   }
 
+  @Test
+  public void shouldReturnErrorsPerRecordForBatch(TestContext context) throws IOException, URISyntaxException {
+    createRadioButtonField();
+    Async async = context.async();
+    List<Map<String, Object>> records = List.of(
+      parseCustomFields("{\"favoritefood\":\"opt_1\"}"),
+      parseCustomFields("{\"favoritefood\":\"opt_5\"}"),
+      parseCustomFields("{\"notexistingfield\":\"value\"}")
+    );
+    validationService
+      .validateCustomFields(records, STUB_TENANT)
+      .onComplete(context.asyncAssertSuccess(errors -> {
+        context.assertEquals(3, errors.size());
+        context.assertTrue(errors.get(0).getErrors().isEmpty());
+        context.assertEquals("favoritefood", errors.get(1).getErrors().get(0).getParameters().get(0).getKey());
+        context.assertEquals("customFields", errors.get(2).getErrors().get(0).getParameters().get(0).getKey());
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void shouldReturnErrorsByRecordIdForBatch(TestContext context) throws IOException, URISyntaxException {
+    createRadioButtonField();
+    Async async = context.async();
+    Map<String, Map<String, Object>> records = new LinkedHashMap<>();
+    records.put("valid", parseCustomFields("{\"favoritefood\":\"opt_1\"}"));
+    records.put("invalid", parseCustomFields("{\"favoritefood\":\"opt_5\"}"));
+    validationService
+      .validateCustomFieldsById(records, STUB_TENANT)
+      .onComplete(context.asyncAssertSuccess(errors -> {
+        context.assertTrue(errors.get("valid").getErrors().isEmpty());
+        context.assertEquals("\"opt_5\"", errors.get("invalid").getErrors().get(0).getParameters().get(0).getValue());
+        async.complete();
+      }));
+  }
+
+  private Map<String, Object> parseCustomFields(String json) {
+    return Json.decodeValue(json, CustomFieldValue.class).getAdditionalProperties();
+  }
+
   private void createRadioButtonField() throws IOException, URISyntaxException {
     String radioButton = readFile("fields/post/radioButton/postValidRadioButton.json");
     postWithStatus(CUSTOM_FIELDS_PATH, radioButton, SC_CREATED, USER1_HEADER);